@@ -1,56 +1,449 @@
 package controllers;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import dao.CampDaoImpl;
+import dao.CommitteeMemberDaoImpl;
+import dao.StaffDaoImpl;
+import dao.StudentDaoImpl;
+
+import enums.DataFormat;
+import enums.FlushPolicy;
+
+import interfaces.dao.CampDao;
+import interfaces.dao.CommitteeMemberDao;
+import interfaces.dao.StaffDao;
+import interfaces.dao.StudentDao;
 import interfaces.services.DataServiceable;
+import interfaces.services.JournalServiceable;
+import interfaces.services.ValidateDataServiceable;
 import services.CampDataService;
 import services.CommitteeDataService;
+import services.DataValidationService;
+import services.JournalService;
+import services.SnapshotDataService;
 import services.StaffDataService;
 import services.StudentDataService;
 
+import utils.ExportBatch;
+import utils.IdAllocator;
+
 /**
  * The {@code DataTransferController} class provides methods for importing and exporting data to and from the CAMs application.
- * 
+ *
  * <p>
  * It utilizes implementations of the {@code DataServiceable} interface for handling data operations for staff, students, committee members, and camps.
  * </p>
- * 
+ *
+ * <p>
+ * The data set is loaded once by {@link #start()} and stays resident in the DAOs across user sessions.
+ * It is written back to the CSV files according to the {@link FlushPolicy} read from the {@code cams.flush} system property,
+ * and always once more by {@link #shutdown()}.
+ * </p>
+ *
+ * <p>
+ * Flushes run on a background thread, so the next user does not wait for the files to be written.
+ * A flush requested at the end of a session starts {@code cams.flush.delay} milliseconds later, and every request made
+ * in the meantime is folded into it. {@link #shutdown()} waits for a running flush before writing the last changes itself.
+ * </p>
+ *
+ * <p>
+ * Unless the {@code cams.import.parallel} system property is {@code false}, the staff, student and committee member files
+ * are imported at the same time, followed by the camp file and a parallel check of the references between them.
+ * </p>
+ *
+ * <p>
+ * Unless the {@code cams.journal} system property is {@code false}, every change is also appended to a journal as it is made.
+ * The journal is replayed over the CSV files on startup and emptied whenever the CSV files are written in full,
+ * which also happens at the end of a session once the journal holds {@code cams.journal.compact} changes.
+ * </p>
+ *
+ * <p>
+ * The {@code cams.format} system property selects the {@link DataFormat} the data set is stored in. With {@code binary},
+ * the data set is loaded from and written to a single snapshot file; if no snapshot exists yet, the CSV files are imported
+ * and the snapshot is written at the first flush. {@link #convert(DataFormat, DataFormat)} converts between the two formats.
+ * </p>
+ *
+ * <p>
+ * Each flush writes its files as one {@link ExportBatch}, so a crash part-way through never leaves a file half written.
+ * Before anything is read, a flush interrupted after it committed is completed, and one interrupted before is discarded.
+ * </p>
+ *
+ * <p>
+ * Enquiry and suggestion IDs are handed out by {@link IdAllocator}s in blocks recorded in their own file, so that an ID
+ * is never reused after a crash, even if the enquiry or suggestion it was given to was not written back.
+ * </p>
+ *
  * @author Chuan Shan Hong
- * @version 1.0
+ * @version 1.2
  * @since 1.0
- * 
+ *
  * @see DataServiceable
  * @see StaffDataService
  * @see StudentDataService
  * @see CommitteeDataService
  * @see CampDataService
+ * @see DataValidationService
+ * @see JournalService
+ * @see SnapshotDataService
+ * @see utils.ExportBatch
+ * @see utils.IdAllocator
+ * @see enums.DataFormat
+ * @see enums.FlushPolicy
  */
 public class DataTransferController {
-	
+
+	private static final String STAFF_FILE = "data/StaffList.csv";
+
+	private static final String STUDENT_FILE = "data/StudentList.csv";
+
+	private static final String COMMITTEE_FILE = "data/CommitteeList.csv";
+
+	private static final String CAMP_FILE = "data/CampList.csv";
+
+	private static final String JOURNAL_FILE = "data/Journal.csv";
+
+	private static final String SNAPSHOT_FILE = "data/CAMs.snapshot";
+
+	private static final String EXPORT_MANIFEST = "data/Export.manifest";
+
+	private static final String ID_FILE = "data/IdBlocks.csv";
+
 	private static DataServiceable staffDataService = new StaffDataService();
-	
+
 	private static DataServiceable studentDataService = new StudentDataService();
-	
+
 	private static DataServiceable committeeMemberDataService = new CommitteeDataService();
-	
+
 	private static DataServiceable campDataService = new CampDataService();
-	
+
+	private static ValidateDataServiceable dataValidationService = new DataValidationService();
+
+	private static DataServiceable snapshotDataService = new SnapshotDataService();
+
+	private static JournalServiceable journalService = new JournalService();
+
+	private static final CampDao campDao = new CampDaoImpl();
+
+	private static final StaffDao staffDao = new StaffDaoImpl();
+
+	private static final StudentDao studentDao = new StudentDaoImpl();
+
+	private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
+	private static final DataFormat dataFormat = DataFormat.fromString(System.getProperty("cams.format"));
+
+	private static final boolean parallelImport = Boolean.parseBoolean(System.getProperty("cams.import.parallel", "true"));
+
+	private static final FlushPolicy flushPolicy = FlushPolicy.fromString(System.getProperty("cams.flush"));
+
+	private static final long flushIntervalSeconds = Long.getLong("cams.flush.interval", 60L);
+
+	private static final long flushDelayMillis = Long.getLong("cams.flush.delay", 250L);
+
+	private static final boolean journalEnabled = Boolean.parseBoolean(System.getProperty("cams.journal", "true"));
+
+	private static final int compactThreshold = Integer.getInteger("cams.journal.compact", 500);
+
+	private static ScheduledThreadPoolExecutor flushScheduler;
+
+	/**
+	 * Whether a requested flush has been scheduled but has not started yet.
+	 */
+	private static final AtomicBoolean flushPending = new AtomicBoolean(false);
+
+	private static boolean started = false;
+
+	private DataTransferController() {}
+
+    /**
+     * Loads the data set into the DAOs and starts the configured flush policy.
+     *
+     * <p>Calling this method more than once has no effect, so the CSV files are only parsed at startup.</p>
+     */
+	public static synchronized void start() {
+
+		if (started) return;
+
+		recoverExport();
+		importData();
+		started = true;
+
+		if (journalEnabled && journalService.open(JOURNAL_FILE) > 0) {
+			// Fold the replayed changes into the CSV files straight away
+			exportData();
+		}
+		openIdAllocators();
+
+		flushScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "cams-flush");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// A flush still waiting at shutdown is covered by the final export
+		flushScheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+		if (flushPolicy == FlushPolicy.PERIODIC) {
+			flushScheduler.scheduleWithFixedDelay(DataTransferController::backgroundFlush,
+					flushIntervalSeconds, flushIntervalSeconds, TimeUnit.SECONDS);
+		}
+
+		Runtime.getRuntime().addShutdownHook(new Thread(DataTransferController::shutdown, "cams-shutdown"));
+	}
+
     /**
-     * Imports data from CSV files for staff, students, committee members, and camps.
-     */	
+     * Called after a user session ends. Requests a background flush if the flush policy is {@code SESSION},
+     * or if the journal has grown past the compaction threshold, and returns without waiting for it.
+     */
+	public static void endSession() {
+
+		if (flushPolicy == FlushPolicy.SESSION || journalService.size() >= compactThreshold) requestFlush();
+	}
+
+    /**
+     * Stops the background flush, waiting for one that is already running, and writes the data set back to the CSV files one last time.
+     */
+	public static void shutdown() {
+
+		ScheduledThreadPoolExecutor scheduler;
+		synchronized (DataTransferController.class) {
+			if (!started) return;
+
+			scheduler = flushScheduler;
+			flushScheduler = null;
+		}
+
+		// Wait outside the lock, since a running flush needs it to finish
+		if (scheduler != null) {
+			scheduler.shutdown();
+			try {
+				scheduler.awaitTermination(1, TimeUnit.MINUTES);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		synchronized (DataTransferController.class) {
+			if (!started) return;
+
+			exportData();
+			journalService.close();
+			started = false;
+		}
+	}
+
+    /**
+     * Imports data for staff, students, committee members, and camps in the configured format,
+     * then reports any camp or user that refers to a missing record.
+     */
 	public static void importData() {
-		
-		staffDataService.importing("data/StaffList.csv");
-		studentDataService.importing("data/StudentList.csv");
-		committeeMemberDataService.importing("data/CommitteeList.csv");
-		campDataService.importing("data/CampList.csv");
-	}
-	
-    /**
-     * Exports data to CSV files for staff, students, committee members, and camps.
-     */	
-	public static void exportData() {
-		staffDataService.exporting("data/StaffList.csv");
-		studentDataService.exporting("data/StudentList.csv");
-		committeeMemberDataService.exporting("data/CommitteeList.csv");
-		campDataService.exporting("data/CampList.csv");
+
+		if (dataFormat == DataFormat.BINARY && new File(SNAPSHOT_FILE).exists()) {
+			importData(DataFormat.BINARY);
+		} else {
+			importData(DataFormat.CSV);
+			// The snapshot does not exist yet, so write it at the first flush
+			if (dataFormat == DataFormat.BINARY) markAllDirty();
+		}
+
+		for (String problem : dataValidationService.validate())
+			System.err.println("> Data check: " + problem);
+	}
+
+    /**
+     * Exports data for staff, students, committee members, and camps in the configured format,
+     * then empties the journal if every change made it into the files.
+     */
+	public static synchronized void exportData() {
+
+		exportData(dataFormat);
+		journalService.truncate();
+	}
+
+    /**
+     * Reads the data set in one format and writes it out in full in another.
+     * Meant to be run on its own, before the application is started with the new format.
+     *
+     * @param from The format to read.
+     * @param to The format to write.
+     */
+	public static synchronized void convert(DataFormat from, DataFormat to) {
+
+		recoverExport();
+		importData(from);
+		markAllDirty();
+		exportData(to);
+	}
+
+    /**
+     * Imports the data set from the files of the given format.
+     *
+     * @param format The format to read.
+     */
+	private static void importData(DataFormat format) {
+
+		if (format == DataFormat.BINARY) {
+			snapshotDataService.importing(SNAPSHOT_FILE);
+			return;
+		}
+
+		if (parallelImport) {
+			importUsersInParallel();
+		} else {
+			staffDataService.importing(STAFF_FILE);
+			studentDataService.importing(STUDENT_FILE);
+			committeeMemberDataService.importing(COMMITTEE_FILE);
+		}
+		campDataService.importing(CAMP_FILE);
+	}
+
+    /**
+     * Exports the dirty part of the data set to the files of the given format, as a single batch.
+     *
+     * <p>If the batch cannot be committed, or an exporter fails outright, every record is marked dirty again
+     * so that the next export rewrites the files in full and the journal is kept until then.</p>
+     *
+     * @param format The format to write.
+     */
+	private static void exportData(DataFormat format) {
+
+		try (ExportBatch batch = ExportBatch.begin(EXPORT_MANIFEST)) {
+			if (format == DataFormat.BINARY) {
+				snapshotDataService.exporting(SNAPSHOT_FILE);
+			} else {
+				staffDataService.exporting(STAFF_FILE);
+				studentDataService.exporting(STUDENT_FILE);
+				committeeMemberDataService.exporting(COMMITTEE_FILE);
+				campDataService.exporting(CAMP_FILE);
+			}
+			batch.commit();
+		} catch (IOException e) {
+			System.err.println("> Export: the previous files were kept: " + e);
+			markAllDirty();
+		} catch (RuntimeException e) {
+			markAllDirty();
+			throw e;
+		}
+	}
+
+    /**
+     * Completes or discards a flush that was interrupted by a crash, so that every data file is the last one written in full.
+     */
+	private static void recoverExport() {
+
+		try {
+			int completed = ExportBatch.recover(EXPORT_MANIFEST, STAFF_FILE, STUDENT_FILE, COMMITTEE_FILE, CAMP_FILE, SNAPSHOT_FILE, ID_FILE);
+			if (completed > 0)
+				System.err.println("> Export: completed " + completed + " file(s) from an interrupted flush");
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to recover the data files", e);
+		}
+	}
+
+    /**
+     * Starts reserving enquiry and suggestion IDs in blocks recorded in the ID file, so that no ID handed out
+     * before a crash is handed out again after it.
+     */
+	private static void openIdAllocators() {
+
+		try {
+			IdAllocator.open(ID_FILE);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to read the ID file", e);
+		}
+	}
+
+    /**
+     * Marks every loaded record dirty, so that the next export writes the whole data set.
+     */
+	private static void markAllDirty() {
+
+		campDao.getCamps().keySet().forEach(campDao::markDirty);
+		staffDao.getStaffs().keySet().forEach(staffDao::markDirty);
+		studentDao.getStudents().keySet().forEach(studentDao::markDirty);
+		committeeMemberDao.getCommitteeMembers().keySet().forEach(committeeMemberDao::markDirty);
+	}
+
+    /**
+     * Imports the staff, student and committee member files at the same time.
+     *
+     * <p>The three files are independent of each other and each service fills its own DAO,
+     * so the import takes roughly as long as the largest file.</p>
+     */
+	private static void importUsersInParallel() {
+
+		ExecutorService executor = Executors.newFixedThreadPool(3, runnable -> {
+			Thread thread = new Thread(runnable, "cams-import");
+			thread.setDaemon(true);
+			return thread;
+		});
+		List<Future<?>> imports = new ArrayList<Future<?>>();
+
+		try {
+			imports.add(executor.submit(() -> staffDataService.importing(STAFF_FILE)));
+			imports.add(executor.submit(() -> studentDataService.importing(STUDENT_FILE)));
+			imports.add(executor.submit(() -> committeeMemberDataService.importing(COMMITTEE_FILE)));
+			for (Future<?> pending : imports)
+				pending.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while importing data", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException("Failed to import data", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+    /**
+     * Schedules a background flush after the flush delay, unless one is already waiting to start.
+     */
+	private static void requestFlush() {
+
+		ScheduledThreadPoolExecutor scheduler = flushScheduler;
+		if (scheduler == null || !flushPending.compareAndSet(false, true)) return;
+
+		try {
+			scheduler.schedule(() -> {
+				flushPending.set(false);
+				backgroundFlush();
+			}, flushDelayMillis, TimeUnit.MILLISECONDS);
+		} catch (RejectedExecutionException e) {
+			// Shutting down; the final export writes the changes
+			flushPending.set(false);
+		}
+	}
+
+    /**
+     * Flushes the data set from the background scheduler.
+     *
+     * <p>The flush runs while sessions go on changing the data. Each exporter writes every record under that record's own lock,
+     * so every row is taken from one consistent state of its record. A record changed after it was written stays dirty,
+     * which also keeps the journal, and is written by the next flush.</p>
+     *
+     * <p>An unexpected failure is reported rather than thrown, so that a periodic flush keeps running. The export marks
+     * every record dirty when it fails, so the next flush rewrites the files in full.</p>
+     */
+	private static void backgroundFlush() {
+
+		try {
+			exportData();
+		} catch (RuntimeException e) {
+			System.err.println("> Background flush failed: " + e);
+			e.printStackTrace();
+		}
 	}
 }
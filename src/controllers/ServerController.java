@@ -0,0 +1,164 @@
+package controllers;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.Session;
+
+import utils.SessionPrintStream;
+
+/**
+ * The {@code ServerController} class serves CAMs over TCP, so that many users can work on the same data set at once
+ * from a telnet-style client.
+ *
+ * <p>Each connection is a {@link Session} served by {@link SessionController#serve(Session)} on a thread of its own.
+ * {@code System.out} is replaced by a {@link SessionPrintStream}, so the menus, views and messages of each session go
+ * to its own connection, and its input is read from that connection.</p>
+ *
+ * <p>The server is tuned with system properties:</p>
+ * <ul>
+ *   <li>{@code cams.server.sessions} - the most sessions served at once (1000 by default); further connections are turned away.</li>
+ *   <li>{@code cams.server.backlog} - the connections queued while they wait to be accepted (512 by default), so that a rush of users connecting together is not refused.</li>
+ *   <li>{@code cams.server.idle} - the minutes a session may wait for input before it is closed (15 by default, 0 for no limit).</li>
+ *   <li>{@code cams.server.stack} - the stack size of each session thread in bytes (256 KiB by default).</li>
+ * </ul>
+ *
+ * <p>A user whose connection drops is logged out as if they had logged out themselves.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see SessionController
+ * @see models.Session
+ * @see utils.SessionPrintStream
+ */
+public class ServerController {
+
+	private static final int maxSessions = Integer.getInteger("cams.server.sessions", 1000);
+
+	private static final int backlog = Integer.getInteger("cams.server.backlog", 512);
+
+	private static final int idleMinutes = Integer.getInteger("cams.server.idle", 15);
+
+	private static final long stackSize = Long.getLong("cams.server.stack", 256L << 10);
+
+	private static final AtomicInteger sessionCount = new AtomicInteger();
+
+	private ServerController() {}
+
+    /**
+     * Accepts connections on a port and serves each one as a session, until the process is stopped.
+     *
+     * @param port The port to listen on.
+     *
+     * @throws IOException if the port cannot be listened on.
+     */
+	public static void serve(int port) throws IOException {
+
+		// Keep the console's stream before it is replaced
+		Session.console();
+		System.setOut(new SessionPrintStream());
+
+		ThreadPoolExecutor sessions = new ThreadPoolExecutor(0, maxSessions, 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(null, runnable, "cams-session-" + sessionCount.incrementAndGet(), stackSize);
+					thread.setDaemon(true);
+					return thread;
+				});
+
+		try (ServerSocket server = new ServerSocket(port, backlog)) {
+			System.out.println("\n> Serving CAMs on port " + server.getLocalPort());
+
+			do {
+				Socket socket = server.accept();
+				try {
+					sessions.execute(() -> handle(socket));
+				} catch (RejectedExecutionException e) {
+					refuse(socket);
+				}
+			} while (true);
+		} finally {
+			sessions.shutdownNow();
+		}
+	}
+
+    /**
+     * Serves one connection until its user quits or the connection is closed.
+     *
+     * <p>However the session ends, a user still logged in is logged out and a flush is requested, as at a normal logout.
+     * A session that fails is reported and closed without affecting the others.</p>
+     *
+     * @param socket The connection to be served.
+     */
+	private static void handle(Socket socket) {
+
+		try (socket) {
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout((int) TimeUnit.MINUTES.toMillis(idleMinutes));
+
+			Session session = new Session(String.valueOf(socket.getRemoteSocketAddress()), socket.getInputStream(),
+					new PrintStream(new BufferedOutputStream(socket.getOutputStream()), false, StandardCharsets.UTF_8),
+					StandardCharsets.UTF_8);
+
+			try {
+				SessionController.serve(session);
+			} catch (NoSuchElementException e) {
+				// The connection was closed or timed out
+			} catch (RuntimeException e) {
+				System.err.println("> Server: " + session.getName() + ": session failed: " + e);
+				e.printStackTrace();
+			} finally {
+				end(session);
+			}
+		} catch (IOException e) {
+			System.err.println("> Server: " + socket.getRemoteSocketAddress() + ": " + e.getMessage());
+		}
+	}
+
+    /**
+     * Logs out the user of a session that ended without logging out, requests a flush of their changes,
+     * and sends whatever the session has not yet sent.
+     *
+     * @param session The session that ended.
+     */
+	private static void end(Session session) {
+
+		try {
+			// A user who quit was logged out by the session itself, which also requested the flush
+			if (session.getUser() != null) {
+				try {
+					session.run(SessionController::endSession);
+				} finally {
+					DataTransferController.endSession();
+				}
+			}
+		} finally {
+			session.getOutput().flush();
+		}
+	}
+
+    /**
+     * Turns a connection away when the server is serving as many sessions as it may.
+     *
+     * @param socket The connection to be turned away.
+     */
+	private static void refuse(Socket socket) {
+
+		try (socket) {
+			socket.getOutputStream().write("\n> The server is busy. Try again later.\n".getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			// The client has gone already
+		}
+	}
+}
@@ -3,6 +3,8 @@ package controllers;
 import dao.CurrentUserDaoImpl;
 import interfaces.dao.CurrentUserDao;
 import interfaces.services.AuthServiceable;
+import models.Session;
+import models.User;
 import services.AuthService;
 
 import utils.InputUtil;
@@ -20,6 +22,9 @@ import utils.PrintUtil;
  * 
  * <p>Note: The class assumes a loop where users can choose to log in or quit.</p>
  * 
+ * <p>{@link #serve(Session)} runs that loop for one {@link Session}, with the session bound to the calling thread.
+ * Each session keeps its own current user, so several sessions can be served at once on different threads.</p>
+ * 
  * @author Chuan Shan Hong
  * @version 1.0
  * @since 1.0
@@ -27,6 +32,7 @@ import utils.PrintUtil;
  * @see AuthServiceable
  * @see CurrentUserDao
  * @see CurrentUserDaoImpl
+ * @see models.Session
  * @see services.AuthService
  * @see utils.InputUtil
  * @see utils.PrintUtil
@@ -38,6 +44,39 @@ public class SessionController {
 	private static final CurrentUserDao currentUserDao = new CurrentUserDaoImpl();
 
 	private SessionController() {}
+
+    /**
+     * Serves a session until its user quits: each user who logs in is handed to the controller for their role,
+     * and logged out when they are done.
+     * 
+     * @param session The session to be served on the calling thread.
+     */
+	public static void serve(Session session) {
+
+		session.run(() -> {
+			do {
+				startSession();
+				User user = currentUserDao.getCurrentUser();
+				if (user == null)
+					break;
+
+				switch (user.getRole()) {
+				case STAFF:
+					new StaffController().start();
+					break;
+				case STUDENT:
+					new StudentController().start();
+					break;
+				case COMMITTEE:
+					new CommitteeController().start();
+					break;
+				}
+
+				endSession();
+				DataTransferController.endSession();
+			} while (true);
+		});
+	}
 	
     /**
      * Starts a user session, allowing users to log in or quit.
@@ -12,6 +12,7 @@
  * @see controllers.AbstractUserController
  * @see controllers.CommitteeController
  * @see controllers.DataTransferController
+ * @see controllers.ServerController
  * @see controllers.SessionController
  * @see controllers.StaffController
  * @see controllers.StudentController
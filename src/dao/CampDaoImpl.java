@@ -1,16 +1,56 @@
 package dao;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import enums.SortType;
+import enums.Visibility;
 
 import interfaces.dao.CampDao;
 
 import models.Camp;
+import models.Enquiry;
+import models.Suggestion;
+
+import utils.SortCampUtil;
 
 /**
  * The {@code CampDaoImpl} class is an implementation of the {@link CampDao} interface.
  * It provides methods to manage and access camps stored in a map.
  * 
+ * <p>The camps are held in a {@link ConcurrentHashMap}, so several sessions can look up, add and remove them at
+ * the same time. A map passed to the setter is copied into a new concurrent map. The lists inside each
+ * camp are guarded by the camp itself; see {@link models.Camp}.</p>
+ * 
+ * <p>The indexes map each visibility and faculty, and each staff-in-charge, to a concurrent set of camp names,
+ * and remember what each camp was indexed under so that a change moves it between sets. A camp is indexed
+ * under its own lock, so two changes to the same camp cannot leave it in the wrong set. Lookups resolve the
+ * names against the camp map and skip a camp removed in the meantime.</p>
+ * 
+ * <p>The camps are also kept in one sorted set for each {@link SortType}, ordered by what the camp was last indexed
+ * under and then by name. Indexing a camp moves it within a set only if its position changed, so listing the camps
+ * in order walks a set that is already sorted instead of sorting the catalogue again.</p>
+ * 
+ * <p>Enquiry and suggestion IDs map to the name of the camp holding them. A camp imported from CSV keeps its
+ * enquiries and suggestions encoded until they are read, so indexing a camp only notes that its IDs are still to be
+ * added. The first lookup of an ID not yet in the index adds the IDs of the noted camps, one camp at a time, until it
+ * finds the ID; after that the camp's IDs are found directly. A lookup checks that the camp still holds the ID, so an
+ * entry left behind by a removed camp or by a journal replay is never returned.</p>
+ * 
+ * <p>The queues of pending enquiries and suggestions are built for a camp, under its lock, the first time they are
+ * asked for, and are then kept up to date by the services. A queue remembers the camp object it was built from, and
+ * is built again if the camp has been replaced since, as a journal replay or import does.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -20,7 +60,79 @@ import models.Camp;
  */
 public class CampDaoImpl implements CampDao {
 	
-	private static Map<String, Camp> camps = new HashMap<String, Camp>();
+	private static volatile Map<String, Camp> camps = new ConcurrentHashMap<String, Camp>();
+
+	/**
+     * The keys of the camps changed since the data was last exported.
+     */
+	private static Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+	/**
+     * The names of the camps of each visibility, by the faculty they are open to.
+     */
+	private static final Map<Visibility, Map<String, Set<String>>> byVisibilityAndOpenTo = new EnumMap<Visibility, Map<String, Set<String>>>(Visibility.class);
+
+	/**
+     * The names of the camps each staff member is in charge of.
+     */
+	private static final Map<String, Set<String>> byStaffInCharge = new ConcurrentHashMap<String, Set<String>>();
+
+	/**
+     * What each camp is recorded under in the indexes.
+     */
+	private static final Map<String, IndexKey> indexed = new ConcurrentHashMap<String, IndexKey>();
+
+	/**
+     * A subset with fewer than one camp for every this many in the catalogue is sorted directly.
+     */
+	private static final int SUBSET_RATIO = 16;
+
+	/**
+     * The camps in the order of each sort type, as they were when last indexed.
+     */
+	private static final Map<SortType, Set<IndexKey>> orderings = new EnumMap<SortType, Set<IndexKey>>(SortType.class);
+
+	/**
+     * The number of changes made to the indexes.
+     */
+	private static final AtomicLong version = new AtomicLong();
+
+	/**
+     * The name of the camp holding each enquiry.
+     */
+	private static final Map<Integer, String> byEnquiryID = new ConcurrentHashMap<Integer, String>();
+
+	/**
+     * The name of the camp holding each suggestion.
+     */
+	private static final Map<Integer, String> bySuggestionID = new ConcurrentHashMap<Integer, String>();
+
+	/**
+     * The camps whose enquiry IDs may not all be in {@link #byEnquiryID} yet.
+     */
+	private static final Set<String> unresolvedEnquiries = ConcurrentHashMap.newKeySet();
+
+	/**
+     * The camps whose suggestion IDs may not all be in {@link #bySuggestionID} yet.
+     */
+	private static final Set<String> unresolvedSuggestions = ConcurrentHashMap.newKeySet();
+
+	/**
+     * The enquiries awaiting a reply, by camp name.
+     */
+	private static final Map<String, PendingQueue> pendingEnquiries = new ConcurrentHashMap<String, PendingQueue>();
+
+	/**
+     * The suggestions awaiting approval, by camp name.
+     */
+	private static final Map<String, PendingQueue> pendingSuggestions = new ConcurrentHashMap<String, PendingQueue>();
+
+	static {
+		for (Visibility visibility : Visibility.values())
+			byVisibilityAndOpenTo.put(visibility, new ConcurrentHashMap<String, Set<String>>());
+		for (SortType sortType : SortType.values())
+			orderings.put(sortType, new ConcurrentSkipListSet<IndexKey>(IndexKey.comparator(sortType)));
+	}
 
     /**
      * Retrieves the map of camps.
@@ -37,8 +149,503 @@ public class CampDaoImpl implements CampDao {
      * @param camps the new map of camps to set, where the keys are unique identifiers and the values are camp objects.
      */
 	public void setCamps(Map<String, Camp> camps) {
-		CampDaoImpl.camps = camps;
+		// Putting back the live map after changing it in place is a no-op
+		if (camps == CampDaoImpl.camps) return;
+
+		dirty.addAll(CampDaoImpl.camps.keySet());
+		dirty.addAll(camps.keySet());
+		CampDaoImpl.camps = new ConcurrentHashMap<String, Camp>(camps);
+
+		for (String campName : indexed.keySet())
+			unindex(campName);
+		camps.values().forEach(this::index);
+	}
+
+    /**
+     * Records that a camp has been created, changed or removed since the data was last exported.
+     * 
+     * @param campName the key of the camp that changed.
+     */
+	public void markDirty(String campName) {
+		dirty.add(campName);
+	}
+
+    /**
+     * Checks whether any camp has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one camp is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty() {
+		return !dirty.isEmpty();
+	}
+
+    /**
+     * Retrieves the keys of the changed camps and clears them, so that later changes are tracked separately.
+     * 
+     * @return a set of the camp names marked dirty since the last call.
+     */
+	public Set<String> takeDirty() {
+		Set<String> taken = new HashSet<String>();
+		for (String key : dirty) {
+			if (dirty.remove(key)) taken.add(key);
+		}
+		return taken;
+	}
+
+    /**
+     * Records a camp's current visibility, faculty, staff-in-charge and sort fields in the indexes, replacing what was recorded for it before.
+     * 
+     * @param camp the camp added to the map or changed.
+     */
+	public void index(Camp camp) {
+		synchronized (camp) {
+			IndexKey key = new IndexKey(camp);
+			IndexKey previous = indexed.put(camp.getName(), key);
+			unresolvedEnquiries.add(camp.getName());
+			unresolvedSuggestions.add(camp.getName());
+
+			// Add before removing, so the camp is never missing from a lookup
+			setOf(byVisibilityAndOpenTo.get(key.visibility), key.openTo).add(camp.getName());
+			setOf(byStaffInCharge, key.staffInCharge).add(camp.getName());
+
+			if (previous != null) {
+				if (previous.visibility != key.visibility || !previous.openTo.equals(key.openTo))
+					byVisibilityAndOpenTo.get(previous.visibility).get(previous.openTo).remove(camp.getName());
+				if (!previous.staffInCharge.equals(key.staffInCharge))
+					byStaffInCharge.get(previous.staffInCharge).remove(camp.getName());
+			}
+
+			for (Map.Entry<SortType, Set<IndexKey>> ordering : orderings.entrySet()) {
+				Set<IndexKey> sorted = ordering.getValue();
+				if (previous == null) {
+					sorted.add(key);
+				} else if (IndexKey.comparator(ordering.getKey()).compare(previous, key) != 0) {
+					sorted.add(key);
+					sorted.remove(previous);
+				}
+			}
+			// Counted once the indexes are updated, so a result worked out before the change is not kept
+			version.incrementAndGet();
+		}
+	}
+
+    /**
+     * Removes a camp from the indexes.
+     * 
+     * @param campName the name of the camp removed from the map.
+     */
+	public void unindex(String campName) {
+		unresolvedEnquiries.remove(campName);
+		unresolvedSuggestions.remove(campName);
+		pendingEnquiries.remove(campName);
+		pendingSuggestions.remove(campName);
+
+		IndexKey previous = indexed.remove(campName);
+		if (previous == null) return;
+
+		byVisibilityAndOpenTo.get(previous.visibility).get(previous.openTo).remove(campName);
+		byStaffInCharge.get(previous.staffInCharge).remove(campName);
+		for (Set<IndexKey> sorted : orderings.values())
+			sorted.remove(previous);
+		version.incrementAndGet();
+	}
+
+    /**
+     * Retrieves a number that changes whenever a camp is indexed or unindexed.
+     * 
+     * @return the number of changes made to the indexes.
+     */
+	public long getVersion() {
+		return version.get();
+	}
+
+    /**
+     * Retrieves the camps with the given visibility that are open to the given faculty.
+     * 
+     * @param visibility the visibility of the camps.
+     * @param openTo the faculty the camps are open to, or {@code NTU} for camps open to everyone.
+     * 
+     * @return a list of the matching camps.
+     */
+	public ArrayList<Camp> getCamps(Visibility visibility, String openTo) {
+		ArrayList<Camp> found = new ArrayList<Camp>();
+		addCamps(found, byVisibilityAndOpenTo.get(visibility).get(openTo));
+		return found;
+	}
+
+    /**
+     * Retrieves the visible camps open to a faculty or to everyone.
+     * 
+     * @param faculty the student's faculty.
+     * 
+     * @return a list of the camps open to the faculty, followed by those open to everyone.
+     */
+	public ArrayList<Camp> getVisibleCamps(String faculty) {
+		ArrayList<Camp> found = getCamps(Visibility.ON, faculty);
+		if (!faculty.equals("NTU"))
+			addCamps(found, byVisibilityAndOpenTo.get(Visibility.ON).get("NTU"));
+		return found;
+	}
+
+    /**
+     * Retrieves the camps a staff member is in charge of.
+     * 
+     * @param staffID the user ID of the staff member.
+     * 
+     * @return a list of the camps the staff member is in charge of.
+     */
+	public ArrayList<Camp> getCampsByStaffInCharge(String staffID) {
+		ArrayList<Camp> found = new ArrayList<Camp>();
+		addCamps(found, byStaffInCharge.get(staffID));
+		return found;
+	}
+
+    /**
+     * Retrieves every camp in the order of a sort type.
+     * 
+     * @param sortType the order to list the camps in.
+     * 
+     * @return a list of the camps, with camps that tie in order of name.
+     */
+	public ArrayList<Camp> getSortedCamps(SortType sortType) {
+		ArrayList<Camp> found = new ArrayList<Camp>();
+		for (IndexKey key : orderings.get(sortType)) {
+			Camp camp = camps.get(key.name);
+			if (camp != null) found.add(camp);
+		}
+		return found;
+	}
+
+    /**
+     * Puts some of the camps in the order of a sort type.
+     * 
+     * @param sortType the order to list the camps in.
+     * @param subset the camps to be listed, such as those a student has registered for.
+     * 
+     * @return a list of the camps in the subset, with camps that tie in order of name.
+     */
+	public ArrayList<Camp> getSortedCamps(SortType sortType, Collection<Camp> subset) {
+		Set<String> campNames = new HashSet<String>();
+		for (Camp camp : subset) {
+			if (camp != null) campNames.add(camp.getName());
+		}
+
+		// A few camps are quicker to sort than to pick out of the whole catalogue
+		if (campNames.size() * SUBSET_RATIO < indexed.size()) {
+			ArrayList<Camp> found = new ArrayList<Camp>();
+			for (String campName : campNames) {
+				Camp camp = camps.get(campName);
+				if (camp != null) found.add(camp);
+			}
+			return SortCampUtil.sort(found, sortType);
+		}
+
+		ArrayList<Camp> found = new ArrayList<Camp>();
+		for (IndexKey key : orderings.get(sortType)) {
+			if (!campNames.contains(key.name)) continue;
+			Camp camp = camps.get(key.name);
+			if (camp != null) found.add(camp);
+		}
+		return found;
+	}
+
+    /**
+     * Records the camp an enquiry belongs to.
+     * 
+     * @param enquiryID the ID of the enquiry added to the camp.
+     * @param campName the name of the camp.
+     */
+	public void indexEnquiry(Integer enquiryID, String campName) {
+		byEnquiryID.put(enquiryID, campName);
+	}
+
+    /**
+     * Removes an enquiry from the index.
+     * 
+     * @param enquiryID the ID of the enquiry removed from its camp.
+     */
+	public void unindexEnquiry(Integer enquiryID) {
+		byEnquiryID.remove(enquiryID);
+	}
+
+    /**
+     * Retrieves the camp holding an enquiry.
+     * 
+     * @param enquiryID the ID of the enquiry.
+     * 
+     * @return the camp holding the enquiry, or {@code null} if no camp holds it.
+     */
+	public Camp getCampByEnquiryID(Integer enquiryID) {
+		return find(enquiryID, byEnquiryID, unresolvedEnquiries, Camp::getEnquiries);
+	}
+
+    /**
+     * Records the camp a suggestion belongs to.
+     * 
+     * @param suggestionID the ID of the suggestion added to the camp.
+     * @param campName the name of the camp.
+     */
+	public void indexSuggestion(Integer suggestionID, String campName) {
+		bySuggestionID.put(suggestionID, campName);
+	}
+
+    /**
+     * Removes a suggestion from the index.
+     * 
+     * @param suggestionID the ID of the suggestion removed from its camp.
+     */
+	public void unindexSuggestion(Integer suggestionID) {
+		bySuggestionID.remove(suggestionID);
+	}
+
+    /**
+     * Retrieves the camp holding a suggestion.
+     * 
+     * @param suggestionID the ID of the suggestion.
+     * 
+     * @return the camp holding the suggestion, or {@code null} if no camp holds it.
+     */
+	public Camp getCampBySuggestionID(Integer suggestionID) {
+		return find(suggestionID, bySuggestionID, unresolvedSuggestions, Camp::getSuggestions);
+	}
+
+    /**
+     * Adds a new enquiry to its camp's queue of enquiries awaiting a reply.
+     * 
+     * @param campName the name of the camp.
+     * @param enquiryID the ID of the enquiry.
+     */
+	public void addPendingEnquiry(String campName, Integer enquiryID) {
+		PendingQueue queue = pendingEnquiries.get(campName);
+		if (queue != null) queue.ids.add(enquiryID);
+	}
+
+    /**
+     * Removes an enquiry that has been replied to or deleted from its camp's queue.
+     * 
+     * @param campName the name of the camp.
+     * @param enquiryID the ID of the enquiry.
+     */
+	public void removePendingEnquiry(String campName, Integer enquiryID) {
+		PendingQueue queue = pendingEnquiries.get(campName);
+		if (queue != null) queue.ids.remove(enquiryID);
+	}
+
+    /**
+     * Retrieves the enquiries of a camp that await a reply.
+     * 
+     * @param campName the name of the camp.
+     * 
+     * @return a list of the camp's unanswered enquiries in the order they were made.
+     */
+	public ArrayList<Enquiry> getPendingEnquiries(String campName) {
+		return pending(campName, pendingEnquiries, Camp::getEnquiries, enquiry -> enquiry.getReplier() == null);
+	}
+
+    /**
+     * Adds a new suggestion to its camp's queue of suggestions awaiting approval.
+     * 
+     * @param campName the name of the camp.
+     * @param suggestionID the ID of the suggestion.
+     */
+	public void addPendingSuggestion(String campName, Integer suggestionID) {
+		PendingQueue queue = pendingSuggestions.get(campName);
+		if (queue != null) queue.ids.add(suggestionID);
+	}
+
+    /**
+     * Removes a suggestion that has been approved or deleted from its camp's queue.
+     * 
+     * @param campName the name of the camp.
+     * @param suggestionID the ID of the suggestion.
+     */
+	public void removePendingSuggestion(String campName, Integer suggestionID) {
+		PendingQueue queue = pendingSuggestions.get(campName);
+		if (queue != null) queue.ids.remove(suggestionID);
+	}
+
+    /**
+     * Retrieves the suggestions of a camp that await approval.
+     * 
+     * @param campName the name of the camp.
+     * 
+     * @return a list of the camp's unapproved suggestions in the order they were made.
+     */
+	public ArrayList<Suggestion> getPendingSuggestions(String campName) {
+		return pending(campName, pendingSuggestions, Camp::getSuggestions, suggestion -> !suggestion.getApproved());
+	}
+
+	/**
+	 * Lists the items in a camp's pending queue, building the queue first if the camp has none or has been replaced.
+	 *
+	 * @param <T> the type of the items.
+	 * @param campName the name of the camp.
+	 * @param queues the queues of the camps.
+	 * @param items reads a camp's enquiries or suggestions.
+	 * @param isPending tells whether an item is still pending.
+	 *
+	 * @return a list of the camp's pending items in ID order, empty if the camp does not exist.
+	 */
+	private static <T> ArrayList<T> pending(String campName, Map<String, PendingQueue> queues,
+			Function<Camp, Map<Integer, T>> items, Predicate<T> isPending) {
+
+		ArrayList<T> found = new ArrayList<T>();
+		Camp camp = camps.get(campName);
+		if (camp == null) return found;
+
+		PendingQueue queue = queues.get(campName);
+		if (queue == null || queue.camp != camp) {
+			synchronized (camp) {
+				queue = queues.get(campName);
+				if (queue == null || queue.camp != camp) {
+					queue = new PendingQueue(camp);
+					for (Map.Entry<Integer, T> entry : items.apply(camp).entrySet()) {
+						if (isPending.test(entry.getValue())) queue.ids.add(entry.getKey());
+					}
+					queues.put(campName, queue);
+				}
+			}
+		}
+
+		Map<Integer, T> held = items.apply(camp);
+		for (Integer id : queue.ids) {
+			T item = held.get(id);
+			// Skip an item answered by a session that has not yet removed it
+			if (item != null && isPending.test(item)) found.add(item);
+		}
+		return found;
+	}
+
+	/**
+	 * Looks up the camp holding an enquiry or suggestion, first adding the IDs of unresolved camps to the index if the ID is not in it.
+	 *
+	 * @param id the ID of the enquiry or suggestion.
+	 * @param index the index of IDs to camp names.
+	 * @param unresolved the camps whose IDs may be missing from the index.
+	 * @param items reads a camp's enquiries or suggestions.
+	 *
+	 * @return the camp holding the ID, or {@code null} if no camp holds it.
+	 */
+	private static Camp find(Integer id, Map<Integer, String> index, Set<String> unresolved,
+			Function<Camp, Map<Integer, ?>> items) {
+
+		Camp camp = holder(id, index, items);
+		if (camp != null) return camp;
+
+		for (String campName : unresolved) {
+			if (!unresolved.remove(campName)) continue;
+
+			Camp candidate = camps.get(campName);
+			if (candidate == null) continue;
+			Map<Integer, ?> held = items.apply(candidate);
+			for (Integer itemID : held.keySet())
+				index.put(itemID, campName);
+			if (held.containsKey(id)) return candidate;
+		}
+		return holder(id, index, items);
+	}
+
+	/**
+	 * Resolves an indexed ID to its camp, if the camp still holds it.
+	 *
+	 * @param id the ID of the enquiry or suggestion.
+	 * @param index the index of IDs to camp names.
+	 * @param items reads a camp's enquiries or suggestions.
+	 *
+	 * @return the camp holding the ID, or {@code null} if the index has no live entry for it.
+	 */
+	private static Camp holder(Integer id, Map<Integer, String> index, Function<Camp, Map<Integer, ?>> items) {
+
+		String campName = index.get(id);
+		Camp camp = campName == null ? null : camps.get(campName);
+		return camp != null && items.apply(camp).containsKey(id) ? camp : null;
+	}
+
+	private static Set<String> setOf(Map<String, Set<String>> index, String key) {
+		return index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet());
+	}
+
+	private static void addCamps(ArrayList<Camp> found, Set<String> campNames) {
+		if (campNames == null) return;
+
+		for (String campName : campNames) {
+			Camp camp = camps.get(campName);
+			if (camp != null) found.add(camp);
+		}
+	}
+
+	/**
+	 * The IDs of a camp's pending enquiries or suggestions, with the camp object they were read from.
+	 */
+	private static final class PendingQueue {
+
+		private final Camp camp;
+
+		private final Set<Integer> ids = new ConcurrentSkipListSet<Integer>();
+
+		PendingQueue(Camp camp) {
+			this.camp = camp;
+		}
+	}
+
+	/**
+	 * The fields a camp is indexed by, as they were when it was last indexed.
+	 */
+	private static final class IndexKey {
+
+		private final String name;
+
+		private final Visibility visibility;
+
+		private final String openTo;
+
+		private final String staffInCharge;
+
+		private final String location;
+
+		private final int startDay;
+
+		private final int closingDay;
+
+		IndexKey(Camp camp) {
+			this.name = camp.getName();
+			this.visibility = camp.getVisibility();
+			this.openTo = camp.getOpenTo();
+			this.staffInCharge = camp.getStaffInCharge();
+			this.location = camp.getLocation();
+			this.startDay = camp.getStartDay();
+			this.closingDay = camp.getRegistrationClosingDay();
+		}
+
+		/**
+		 * Returns the order of a sort type over recorded keys, matching {@link SortCampUtil#sort(ArrayList, SortType)}.
+		 *
+		 * @param sortType the type of sorting.
+		 *
+		 * @return a comparator that orders keys by the sort type's field and then by name.
+		 */
+		static Comparator<IndexKey> comparator(SortType sortType) {
+			Comparator<IndexKey> byField;
+			switch (sortType) {
+				case DATES:
+					byField = Comparator.comparingInt(key -> key.startDay);
+					break;
+				case CLOSING_DATE:
+					byField = Comparator.comparingInt(key -> key.closingDay);
+					break;
+				case LOCATION:
+					byField = Comparator.comparing(key -> key.location);
+					break;
+				case FACULTY:
+					byField = Comparator.comparing(key -> key.openTo);
+					break;
+				case STAFF:
+					byField = Comparator.comparing(key -> key.staffInCharge);
+					break;
+				default:
+					return Comparator.comparing(key -> key.name);
+			}
+			return byField.thenComparing(key -> key.name);
+		}
 	}
-	
-	
 }
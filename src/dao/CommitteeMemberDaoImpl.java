@@ -1,7 +1,9 @@
 package dao;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import interfaces.dao.CommitteeMemberDao;
 
@@ -11,6 +13,10 @@ import models.CommitteeMember;
  * The {@code CommitteeMemberDaoImpl} class is an implementation of the {@link CommitteeMemberDao} interface.
  * It provides methods to manage and access committee members stored in a map.
  *  
+ * <p>The committee members are held in a {@link ConcurrentHashMap}, so several sessions can look up, add and remove them at
+ * the same time. A map passed to the setter is copied into a new concurrent map. The lists inside each
+ * committee member are guarded by the committee member itself; see {@link models.Student}.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -20,7 +26,12 @@ import models.CommitteeMember;
  */
 public class CommitteeMemberDaoImpl implements CommitteeMemberDao {
 	
-	private static Map<String, CommitteeMember> committeeMembers = new HashMap<String, CommitteeMember>();
+	private static volatile Map<String, CommitteeMember> committeeMembers = new ConcurrentHashMap<String, CommitteeMember>();
+
+	/**
+     * The keys of the committee members changed since the data was last exported.
+     */
+	private static Set<String> dirty = ConcurrentHashMap.newKeySet();
 
     /**
      * Retrieves the map of committee members stored in the DAO.
@@ -37,8 +48,42 @@ public class CommitteeMemberDaoImpl implements CommitteeMemberDao {
      * @param committeeMembers the new map of committee members to set, where the keys are unique identifiers and the values are committee member objects.
      */
 	public void setCommitteeMembers(Map<String, CommitteeMember> committeeMembers) {
-		CommitteeMemberDaoImpl.committeeMembers = committeeMembers;
+		// Putting back the live map after changing it in place is a no-op
+		if (committeeMembers == CommitteeMemberDaoImpl.committeeMembers) return;
+
+		dirty.addAll(CommitteeMemberDaoImpl.committeeMembers.keySet());
+		dirty.addAll(committeeMembers.keySet());
+		CommitteeMemberDaoImpl.committeeMembers = new ConcurrentHashMap<String, CommitteeMember>(committeeMembers);
 	}
 
+    /**
+     * Records that a committee member has been created, changed or removed since the data was last exported.
+     * 
+     * @param committeeMemberID the key of the committee member that changed.
+     */
+	public void markDirty(String committeeMemberID) {
+		dirty.add(committeeMemberID);
+	}
 
+    /**
+     * Checks whether any committee member has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one committee member is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty() {
+		return !dirty.isEmpty();
+	}
+
+    /**
+     * Retrieves the keys of the changed committee members and clears them, so that later changes are tracked separately.
+     * 
+     * @return a set of the committee member IDs marked dirty since the last call.
+     */
+	public Set<String> takeDirty() {
+		Set<String> taken = new HashSet<String>();
+		for (String key : dirty) {
+			if (dirty.remove(key)) taken.add(key);
+		}
+		return taken;
+	}
 }
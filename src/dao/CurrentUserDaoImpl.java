@@ -2,37 +2,40 @@ package dao;
 
 import interfaces.dao.CurrentUserDao;
 
+import models.Session;
 import models.User;
 
 /**
  * The {@code CurrentUserDaoImpl} class is an implementation of the {@link CurrentUserDao} interface.
  * It provides methods to manage and access the current user stored in the DAO.
  * 
+ * <p>The current user belongs to the {@link Session} bound to the calling thread, so sessions running at the same time
+ * each see their own user.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
  * 
  * @see CurrentUserDao
+ * @see models.Session
  */
 public class CurrentUserDaoImpl implements CurrentUserDao {
 	
-	private static User currentUser;
-
     /**
-     * Retrieves the current user stored in the DAO.
+     * Retrieves the user logged in to the current session.
      * 
      * @return the current user.
      */
 	public User getCurrentUser() {
-		return currentUser;
+		return Session.current().getUser();
 	}
 
     /**
-     * Sets the current user in the DAO.
+     * Sets the user logged in to the current session.
      * 
 	 * @param currentUser the current user to set.
      */	
 	public void setCurrentUser(User currentUser) {
-		CurrentUserDaoImpl.currentUser = currentUser;
+		Session.current().setUser(currentUser);
 	}
 }
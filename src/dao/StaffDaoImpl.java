@@ -1,7 +1,9 @@
 package dao;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import interfaces.dao.StaffDao;
 
@@ -11,6 +13,10 @@ import models.Staff;
  * The {@code StaffDaoImpl} class is an implementation of the {@link StaffDao} interface.
  * It provides methods to manage and access staff members stored in a map.
  * 
+ * <p>The staff members are held in a {@link ConcurrentHashMap}, so several sessions can look up, add and remove them at
+ * the same time. A map passed to the setter is copied into a new concurrent map. The lists inside each
+ * staff member are guarded by the staff member itself; see {@link models.Staff}.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -19,7 +25,12 @@ import models.Staff;
  */
 public class StaffDaoImpl implements StaffDao {
 	
-	private static Map<String, Staff> staffs = new HashMap<String, Staff>();
+	private static volatile Map<String, Staff> staffs = new ConcurrentHashMap<String, Staff>();
+
+	/**
+     * The keys of the staff members changed since the data was last exported.
+     */
+	private static Set<String> dirty = ConcurrentHashMap.newKeySet();
 
     /**
      * Retrieves the map of staff members stored in the DAO.
@@ -36,7 +47,42 @@ public class StaffDaoImpl implements StaffDao {
      * @param staffs the map of staff members to set, where the keys are unique identifiers and the values are staff member objects.
      */
 	public void setStaffs(Map<String, Staff> staffs) {
-		StaffDaoImpl.staffs = staffs;
+		// Putting back the live map after changing it in place is a no-op
+		if (staffs == StaffDaoImpl.staffs) return;
+
+		dirty.addAll(StaffDaoImpl.staffs.keySet());
+		dirty.addAll(staffs.keySet());
+		StaffDaoImpl.staffs = new ConcurrentHashMap<String, Staff>(staffs);
+	}
+
+    /**
+     * Records that a staff member has been created, changed or removed since the data was last exported.
+     * 
+     * @param staffID the key of the staff member that changed.
+     */
+	public void markDirty(String staffID) {
+		dirty.add(staffID);
+	}
+
+    /**
+     * Checks whether any staff member has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one staff member is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty() {
+		return !dirty.isEmpty();
+	}
+
+    /**
+     * Retrieves the keys of the changed staff members and clears them, so that later changes are tracked separately.
+     * 
+     * @return a set of the staff IDs marked dirty since the last call.
+     */
+	public Set<String> takeDirty() {
+		Set<String> taken = new HashSet<String>();
+		for (String key : dirty) {
+			if (dirty.remove(key)) taken.add(key);
+		}
+		return taken;
 	}
-	
 }
@@ -1,7 +1,9 @@
 package dao;
 
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import interfaces.dao.StudentDao;
 
@@ -11,6 +13,10 @@ import models.Student;
  * The {@code StudentDaoImpl} class is an implementation of the {@link StudentDao} interface.
  * It manages and provides access to student objects stored in a map.
  *  
+ * <p>The students are held in a {@link ConcurrentHashMap}, so several sessions can look up, add and remove them at
+ * the same time. A map passed to the setter is copied into a new concurrent map. The lists inside each
+ * student are guarded by the student itself; see {@link models.Student}.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -22,7 +28,12 @@ public class StudentDaoImpl implements StudentDao {
 	/**
      * A map to store student objects with their User ID as keys.
      */
-	private static Map<String, Student> students = new HashMap<String, Student>();
+	private static volatile Map<String, Student> students = new ConcurrentHashMap<String, Student>();
+
+	/**
+     * The keys of the students changed since the data was last exported.
+     */
+	private static Set<String> dirty = ConcurrentHashMap.newKeySet();
 
     /**
      * Retrieves the map of students stored in the DAO.
@@ -39,7 +50,42 @@ public class StudentDaoImpl implements StudentDao {
      * @param students the map of students to set, where the keys are unique identifiers and the values are student objects.
      */
 	public void setStudents(Map<String, Student> students) {
-		StudentDaoImpl.students = students;
+		// Putting back the live map after changing it in place is a no-op
+		if (students == StudentDaoImpl.students) return;
+
+		dirty.addAll(StudentDaoImpl.students.keySet());
+		dirty.addAll(students.keySet());
+		StudentDaoImpl.students = new ConcurrentHashMap<String, Student>(students);
+	}
+
+    /**
+     * Records that a student has been created, changed or removed since the data was last exported.
+     * 
+     * @param studentID the key of the student that changed.
+     */
+	public void markDirty(String studentID) {
+		dirty.add(studentID);
+	}
+
+    /**
+     * Checks whether any student has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one student is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty() {
+		return !dirty.isEmpty();
+	}
+
+    /**
+     * Retrieves the keys of the changed students and clears them, so that later changes are tracked separately.
+     * 
+     * @return a set of the student IDs marked dirty since the last call.
+     */
+	public Set<String> takeDirty() {
+		Set<String> taken = new HashSet<String>();
+		for (String key : dirty) {
+			if (dirty.remove(key)) taken.add(key);
+		}
+		return taken;
 	}
-	
 }
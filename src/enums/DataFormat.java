@@ -0,0 +1,46 @@
+package enums;
+
+/**
+ * The {@code DataFormat} enum represents the different formats the data set can be stored in.
+ *
+ * The enum values include:
+ * <ul>
+ *   <li>{@code CSV}: The StaffList, StudentList, CommitteeList and CampList CSV files.</li>
+ *   <li>{@code BINARY}: A single binary snapshot of the whole data set.</li>
+ * </ul>
+ *
+ * <p>The enum also provides a {@link #fromString(String)} method to read a format from a configuration value.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public enum DataFormat {
+
+	/**
+     * The StaffList, StudentList, CommitteeList and CampList CSV files.
+     */
+	CSV,
+
+	/**
+     * A single binary snapshot of the whole data set.
+     */
+	BINARY;
+
+	/**
+     * Converts a configuration value to its corresponding {@code DataFormat}.
+     *
+     * @param value the configuration value to be converted, case-insensitive.
+	 *
+     * @return the matching data format, or {@code CSV} if the value is {@code null} or not recognised.
+     */
+	public static DataFormat fromString(String value) {
+		if (value == null)
+			return CSV;
+
+		for (DataFormat format : values()) {
+			if (format.name().equalsIgnoreCase(value.trim()))
+				return format;
+		}
+		return CSV;
+	}
+}
@@ -0,0 +1,52 @@
+package enums;
+
+/**
+ * The {@code FlushPolicy} enum represents the different policies for writing the resident data set back to the CSV files.
+ *
+ * The enum values include:
+ * <ul>
+ *   <li>{@code SESSION}: Flush after every user session.</li>
+ *   <li>{@code PERIODIC}: Flush on a fixed interval in the background.</li>
+ *   <li>{@code SHUTDOWN}: Flush only when the application quits.</li>
+ * </ul>
+ *
+ * <p>The enum also provides a {@link #fromString(String)} method to read a policy from a configuration value.</p>
+ *
+ * @version 1.0
+ * @since 1.1
+ */
+public enum FlushPolicy {
+
+	/**
+     * Flush after every user session.
+     */
+	SESSION,
+
+	/**
+     * Flush on a fixed interval in the background.
+     */
+	PERIODIC,
+
+	/**
+     * Flush only when the application quits.
+     */
+	SHUTDOWN;
+
+	/**
+     * Converts a configuration value to its corresponding {@code FlushPolicy}.
+     *
+     * @param value the configuration value to be converted, case-insensitive.
+	 *
+     * @return the matching flush policy, or {@code SESSION} if the value is {@code null} or not recognised.
+     */
+	public static FlushPolicy fromString(String value) {
+		if (value == null)
+			return SESSION;
+
+		for (FlushPolicy policy : values()) {
+			if (policy.name().equalsIgnoreCase(value.trim()))
+				return policy;
+		}
+		return SESSION;
+	}
+}
@@ -11,6 +11,8 @@
  * @since 1.0
  * @version 1.0
  * 
+ * @see enums.DataFormat
+ * @see enums.FlushPolicy
  * @see enums.GenerateType
  * @see enums.Role
  * @see enums.SortType
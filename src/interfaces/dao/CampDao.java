@@ -1,8 +1,16 @@
 package interfaces.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
+
+import enums.SortType;
+import enums.Visibility;
 
 import models.Camp;
+import models.Enquiry;
+import models.Suggestion;
 
 
 /**
@@ -12,6 +20,22 @@ import models.Camp;
  * <p>It includes methods to get the map of camps and set the map of camps. 
  * The map associates camp names with corresponding {@link Camp} objects.</p>
  * 
+ * <p>It also keeps indexes of the camps by visibility and faculty, and by staff-in-charge, so that listings need not scan
+ * every camp, and an ordering of the camps for each {@link SortType}, so that sorted listings need not sort them again.
+ * Code that adds a camp to the map, removes one, or changes one of those fields or a field the camps are sorted by
+ * updates the indexes with {@link #index(Camp)} or {@link #unindex(String)}.</p>
+ * 
+ * <p>Enquiry and suggestion IDs are indexed to the camp holding them as well. Code that adds an enquiry or suggestion
+ * to a camp records it with {@link #indexEnquiry(Integer, String)} or {@link #indexSuggestion(Integer, String)}, and
+ * code that removes one calls the matching unindex method.</p>
+ * 
+ * <p>Each camp also has queues of its enquiries awaiting a reply and its suggestions awaiting approval, so the reply
+ * and approval screens list outstanding work without reading every enquiry or suggestion the camp has had. Code that
+ * creates, answers or deletes one, under the camp's lock, updates the queue as well.</p>
+ * 
+ * <p>The DAO counts the changes made through {@link #index(Camp)} and {@link #unindex(String)}, so that results worked
+ * out from the camp listings can be kept until a camp is added, removed or changes how it is indexed.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -33,4 +57,191 @@ public interface CampDao {
      * @param camps A new map containing camp names as keys and corresponding {@link Camp} objects as values.
      */	
 	public void setCamps(Map<String, Camp> camps);
+
+	/**
+     * Records that a camp has been created, changed or removed since the data was last exported.
+     * 
+     * @param campName The key of the camp that changed.
+     */
+	public void markDirty(String campName);
+
+	/**
+     * Checks whether any camp has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one camp is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty();
+
+	/**
+     * Retrieves the keys of the changed camps and clears them, so that later changes are tracked separately.
+     * 
+     * @return A set of the camp names marked dirty since the last call.
+     */
+	public Set<String> takeDirty();
+
+	/**
+     * Records a camp's current visibility, faculty and staff-in-charge in the indexes, replacing what was recorded for it before.
+     * 
+     * @param camp The camp added to the map or changed.
+     */
+	public void index(Camp camp);
+
+	/**
+     * Removes a camp from the indexes.
+     * 
+     * @param campName The name of the camp removed from the map.
+     */
+	public void unindex(String campName);
+
+	/**
+     * Retrieves a number that changes whenever a camp is indexed or unindexed.
+     * 
+     * @return The number of changes made to the indexes.
+     */
+	public long getVersion();
+
+	/**
+     * Retrieves the camps with the given visibility that are open to the given faculty.
+     * 
+     * @param visibility The visibility of the camps.
+     * @param openTo The faculty the camps are open to, or {@code NTU} for camps open to everyone.
+     * 
+     * @return A list of the matching camps.
+     */
+	public ArrayList<Camp> getCamps(Visibility visibility, String openTo);
+
+	/**
+     * Retrieves the camps a student of the given faculty can see: the visible camps open to the faculty or to everyone.
+     * 
+     * @param faculty The student's faculty.
+     * 
+     * @return A list of the camps open to the faculty, followed by those open to everyone.
+     */
+	public ArrayList<Camp> getVisibleCamps(String faculty);
+
+	/**
+     * Retrieves the camps a staff member is in charge of.
+     * 
+     * @param staffID The user ID of the staff member.
+     * 
+     * @return A list of the camps the staff member is in charge of.
+     */
+	public ArrayList<Camp> getCampsByStaffInCharge(String staffID);
+
+	/**
+     * Retrieves every camp in the order of a sort type.
+     * 
+     * @param sortType The order to list the camps in.
+     * 
+     * @return A list of the camps, with camps that tie in order of name.
+     */
+	public ArrayList<Camp> getSortedCamps(SortType sortType);
+
+	/**
+     * Puts some of the camps in the order of a sort type.
+     * 
+     * @param sortType The order to list the camps in.
+     * @param subset The camps to be listed, such as those a student has registered for.
+     * 
+     * @return A list of the camps in the subset, with camps that tie in order of name.
+     */
+	public ArrayList<Camp> getSortedCamps(SortType sortType, Collection<Camp> subset);
+
+	/**
+     * Records the camp an enquiry belongs to.
+     * 
+     * @param enquiryID The ID of the enquiry added to the camp.
+     * @param campName The name of the camp.
+     */
+	public void indexEnquiry(Integer enquiryID, String campName);
+
+	/**
+     * Removes an enquiry from the index.
+     * 
+     * @param enquiryID The ID of the enquiry removed from its camp.
+     */
+	public void unindexEnquiry(Integer enquiryID);
+
+	/**
+     * Retrieves the camp holding an enquiry.
+     * 
+     * @param enquiryID The ID of the enquiry.
+     * 
+     * @return The camp holding the enquiry, or {@code null} if no camp holds it.
+     */
+	public Camp getCampByEnquiryID(Integer enquiryID);
+
+	/**
+     * Records the camp a suggestion belongs to.
+     * 
+     * @param suggestionID The ID of the suggestion added to the camp.
+     * @param campName The name of the camp.
+     */
+	public void indexSuggestion(Integer suggestionID, String campName);
+
+	/**
+     * Removes a suggestion from the index.
+     * 
+     * @param suggestionID The ID of the suggestion removed from its camp.
+     */
+	public void unindexSuggestion(Integer suggestionID);
+
+	/**
+     * Retrieves the camp holding a suggestion.
+     * 
+     * @param suggestionID The ID of the suggestion.
+     * 
+     * @return The camp holding the suggestion, or {@code null} if no camp holds it.
+     */
+	public Camp getCampBySuggestionID(Integer suggestionID);
+
+	/**
+     * Adds a new enquiry to its camp's queue of enquiries awaiting a reply. The caller holds the camp's lock.
+     * 
+     * @param campName The name of the camp.
+     * @param enquiryID The ID of the enquiry.
+     */
+	public void addPendingEnquiry(String campName, Integer enquiryID);
+
+	/**
+     * Removes an enquiry that has been replied to or deleted from its camp's queue. The caller holds the camp's lock.
+     * 
+     * @param campName The name of the camp.
+     * @param enquiryID The ID of the enquiry.
+     */
+	public void removePendingEnquiry(String campName, Integer enquiryID);
+
+	/**
+     * Retrieves the enquiries of a camp that await a reply.
+     * 
+     * @param campName The name of the camp.
+     * 
+     * @return A list of the camp's unanswered enquiries in the order they were made, empty if the camp does not exist.
+     */
+	public ArrayList<Enquiry> getPendingEnquiries(String campName);
+
+	/**
+     * Adds a new suggestion to its camp's queue of suggestions awaiting approval. The caller holds the camp's lock.
+     * 
+     * @param campName The name of the camp.
+     * @param suggestionID The ID of the suggestion.
+     */
+	public void addPendingSuggestion(String campName, Integer suggestionID);
+
+	/**
+     * Removes a suggestion that has been approved or deleted from its camp's queue. The caller holds the camp's lock.
+     * 
+     * @param campName The name of the camp.
+     * @param suggestionID The ID of the suggestion.
+     */
+	public void removePendingSuggestion(String campName, Integer suggestionID);
+
+	/**
+     * Retrieves the suggestions of a camp that await approval.
+     * 
+     * @param campName The name of the camp.
+     * 
+     * @return A list of the camp's unapproved suggestions in the order they were made, empty if the camp does not exist.
+     */
+	public ArrayList<Suggestion> getPendingSuggestions(String campName);
 }
@@ -1,6 +1,7 @@
 package interfaces.dao;
 
 import java.util.Map;
+import java.util.Set;
 
 import models.CommitteeMember;
 
@@ -32,4 +33,25 @@ import models.CommitteeMember;
      * @param committeeMembers A new map containing committee member IDs or names as keys and corresponding {@link CommitteeMember} objects as values.
      */
 	public void setCommitteeMembers(Map<String, CommitteeMember> committeeMembers);
+
+	/**
+     * Records that a committee member has been created, changed or removed since the data was last exported.
+     * 
+     * @param committeeMemberID The key of the committee member that changed.
+     */
+	public void markDirty(String committeeMemberID);
+
+	/**
+     * Checks whether any committee member has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one committee member is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty();
+
+	/**
+     * Retrieves the keys of the changed committee members and clears them, so that later changes are tracked separately.
+     * 
+     * @return A set of the committee member IDs marked dirty since the last call.
+     */
+	public Set<String> takeDirty();
 }
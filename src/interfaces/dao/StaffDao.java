@@ -1,6 +1,7 @@
 package interfaces.dao;
 
 import java.util.Map;
+import java.util.Set;
 
 import models.Staff;
 
@@ -30,5 +31,27 @@ public interface StaffDao {
      * Sets the staffs in the data source.
      * 
      * @param staffs A new Map containing staff ID as keys and corresponding {@link Staff} objects as values.
-     */	public void setStaffs(Map<String, Staff> staffs);
+     */
+	public void setStaffs(Map<String, Staff> staffs);
+
+	/**
+     * Records that a staff member has been created, changed or removed since the data was last exported.
+     * 
+     * @param staffID The key of the staff member that changed.
+     */
+	public void markDirty(String staffID);
+
+	/**
+     * Checks whether any staff member has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one staff member is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty();
+
+	/**
+     * Retrieves the keys of the changed staff members and clears them, so that later changes are tracked separately.
+     * 
+     * @return A set of the staff IDs marked dirty since the last call.
+     */
+	public Set<String> takeDirty();
 }
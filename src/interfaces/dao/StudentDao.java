@@ -1,6 +1,7 @@
 package interfaces.dao;
 
 import java.util.Map;
+import java.util.Set;
 
 import models.Student;
 
@@ -33,4 +34,25 @@ public interface StudentDao {
      * @param students A new Map containing student ID as keys and corresponding {@link Student} objects as values.
      */
 	public void setStudents(Map<String, Student> students);
+
+	/**
+     * Records that a student has been created, changed or removed since the data was last exported.
+     * 
+     * @param studentID The key of the student that changed.
+     */
+	public void markDirty(String studentID);
+
+	/**
+     * Checks whether any student has changed since the data was last exported.
+     * 
+     * @return {@code true} if at least one student is marked dirty, {@code false} otherwise.
+     */
+	public boolean isDirty();
+
+	/**
+     * Retrieves the keys of the changed students and clears them, so that later changes are tracked separately.
+     * 
+     * @return A set of the student IDs marked dirty since the last call.
+     */
+	public Set<String> takeDirty();
 }
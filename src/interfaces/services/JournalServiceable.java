@@ -0,0 +1,154 @@
+package interfaces.services;
+
+import enums.Role;
+
+import models.Camp;
+import models.CommitteeMember;
+import models.Enquiry;
+import models.Student;
+import models.Suggestion;
+import models.User;
+
+/**
+ * The {@code JournalServiceable} interface represents an entity that keeps a write-ahead journal of the changes made to the data set.
+ *
+ * <p>Every change is appended to the journal as soon as it is made, so a session's work survives a crash before the CSV files are written.
+ * The journal is replayed over the CSV files on startup and emptied once the CSV files hold every change again.</p>
+ *
+ * <p>Each mutating service keeps a {@code journalService} field. It records a change with the record method naming it,
+ * called under the same lock as the change itself, and then calls {@link #commit()} once it has released its locks,
+ * so that the change is on disk before the user is told it is done.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ */
+public interface JournalServiceable {
+
+    /**
+     * Replays the journal at the given path over the imported data and opens it for appending.
+     *
+     * @param filePath The path of the journal file.
+     *
+     * @return the number of changes replayed.
+     */
+	public int open(String filePath);
+
+    /**
+     * Records a camp as a whole, as when it is created, or its removal if it no longer exists.
+     *
+     * @param campName The name of the camp.
+     */
+	public void recordCamp(String campName);
+
+    /**
+     * Records the new value of one of a camp's details.
+     *
+     * @param camp The camp that changed.
+     * @param field The CampList.csv column of the detail, such as {@code location} or {@code totalSlots}.
+     */
+	public void recordCampField(Camp camp, String field);
+
+    /**
+     * Records a student joining a camp as an attendee.
+     *
+     * @param camp The camp joined.
+     * @param student The student who joined it.
+     */
+	public void recordRegistration(Camp camp, Student student);
+
+    /**
+     * Records a student withdrawing from a camp.
+     *
+     * @param camp The camp withdrawn from.
+     * @param student The student who withdrew.
+     */
+	public void recordWithdrawal(Camp camp, Student student);
+
+    /**
+     * Records a student joining a camp's committee.
+     *
+     * @param camp The camp whose committee was joined.
+     * @param committeeMember The committee member the student became.
+     */
+	public void recordCommitteeJoin(Camp camp, CommitteeMember committeeMember);
+
+    /**
+     * Records an enquiry as it now is, whether just made, edited or replied to.
+     *
+     * @param camp The camp holding the enquiry.
+     * @param enquiry The enquiry.
+     */
+	public void recordEnquiry(Camp camp, Enquiry enquiry);
+
+    /**
+     * Records an enquiry being deleted.
+     *
+     * @param camp The camp the enquiry was deleted from.
+     * @param enquiry The deleted enquiry.
+     */
+	public void recordEnquiryRemoval(Camp camp, Enquiry enquiry);
+
+    /**
+     * Records a suggestion as it now is, whether just made, edited or approved.
+     *
+     * @param camp The camp holding the suggestion.
+     * @param suggestion The suggestion.
+     */
+	public void recordSuggestion(Camp camp, Suggestion suggestion);
+
+    /**
+     * Records a suggestion being deleted.
+     *
+     * @param camp The camp the suggestion was deleted from.
+     * @param suggestion The deleted suggestion.
+     */
+	public void recordSuggestionRemoval(Camp camp, Suggestion suggestion);
+
+    /**
+     * Records a committee member's new points.
+     *
+     * @param committeeMember The committee member whose points changed.
+     */
+	public void recordPoints(CommitteeMember committeeMember);
+
+    /**
+     * Records the current state of a user, in the records of the user's role.
+     *
+     * @param user The user that changed.
+     */
+	public void recordUser(User user);
+
+    /**
+     * Records the current state of a user with the given role, or its removal if no such user exists.
+     *
+     * @param role The role under which the user is stored.
+     * @param userID The ID of the user that changed.
+     */
+	public void recordUser(Role role, String userID);
+
+    /**
+     * Writes the changes recorded by the calling thread to the journal, together with those of other sessions
+     * committing at the same time. Called after releasing the locks held while recording.
+     */
+	public void commit();
+
+    /**
+     * Returns the number of changes appended since the journal was last emptied.
+     *
+     * @return the number of changes in the journal.
+     */
+	public int size();
+
+    /**
+     * Empties the journal, provided every change has been written to the CSV files.
+     *
+     * @return {@code true} if the journal was emptied, {@code false} if some change has not been exported yet.
+     */
+	public boolean truncate();
+
+    /**
+     * Writes out any recorded changes and closes the journal file. Later changes are still tracked for export but no longer journaled.
+     */
+	public void close();
+}
@@ -0,0 +1,21 @@
+package interfaces.services;
+
+import java.util.List;
+
+/**
+ * The {@code ValidateDataServiceable} interface represents an entity that checks the imported data for consistency.
+ * 
+ * <p>Classes implementing this interface should provide an implementation for the {@link #validate()} method to report records that refer to missing data.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ */
+public interface ValidateDataServiceable {
+    /**
+     * Checks the cross references between the imported records.
+     *
+     * @return a list of problems found, empty if the data is consistent.
+     */
+	public List<String> validate();
+}
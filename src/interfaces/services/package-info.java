@@ -17,5 +17,7 @@
  * @see interfaces.services.EnquiryServiceable
  * @see interfaces.services.Exportable
  * @see interfaces.services.Forms
+ * @see interfaces.services.JournalServiceable
+ * @see interfaces.services.ValidateDataServiceable
  */
 package interfaces.services;
\ No newline at end of file
@@ -1,16 +1,12 @@
 package main;
 
+import java.io.IOException;
+
 import controllers.SessionController;
 import controllers.DataTransferController;
-import controllers.StaffController;
-import controllers.StudentController;
-import controllers.CommitteeController;
-
-import dao.CurrentUserDaoImpl;
-
-import interfaces.dao.CurrentUserDao;
+import controllers.ServerController;
 
-import models.User;
+import models.Session;
 
 /**
  * The {@code CAMs} class serves as the entry point for the Course Administration Management System (CAMs) application.
@@ -18,7 +14,11 @@ import models.User;
  * 
  * <p>The application supports user roles such as Staff, Student, and Committee, each with its respective controller.</p>
  * 
- * <p>The main method controls the flow of the application by importing data, setting the current user, determining the user's role, and initiating the corresponding controller.</p>
+ * <p>The main method controls the flow of the application by importing data once, setting the current user, determining the user's role, and initiating the corresponding controller.
+ * The data stays resident across sessions and is written back according to the configured {@link enums.FlushPolicy}.</p>
+ * 
+ * <p>If the {@code cams.server.port} system property is set, users connect over TCP on that port instead of using the console,
+ * and are served side by side by the {@link controllers.ServerController} until the process is stopped.</p>
  * 
  * <p>Note: The application assumes a loop where users can interact with the system until they choose to exit.</p>
  * 
@@ -28,6 +28,7 @@ import models.User;
  * 
  * @see controllers.SessionController
  * @see controllers.DataTransferController
+ * @see controllers.ServerController
  * @see controllers.StaffController
  * @see controllers.StudentController
  * @see controllers.CommitteeController
@@ -38,12 +39,11 @@ import models.User;
  * @see interfaces.dao.StaffDao
  * @see interfaces.dao.StudentDao
  * @see models.Staff
+ * @see models.Session
  * @see models.User
  */
 public class CAMs {
 
-	private static final CurrentUserDao currentUserDao = new CurrentUserDaoImpl();
-	
 	private CAMs() {}
 
 	
@@ -51,30 +51,20 @@ public class CAMs {
      * The main method of the CAMs application.
      *
      * @param args the command-line arguments.
+     * 
+     * @throws IOException if the server port cannot be listened on.
      */
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 
-		do {
-			DataTransferController.importData();
-			SessionController.startSession();
-			User user = currentUserDao.getCurrentUser();
-			if (user == null)
-				break;
+		DataTransferController.start();
 
-			switch (user.getRole()) {
-			case STAFF:
-				new StaffController().start();
-				break;
-			case STUDENT:
-				new StudentController().start();
-				break;
-			case COMMITTEE:
-				new CommitteeController().start();
-				break;
-			}
+		Integer port = Integer.getInteger("cams.server.port");
+		if (port != null) {
+			ServerController.serve(port);
+			return;
+		}
 
-			SessionController.endSession();
-			DataTransferController.exportData();
-		} while (true);
+		SessionController.serve(Session.console());
+		DataTransferController.shutdown();
 	}
 }
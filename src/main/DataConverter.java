@@ -0,0 +1,41 @@
+package main;
+
+import controllers.DataTransferController;
+
+import enums.DataFormat;
+
+/**
+ * The {@code DataConverter} class converts the CAMs data set between the CSV files and the binary snapshot.
+ *
+ * <p>Usage: {@code java main.DataConverter binary} writes {@code data/CAMs.snapshot} from the CSV files, and
+ * {@code java main.DataConverter csv} writes the CSV files from the snapshot. Run it while the application is not running.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see controllers.DataTransferController
+ * @see enums.DataFormat
+ */
+public class DataConverter {
+
+	private DataConverter() {}
+
+    /**
+     * Converts the data set to the format named by the first argument.
+     *
+     * @param args the command-line arguments, {@code binary} or {@code csv}.
+     */
+	public static void main(String[] args) {
+
+		if (args.length != 1 || !(args[0].equalsIgnoreCase("binary") || args[0].equalsIgnoreCase("csv"))) {
+			System.err.println("Usage: java main.DataConverter binary|csv");
+			System.exit(1);
+		}
+
+		DataFormat to = DataFormat.fromString(args[0]);
+		DataFormat from = to == DataFormat.BINARY ? DataFormat.CSV : DataFormat.BINARY;
+		DataTransferController.convert(from, to);
+		System.out.println("> Data converted to " + to.toString().toLowerCase());
+	}
+}
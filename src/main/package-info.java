@@ -6,5 +6,6 @@
  * @version 1.0
  * 
  * @see main.CAMs
+ * @see main.DataConverter
  */
 package main;
\ No newline at end of file
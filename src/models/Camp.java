@@ -1,16 +1,42 @@
 package models;
 
-import java.util.ArrayList;
-import java.util.GregorianCalendar;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import enums.Visibility;
 
+import utils.UserIdDictionary;
+import utils.UserIdSet;
+
 /**
  * The {@link Camp} class represents a camp in CAMs.
  * Each camp has a unique name, schedule, registration details, description, and staff in charge.
  * It also manages information about attendees, committee members, enquiries, suggestions, and visibility.
+ *
+ * <p>A camp imported from CSV may keep its enquiries and suggestions in their encoded form until they are first read,
+ * since most camps are never asked for them in a session.</p>
+ *
+ * <p>Dates are held as epoch days, the number of days since 1970-01-01, so that comparing them is integer arithmetic
+ * and a camp's schedule costs four bytes a day. They are turned into {@link LocalDate}s only to be shown.</p>
+ *
+ * <p>Attendees, withdrawn attendees and committee members are held in {@link UserIdSet}s, so checking whether a
+ * student is one of them does not scan the camp, while reports and CSV rows still list them in the order they joined.
+ * The sets and the staff in charge share the IDs kept by the {@link UserIdDictionary}.</p>
+ *
+ * <p>Several sessions may use the same camp at once. The camp is its own lock, and its sets and maps are copy-on-write:
+ * code that changes one holds {@code synchronized (camp)}, builds an updated copy and passes it to the setter, and never
+ * changes the set or map it got from the getter. Readers can therefore iterate without locking. Any check that must
+ * still hold when the change is made is made under the same lock. When a student changes along with a camp, the camp is
+ * locked first and then the student.</p>
+ *
+ * <p>Slots are the exception: a registration first takes a slot with {@link #reserveAttendeeSlot()} or
+ * {@link #reserveCommitteeSlot()}, which admit at most as many students as there are slots however many sessions ask
+ * at once, and only then joins the set under the lock. A slot that is taken but not used is given back with the
+ * matching release method. The camp counts its remaining slots as they are taken and given back, and as the slot totals
+ * are edited, so {@link #getRemainingAttendeeSlots()} and {@link #getRemainingCommitteeSlots()} never read the sets.</p>
  * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
@@ -24,14 +50,14 @@ public class Camp {
 	private String name;
 
 	/**
-	 * The list of dates on which the camp is scheduled.
+	 * The days on which the camp is scheduled, as epoch days in ascending order.
 	 */
-	private ArrayList<GregorianCalendar> dates;
+	private volatile int[] epochDays;
 
 	/**
-	 * The closing date for camp registration.
+	 * The closing date for camp registration, as an epoch day.
 	 */
-	private GregorianCalendar registrationClosingDate;
+	private volatile int registrationClosingDay;
 
 	/**
 	 * The faculty to which the camp is open.
@@ -46,12 +72,12 @@ public class Camp {
 	/**
 	 * The total number of available slots for the camp.
 	 */
-	private int totalSlots;
+	private volatile int totalSlots;
 
 	/**
 	 * The number of slots reserved for committee members.
 	 */
-	private int committeeSlots;
+	private volatile int committeeSlots;
 
 	/**
 	 * A brief description of the camp.
@@ -64,78 +90,151 @@ public class Camp {
 	private String staffInCharge;
 
 	/**
-	 * A list of names of attendees registered for the camp.
+	 * The names of attendees registered for the camp, in the order they registered.
 	 */
-	private ArrayList<String> attendees;
+	private volatile UserIdSet attendees;
 
 	/**
-	 * A list of names of attendees who have withdrawn from the camp.
+	 * The names of attendees who have withdrawn from the camp, in the order they withdrew.
 	 */
-	private ArrayList<String> withdrawnAttendees;
+	private volatile UserIdSet withdrawnAttendees;
 
 	/**
-	 * A list of names of committee members involved in the camp.
+	 * The names of committee members involved in the camp, in the order they joined.
 	 */
-	private ArrayList<String> committeeMembers;
+	private volatile UserIdSet committeeMembers;
 
 	/**
 	 * A map associating enquiry IDs with their respective enquiries.
 	 */
-	private Map<Integer, Enquiry> enquiries;
+	private volatile Map<Integer, Enquiry> enquiries;
 
 	/**
 	 * A map associating suggestion IDs with their respective suggestions.
 	 */
-	private Map<Integer, Suggestion> suggestions;
+	private volatile Map<Integer, Suggestion> suggestions;
+
+	/**
+	 * The enquiries as they were imported, or {@code null} once they have been decoded.
+	 */
+	private String encodedEnquiries;
+
+	/**
+	 * Builds the enquiry map from {@link #encodedEnquiries}.
+	 */
+	private Function<String, Map<Integer, Enquiry>> enquiryDecoder;
+
+	/**
+	 * The suggestions as they were imported, or {@code null} once they have been decoded.
+	 */
+	private String encodedSuggestions;
+
+	/**
+	 * Builds the suggestion map from {@link #encodedSuggestions}.
+	 */
+	private Function<String, Map<Integer, Suggestion>> suggestionDecoder;
 
 	/**
 	 * The visibility status indicating whether the camp is open for registration.
 	 */
 	private Visibility visibility;
+
+	/**
+	 * The number of attendee slots not yet taken, less those reserved by registrations still joining.
+	 * Below zero if the slots have been cut below the number of attendees.
+	 */
+	private final AtomicInteger attendeeSlotsRemaining = new AtomicInteger();
+
+	/**
+	 * The number of committee slots not yet taken, less those reserved by registrations still joining.
+	 */
+	private final AtomicInteger committeeSlotsRemaining = new AtomicInteger();
 	
 	/**
 	 * Constructor used for importing {@link Camp} from CSV.
 	 * 
 	 * @param name 						The name of the camp.
-	 * @param dates 					The list of dates on which the camp is scheduled.
-	 * @param registrationClosingDate	The closing date for camp registration.
+	 * @param epochDays 				The days on which the camp is scheduled, as epoch days in ascending order.
+	 * @param registrationClosingDay	The closing date for camp registration, as an epoch day.
 	 * @param openTo 					The faculty to which the camp is open.
 	 * @param location 					The location where the camp is held.
 	 * @param totalSlots 				The total number of available slots for the camp.
 	 * @param committeeSlots 			The number of slots reserved for committee members.
 	 * @param description 				A brief description of the camp.
 	 * @param staffInCharge 			The name of the staff in charge of the camp.
-	 * @param attendees 				A list of names of attendees registered for the camp.
-	 * @param withdrawnAttendees 		A list of names of attendees who have withdrawn from the camp.
-	 * @param committeeMembers			A list of names of committee members involved in the camp.
+	 * @param attendees 				The names of attendees registered for the camp, in the order they registered.
+	 * @param withdrawnAttendees 		The names of attendees who have withdrawn from the camp, in the order they withdrew.
+	 * @param committeeMembers			The names of committee members involved in the camp, in the order they joined.
 	 * @param enquiries 				A map associating enquiry IDs with their respective enquiries.
 	 * @param suggestions 				A map associating suggestion IDs with their respective suggestions.
 	 * @param visibility 				The visibility status indicating whether the camp is open for registration.
 	 */
-	public Camp(String name, ArrayList<GregorianCalendar> dates, GregorianCalendar registrationClosingDate, String openTo, String location, int totalSlots, int committeeSlots, String description, String staffInCharge, ArrayList<String> attendees, ArrayList<String> withdrawnAttendees, ArrayList<String> committeeMembers, Map<Integer, Enquiry> enquiries, Map<Integer, Suggestion> suggestions, Visibility visibility) {
+	public Camp(String name, int[] epochDays, int registrationClosingDay, String openTo, String location, int totalSlots, int committeeSlots, String description, String staffInCharge, UserIdSet attendees, UserIdSet withdrawnAttendees, UserIdSet committeeMembers, Map<Integer, Enquiry> enquiries, Map<Integer, Suggestion> suggestions, Visibility visibility) {
 		this.name = name;
-		this.dates = dates;
-		this.registrationClosingDate = registrationClosingDate;
+		this.epochDays = epochDays;
+		this.registrationClosingDay = registrationClosingDay;
 		this.openTo = openTo;
 		this.location = location;
 		this.totalSlots = totalSlots;
 		this.committeeSlots = committeeSlots;
 		this.description = description;
-		this.staffInCharge = staffInCharge;
+		this.staffInCharge = UserIdDictionary.canonical(staffInCharge);
 		this.attendees = attendees;
 		this.withdrawnAttendees = withdrawnAttendees;
 		this.committeeMembers = committeeMembers;
 		this.enquiries = enquiries;
 		this.suggestions = suggestions;
 		this.visibility = visibility;
+		this.attendeeSlotsRemaining.set(totalSlots - committeeSlots - attendees.size());
+		this.committeeSlotsRemaining.set(committeeSlots - committeeMembers.size());
+	}
+
+	/**
+	 * Constructor used for importing {@link Camp} from CSV without decoding its enquiries and suggestions.
+	 * Each is decoded the first time its map is read; a {@code null} encoding stands for none.
+	 * 
+	 * @param name 						The name of the camp.
+	 * @param epochDays 				The days on which the camp is scheduled, as epoch days in ascending order.
+	 * @param registrationClosingDay	The closing date for camp registration, as an epoch day.
+	 * @param openTo 					The faculty to which the camp is open.
+	 * @param location 					The location where the camp is held.
+	 * @param totalSlots 				The total number of available slots for the camp.
+	 * @param committeeSlots 			The number of slots reserved for committee members.
+	 * @param description 				A brief description of the camp.
+	 * @param staffInCharge 			The name of the staff in charge of the camp.
+	 * @param attendees 				The names of attendees registered for the camp, in the order they registered.
+	 * @param withdrawnAttendees 		The names of attendees who have withdrawn from the camp, in the order they withdrew.
+	 * @param committeeMembers			The names of committee members involved in the camp, in the order they joined.
+	 * @param encodedEnquiries 			The enquiries as stored in the CSV file, or {@code null}.
+	 * @param enquiryDecoder 			Builds the enquiry map from {@code encodedEnquiries}.
+	 * @param encodedSuggestions 		The suggestions as stored in the CSV file, or {@code null}.
+	 * @param suggestionDecoder 		Builds the suggestion map from {@code encodedSuggestions}.
+	 * @param visibility 				The visibility status indicating whether the camp is open for registration.
+	 */
+	public Camp(String name, int[] epochDays, int registrationClosingDay, String openTo, String location, int totalSlots, int committeeSlots, String description, String staffInCharge, UserIdSet attendees, UserIdSet withdrawnAttendees, UserIdSet committeeMembers, String encodedEnquiries, Function<String, Map<Integer, Enquiry>> enquiryDecoder, String encodedSuggestions, Function<String, Map<Integer, Suggestion>> suggestionDecoder, Visibility visibility) {
+		this(name, epochDays, registrationClosingDay, openTo, location, totalSlots, committeeSlots, description, staffInCharge,
+				attendees, withdrawnAttendees, committeeMembers, null, null, visibility);
+
+		if (encodedEnquiries == null) {
+			this.enquiries = new HashMap<Integer, Enquiry>();
+		} else {
+			this.encodedEnquiries = encodedEnquiries;
+			this.enquiryDecoder = enquiryDecoder;
+		}
+		if (encodedSuggestions == null) {
+			this.suggestions = new HashMap<Integer, Suggestion>();
+		} else {
+			this.encodedSuggestions = encodedSuggestions;
+			this.suggestionDecoder = suggestionDecoder;
+		}
 	}
 
 	/**
 	 * Constructor for Staff to create new {@link Camp}.
 	 * 
 	 * @param name 						The name of the camp.
-	 * @param dates 					The list of dates on which the camp is scheduled.
-	 * @param registrationClosingDate 	The closing date for camp registration.
+	 * @param epochDays 				The days on which the camp is scheduled, as epoch days in ascending order.
+	 * @param registrationClosingDay	The closing date for camp registration, as an epoch day.
 	 * @param openTo 					The faculty to which the camp is open.
 	 * @param location 					The location where the camp is held.
 	 * @param totalSlots 				The total number of available slots for the camp.
@@ -143,22 +242,24 @@ public class Camp {
 	 * @param description 				A brief description of the camp.
 	 * @param staffInCharge 			The name of the staff in charge of the camp.
 	 */
-	public Camp(String name, ArrayList<GregorianCalendar> dates, GregorianCalendar registrationClosingDate, String openTo, String location, int totalSlots, int committeeSlots, String description, String staffInCharge) {
+	public Camp(String name, int[] epochDays, int registrationClosingDay, String openTo, String location, int totalSlots, int committeeSlots, String description, String staffInCharge) {
 		this.name = name;
-		this.dates = dates;
-		this.registrationClosingDate = registrationClosingDate;
+		this.epochDays = epochDays;
+		this.registrationClosingDay = registrationClosingDay;
 		this.openTo = openTo;
 		this.location = location;
 		this.totalSlots = totalSlots;
 		this.committeeSlots = committeeSlots;
 		this.description = description;
-		this.staffInCharge = staffInCharge;
-		this.attendees = new ArrayList<String>();
-		this.withdrawnAttendees = new ArrayList<String>();
-		this.committeeMembers = new ArrayList<String>();
+		this.staffInCharge = UserIdDictionary.canonical(staffInCharge);
+		this.attendees = new UserIdSet();
+		this.withdrawnAttendees = new UserIdSet();
+		this.committeeMembers = new UserIdSet();
 		this.enquiries = new HashMap<Integer, Enquiry>();
 		this.suggestions = new HashMap<Integer, Suggestion>();
 		this.visibility = Visibility.OFF;
+		this.attendeeSlotsRemaining.set(totalSlots - committeeSlots);
+		this.committeeSlotsRemaining.set(committeeSlots);
 	}
 
 	/**
@@ -182,43 +283,84 @@ public class Camp {
 	}
 
 	/**
-	 * Returns the dates of the camp.
+	 * Returns the days on which the camp is scheduled.
+	 * 
+	 * @return The epoch days of the camp in ascending order. The array must not be changed.
+	 */
+	public int[] getEpochDays() {
+		
+		return epochDays;
+	}
+
+	/**
+	 * Sets the days on which the camp is scheduled.
 	 * 
-	 * @return An ArrayList of GregorianCalendar objects representing the dates of the camp.
+	 * @param epochDays The epoch days of the camp in ascending order.
 	 */
-	public ArrayList<GregorianCalendar> getDates() {
+	public void setEpochDays(int[] epochDays) {
 		
-		return dates;
+		this.epochDays = epochDays;
 	}
 
 	/**
-	 * Sets the dates of the camp.
+	 * Returns the first day of the camp.
 	 * 
-	 * @param dates An ArrayList of GregorianCalendar objects representing the dates to set.
+	 * @return The first day of the camp, as an epoch day.
 	 */
-	public void setDates(ArrayList<GregorianCalendar> dates) {
+	public int getStartDay() {
 		
-		this.dates = dates;
+		return epochDays[0];
+	}
+
+	/**
+	 * Returns the first date of the camp.
+	 * 
+	 * @return The first date of the camp.
+	 */
+	public LocalDate getStartDate() {
+		
+		return LocalDate.ofEpochDay(getStartDay());
+	}
+
+	/**
+	 * Returns the last date of the camp.
+	 * 
+	 * @return The last date of the camp.
+	 */
+	public LocalDate getEndDate() {
+		
+		int[] days = epochDays;
+		return LocalDate.ofEpochDay(days[days.length - 1]);
 	}
 
 	/**
 	 * Returns the registration closing date of the camp.	
 	 *  
-	 * @return The registration closing date of the camp as a GregorianCalendar object.
+	 * @return The registration closing date of the camp, as an epoch day.
 	 */
-	public GregorianCalendar getRegistrationClosingDate() {
+	public int getRegistrationClosingDay() {
 		
-		return registrationClosingDate;
+		return registrationClosingDay;
+	}
+
+	/**
+	 * Returns the registration closing date of the camp.	
+	 *  
+	 * @return The registration closing date of the camp.
+	 */
+	public LocalDate getRegistrationClosingDate() {
+		
+		return LocalDate.ofEpochDay(registrationClosingDay);
 	}
 
 	/**
 	 * Sets the registration closing date of the camp.	
 	 * 
-	 * @param registrationClosingDate The GregorianCalendar object representing the new registration closing date of the camp to set.
+	 * @param registrationClosingDate The new registration closing date of the camp to set.
 	 */
-	public void setRegistrationClosingDate(GregorianCalendar registrationClosingDate) {
+	public void setRegistrationClosingDate(LocalDate registrationClosingDate) {
 		
-		this.registrationClosingDate = registrationClosingDate;
+		this.registrationClosingDay = (int) registrationClosingDate.toEpochDay();
 	}
 
 	/**
@@ -272,12 +414,14 @@ public class Camp {
 	}
 
 	/**
-	 * Sets the total number of slots open for the camp.
+	 * Sets the total number of slots open for the camp, adding the difference to the remaining attendee slots.
+	 * The caller holds the camp's lock.
 	 * 
 	 * @param totalSlots the new total number of slots open for the camp.
 	 */
 	public void setTotalSlots(int totalSlots) {
 		
+		attendeeSlotsRemaining.addAndGet(totalSlots - this.totalSlots);
 		this.totalSlots = totalSlots;
 	}
 
@@ -292,12 +436,16 @@ public class Camp {
 	}
 
 	/**
-	 * Sets the number of slots available for the camp's committee members.
+	 * Sets the number of slots available for the camp's committee members, moving the difference between the
+	 * remaining committee and attendee slots. The caller holds the camp's lock.
 	 * 
 	 * @param committeeSlots The new number of slots available for the camp's committee members.
 	 */
 	public void setCommitteeSlots(int committeeSlots) {
 		
+		int change = committeeSlots - this.committeeSlots;
+		committeeSlotsRemaining.addAndGet(change);
+		attendeeSlotsRemaining.addAndGet(-change);
 		this.committeeSlots = committeeSlots;
 	}
 
@@ -322,61 +470,61 @@ public class Camp {
 	}
 
 	/**
-	 * Returns the list of attendees for the camp.
+	 * Returns the attendees for the camp.
 	 * 
-	 * @return An ArrayList containing the names of attendees for the camp.
+	 * @return A UserIdSet containing the names of attendees for the camp, in the order they registered.
 	 */
-	public ArrayList<String> getAttendees() {
+	public UserIdSet getAttendees() {
 		
 		return attendees;
 	}
 
 	/**
-	 * Sets the list of attendees for the camp.
+	 * Sets the attendees for the camp.
 	 * 
-	 * @param attendees A new ArrayList containing the names of attendees for the camp.
+	 * @param attendees A new UserIdSet containing the names of attendees for the camp.
 	 */
-	public void setAttendees(ArrayList<String> attendees) {
+	public void setAttendees(UserIdSet attendees) {
 		
 		this.attendees = attendees;
 	}
 
 	/**
-	 * Returns the list of attendees who have withdrawn from the camp.
+	 * Returns the attendees who have withdrawn from the camp.
 	 * 
-	 * @return An ArrayList containing the names of attendees who have withdrawn from the camp.
+	 * @return A UserIdSet containing the names of attendees who have withdrawn from the camp, in the order they withdrew.
 	 */
-	public ArrayList<String> getWithdrawnAttendees() {
+	public UserIdSet getWithdrawnAttendees() {
 		
 		return withdrawnAttendees;
 	}
 
 	/**
-	 * Sets the list of attendees who have withdrawn from the camp.
+	 * Sets the attendees who have withdrawn from the camp.
 	 * 
-	 * @param withdrawnAttendees A new ArrayList containing the names of attendees who have withdrawn from the camp.
+	 * @param withdrawnAttendees A new UserIdSet containing the names of attendees who have withdrawn from the camp.
 	 */
-	public void setWithdrawnAttendees(ArrayList<String> withdrawnAttendees) {
+	public void setWithdrawnAttendees(UserIdSet withdrawnAttendees) {
 		
 		this.withdrawnAttendees = withdrawnAttendees;
 	}
 
 	/**
-	 * Returns the list of committee members of the camp.
+	 * Returns the committee members of the camp.
 	 * 
-	 * @return An ArrayList containing the names of the committee members of the camp.
+	 * @return A UserIdSet containing the names of the committee members of the camp, in the order they joined.
 	 */
-	public ArrayList<String> getCommitteeMembers() {
+	public UserIdSet getCommitteeMembers() {
 		
 		return committeeMembers;
 	}
 
 	/**
-	 * Sets the list of committee members of the camp.
+	 * Sets the committee members of the camp.
 	 * 
-	 * @param committeeMembers A new ArrayList containing the names of the committee members of the camp.
+	 * @param committeeMembers A new UserIdSet containing the names of the committee members of the camp.
 	 */
-	public void setCommitteeMembers(ArrayList<String> committeeMembers) {
+	public void setCommitteeMembers(UserIdSet committeeMembers) {
 		
 		this.committeeMembers = committeeMembers;
 	}
@@ -406,19 +554,49 @@ public class Camp {
 	 * 
 	 * @return A map of Enquiry IDs with their respective Enquiries.
 	 */
-	public Map<Integer, Enquiry> getEnquiries() {
+	public synchronized Map<Integer, Enquiry> getEnquiries() {
 		
+		if (encodedEnquiries != null) {
+			enquiries = enquiryDecoder.apply(encodedEnquiries);
+			encodedEnquiries = null;
+			enquiryDecoder = null;
+		}
 		return enquiries;
 	}
 
+	/**
+	 * Returns the enquiries exactly as they were imported, if they have not been read since.
+	 * 
+	 * @return The encoded enquiries, or {@code null} if they have been decoded or the camp was not imported from CSV.
+	 */
+	public synchronized String getEncodedEnquiries() {
+		
+		return encodedEnquiries;
+	}
+
 	/**
 	 * Sets the map of Enquiry IDs with their respective Enquiries.
 	 * 
 	 * @param enquiries A new map of Enquiry IDs with their respective Enquiries to set.
 	 */
-	public void setEnquiries(Map<Integer, Enquiry> enquiries) {
+	public synchronized void setEnquiries(Map<Integer, Enquiry> enquiries) {
 		
 		this.enquiries = enquiries;
+		this.encodedEnquiries = null;
+		this.enquiryDecoder = null;
+	}
+
+	/**
+	 * Checks whether an enquiry is still held by the camp and has not been replied to, so that it can still be
+	 * replied to, edited or deleted. Called under the camp's lock, so that the answer holds while the change is made.
+	 * 
+	 * @param enquiry The enquiry as it was listed, or {@code null}.
+	 * 
+	 * @return {@code true} if the enquiry awaits a reply, {@code false} if it has been replied to or deleted.
+	 */
+	public boolean isAwaitingReply(Enquiry enquiry) {
+		
+		return enquiry != null && getEnquiries().get(enquiry.getEnquiryID()) == enquiry && enquiry.getReplier() == null;
 	}
 
 	/**
@@ -426,19 +604,36 @@ public class Camp {
 	 * 
 	 * @return A map of Suggestion IDs with their respective Suggestions.
 	 */
-	public Map<Integer, Suggestion> getSuggestions() {
+	public synchronized Map<Integer, Suggestion> getSuggestions() {
 		
+		if (encodedSuggestions != null) {
+			suggestions = suggestionDecoder.apply(encodedSuggestions);
+			encodedSuggestions = null;
+			suggestionDecoder = null;
+		}
 		return suggestions;
 	}
 
+	/**
+	 * Returns the suggestions exactly as they were imported, if they have not been read since.
+	 * 
+	 * @return The encoded suggestions, or {@code null} if they have been decoded or the camp was not imported from CSV.
+	 */
+	public synchronized String getEncodedSuggestions() {
+		
+		return encodedSuggestions;
+	}
+
 	/**
 	 * Sets the map of Suggestion IDs with their respective Suggestions.
 	 * 
 	 * @param suggestions A new map of Suggestion IDs with their respective Suggestions to set.
 	 */
-	public void setSuggestions(Map<Integer, Suggestion> suggestions) {
+	public synchronized void setSuggestions(Map<Integer, Suggestion> suggestions) {
 		
 		this.suggestions = suggestions;
+		this.encodedSuggestions = null;
+		this.suggestionDecoder = null;
 	}
 
 	/**
@@ -452,13 +647,97 @@ public class Camp {
 	}
 	
 	/**
-	 * Returns the number of slots remaining for attendee registration.
+	 * Returns the number of slots for attendees, taken or not.
 	 * 
-	 * @return The calculated number of slots available for attendee registration.
+	 * @return The total slots less the committee slots.
 	 */
 	public int getAttendeeSlots() {
 		
 		return this.totalSlots - this.committeeSlots;
 	}
+
+	/**
+	 * Returns the number of attendee slots still free.
+	 * 
+	 * @return The number of attendee slots not taken or reserved, which is negative if the slots were cut below the number of attendees.
+	 */
+	public int getRemainingAttendeeSlots() {
+
+		return attendeeSlotsRemaining.get();
+	}
+
+	/**
+	 * Returns the number of committee slots still free.
+	 * 
+	 * @return The number of committee slots not taken or reserved.
+	 */
+	public int getRemainingCommitteeSlots() {
+
+		return committeeSlotsRemaining.get();
+	}
+
+	/**
+	 * Takes an attendee slot for a student about to join the camp, if one is free.
+	 * 
+	 * @return {@code true} if a slot was taken, {@code false} if all attendee slots are taken.
+	 */
+	public boolean reserveAttendeeSlot() {
+
+		return reserve(attendeeSlotsRemaining);
+	}
+
+	/**
+	 * Gives back an attendee slot, when an attendee withdraws or a reserved slot goes unused.
+	 */
+	public void releaseAttendeeSlot() {
+
+		attendeeSlotsRemaining.incrementAndGet();
+	}
+
+	/**
+	 * Takes a committee slot for a student about to join the camp's committee, if one is free.
+	 * 
+	 * @return {@code true} if a slot was taken, {@code false} if all committee slots are taken.
+	 */
+	public boolean reserveCommitteeSlot() {
+
+		return reserve(committeeSlotsRemaining);
+	}
+
+	/**
+	 * Gives back a committee slot whose reservation went unused.
+	 */
+	public void releaseCommitteeSlot() {
+
+		committeeSlotsRemaining.incrementAndGet();
+	}
+
+	/**
+	 * Sets the remaining slots from the current attendees and committee members, for members changed without
+	 * reserving slots, as a journal replay does. The caller holds the camp's lock.
+	 */
+	public void recountSlots() {
+
+		attendeeSlotsRemaining.set(totalSlots - committeeSlots - attendees.size());
+		committeeSlotsRemaining.set(committeeSlots - committeeMembers.size());
+	}
+
+	/**
+	 * Takes one of the remaining slots, retrying while other sessions take or give back slots at the same time.
+	 * 
+	 * @param remaining 	The number of slots remaining.
+	 * 
+	 * @return {@code true} if a slot was taken, {@code false} if none remain.
+	 */
+	private static boolean reserve(AtomicInteger remaining) {
+
+		int current;
+		do {
+			current = remaining.get();
+			if (current <= 0)
+				return false;
+		} while (!remaining.compareAndSet(current, current - 1));
+		return true;
+	}
 	
 }
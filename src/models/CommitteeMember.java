@@ -10,6 +10,8 @@ import enums.Role;
  * Committee Member have a unique ID, password, name, faculty and points.
  * Each Committee Member also has a {@link Role} which determines their level of access.
  * 
+ * <p>Its suggestion list and points are changed under {@code synchronized (committeeMember)}, as for a {@link Student}.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -24,12 +26,12 @@ public class CommitteeMember extends Student {
 	/**
      * A list of suggestion IDs representing suggestion provided by the Committee Member.
      */
-	private ArrayList<Integer> suggestions;
+	private volatile ArrayList<Integer> suggestions;
 
 	/**
      * The points earned by the Committee Member.
      */
-	private int points = 0;
+	private volatile int points = 0;
 	
 	/**
 	 * Constructor used for importing {@link CommitteeMember} from CSV.
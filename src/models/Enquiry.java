@@ -1,5 +1,8 @@
 package models;
 
+import utils.IdAllocator;
+import utils.UserIdDictionary;
+
 /**
  * The {@code Enquiry} class represents an inquiry made by a {@link User} in CAMs.
  * An enquiry consists of an ID, the actual inquiry message, the enquirer's name, the name of the replier (if any), and a reply message (if available).
@@ -24,9 +27,9 @@ public class Enquiry {
 	private String enquiry;
 
     /**
-     * The name of the user making the enquiry.
+     * The index of the user making the enquiry in the {@link UserIdDictionary}, or -1 if there is none.
      */
-	private String enquirer;
+	private int enquirer;
 
     /**
      * The name of the user replying to the enquiry.
@@ -39,9 +42,9 @@ public class Enquiry {
 	private String reply = null;
 
     /**
-     * A counter to keep track of the number of enquiries created.
+     * Hands out the IDs of new enquiries.
      */
-	private static Integer enquiryCounter;
+	private static final IdAllocator idAllocator = new IdAllocator("Enquiry");
 	
 	/**
 	 * Constructor used for importing {@link Enquiry} from csv.
@@ -56,7 +59,7 @@ public class Enquiry {
 		
 		this.enquiryID = enquiryID;
 		this.enquiry = enquiry;
-		this.enquirer = enquirer;
+		this.enquirer = UserIdDictionary.indexOf(enquirer);
 		this.replier = replier;
 		this.reply = reply;
 	}
@@ -69,9 +72,9 @@ public class Enquiry {
 	 */
 	public Enquiry(String enquiry, String enquirer) {
 		
-		this.enquiryID = enquiryCounter++;
+		this.enquiryID = nextID();
 		this.enquiry = enquiry;
-		this.enquirer = enquirer;
+		this.enquirer = UserIdDictionary.indexOf(enquirer);
 		this.replier = null;
 		this.reply = null;
 	}
@@ -133,7 +136,7 @@ public class Enquiry {
 	 */
 	public String getEnquirer() {
 		
-		return enquirer;
+		return UserIdDictionary.get(enquirer);
 	}
 
 	/**
@@ -163,7 +166,7 @@ public class Enquiry {
 	 */
 	public static Integer getEnquiryCounter() {
 		
-		return enquiryCounter;
+		return idAllocator.peek();
 	}
 
 	/**
@@ -173,7 +176,17 @@ public class Enquiry {
 	 */
 	public static void setEnquiryCounter(Integer enquiryCounter) {
 		
-		Enquiry.enquiryCounter = enquiryCounter;
+		idAllocator.reset(enquiryCounter);
+	}
+
+	/**
+	 * Takes the next enquiry ID from the counter. Sessions running at the same time never receive the same ID.
+	 * 
+	 * @return The new enquiry ID.
+	 */
+	private static int nextID() {
+		
+		return idAllocator.next();
 	}
 	
 }
@@ -0,0 +1,205 @@
+package models;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link Session} class represents one person's use of CAMs, from the start menu until they quit.
+ * It holds the user logged in to the session and the input and output the session talks through.
+ *
+ * <p>A session is bound to the thread that serves it with {@link #run(Runnable)}, and the DAOs, services and utilities
+ * find it through {@link #current()}. Several sessions can therefore run at the same time in one process, each on its
+ * own thread. A thread with no session bound uses the console session, which talks through {@code System.in} and
+ * {@code System.out}.</p>
+ *
+ * <p>A session also holds values that services work out for the user logged in to it and keep for as long as that user
+ * stays logged in, through {@link #getAttribute(Class)} and {@link #setAttribute(Class, Object)}. They are dropped
+ * whenever the session's user changes, and go with the session once it ends, so nothing is kept for a user who has left.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ */
+public class Session {
+
+	/**
+	 * The session bound to each thread.
+	 */
+	private static final ThreadLocal<Session> bound = new ThreadLocal<Session>();
+
+	/**
+	 * The session used by a thread that has none bound.
+	 */
+	private static final Session console = new Session("console", System.in, System.out);
+
+	/**
+	 * A name identifying the session in messages.
+	 */
+	private final String name;
+
+	/**
+	 * The reader of the session's input.
+	 */
+	private final Scanner input;
+
+	/**
+	 * The stream the session writes to.
+	 */
+	private final PrintStream output;
+
+	/**
+	 * The user logged in to the session, or {@code null} if nobody is.
+	 */
+	private volatile User user;
+
+	/**
+	 * The values kept for the logged-in user, by type.
+	 */
+	private final Map<Class<?>, Object> attributes = new ConcurrentHashMap<Class<?>, Object>();
+
+	/**
+	 * Creates a session talking through the given streams, reading its input in the platform's default charset.
+	 *
+	 * @param name 	A name identifying the session in messages.
+	 * @param in 	The input the session reads from.
+	 * @param out 	The stream the session writes to.
+	 */
+	public Session(String name, InputStream in, PrintStream out) {
+		this(name, in, out, Charset.defaultCharset());
+	}
+
+	/**
+	 * Creates a session talking through the given streams, reading its input in the given charset.
+	 *
+	 * @param name 		A name identifying the session in messages.
+	 * @param in 		The input the session reads from.
+	 * @param out 		The stream the session writes to.
+	 * @param charset 	The charset the input is encoded in.
+	 */
+	public Session(String name, InputStream in, PrintStream out, Charset charset) {
+		this.name = name;
+		this.input = new Scanner(in, charset);
+		this.output = out;
+	}
+
+	/**
+	 * Returns the session bound to the calling thread, or the console session if there is none.
+	 *
+	 * @return The current session.
+	 */
+	public static Session current() {
+
+		Session session = bound.get();
+		return session == null ? console : session;
+	}
+
+	/**
+	 * Returns the console session, which talks through {@code System.in} and {@code System.out}.
+	 *
+	 * @return The console session.
+	 */
+	public static Session console() {
+
+		return console;
+	}
+
+	/**
+	 * Runs a task with this session bound to the calling thread, restoring the previous binding afterwards.
+	 *
+	 * @param task The task to be run.
+	 */
+	public void run(Runnable task) {
+
+		Session previous = bound.get();
+		bound.set(this);
+		try {
+			task.run();
+		} finally {
+			if (previous == null) bound.remove();
+			else bound.set(previous);
+		}
+	}
+
+	/**
+	 * Returns the name identifying the session.
+	 *
+	 * @return The name of the session.
+	 */
+	public String getName() {
+
+		return name;
+	}
+
+	/**
+	 * Returns the stream the session writes to.
+	 *
+	 * @return The session's output.
+	 */
+	public PrintStream getOutput() {
+
+		return output;
+	}
+
+	/**
+	 * Reads the next line of the session's input, first flushing its output so that any prompt has been shown.
+	 *
+	 * @return The line read, without its line separator.
+	 *
+	 * @throws java.util.NoSuchElementException if the input has ended.
+	 */
+	public String readLine() {
+
+		output.flush();
+		return input.nextLine();
+	}
+
+	/**
+	 * Returns the user logged in to the session.
+	 *
+	 * @return The logged-in user, or {@code null} if nobody is logged in.
+	 */
+	public User getUser() {
+
+		return user;
+	}
+
+	/**
+	 * Sets the user logged in to the session, dropping the values kept for the previous one.
+	 *
+	 * @param user The logged-in user, or {@code null} on logout.
+	 */
+	public void setUser(User user) {
+
+		this.user = user;
+		attributes.clear();
+	}
+
+	/**
+	 * Returns the value of the given type kept for the logged-in user.
+	 *
+	 * @param <T> 	The type of the value.
+	 * @param type 	The type of the value, which is also its key.
+	 *
+	 * @return The value, or {@code null} if none is kept.
+	 */
+	public <T> T getAttribute(Class<T> type) {
+
+		return type.cast(attributes.get(type));
+	}
+
+	/**
+	 * Keeps a value for the logged-in user until the session's user changes or the session ends.
+	 *
+	 * @param <T> 	The type of the value.
+	 * @param type 	The type of the value, which is also its key.
+	 * @param value The value to be kept.
+	 */
+	public <T> void setAttribute(Class<T> type, T value) {
+
+		attributes.put(type, value);
+	}
+}
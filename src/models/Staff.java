@@ -9,6 +9,8 @@ import enums.Role;
  * Staff have a unique ID, password, name, and faculty.
  * Each staff also has a {@link Role} which determines their level of access.
  * 
+ * <p>The list of created camps is copy-on-write and changed under {@code synchronized (staff)}, as for a {@link Student}.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -17,7 +19,7 @@ public class Staff extends User{
 	/**
 	 * The list of camps created by the Staff member.
 	 */
-	private ArrayList<String> createdCamps;
+	private volatile ArrayList<String> createdCamps;
 	
 	/**
 	 * Constructor used for importing {@link Staff} from CSV.
@@ -10,6 +10,9 @@ import enums.Role;
  * Student have a unique ID, password, name, and faculty.
  * Each student also has a {@link Role} which determines their level of access.
  * 
+ * <p>Like a {@link Camp}, a student is its own lock and its list and map are copy-on-write: a change is made under
+ * {@code synchronized (student)} by setting an updated copy. A camp involved in the same change is locked first.</p>
+ * 
  * @author Chin Jun Hao, Mark
  * @version 1.0
  * @since 1.0
@@ -19,12 +22,12 @@ public class Student extends User {
 	/**
  	* The list of camps the Committee Member is registered for.
  	*/
-	private ArrayList<String> registeredCamps;
+	private volatile ArrayList<String> registeredCamps;
 
 	/**
  	* A map containing the Committee Member's enquiries, with camp names as keys and lists of enquiry IDs as values.
  	*/
-	private Map<String, ArrayList<Integer>> enquiries;
+	private volatile Map<String, ArrayList<Integer>> enquiries;
 	
 	/**
 	 * Constructor used for importing {@link Student} from CSV.
@@ -1,5 +1,8 @@
 package models;
 
+import utils.IdAllocator;
+import utils.UserIdDictionary;
+
 /**
  * The {@code Suggestion} class represents a suggestion made by a {@link CommitteeMember} in CAMs.
  * A suggestion includes an ID, the suggestion message, the suggester's name, and an approval status indicating whether the suggestion has been approved.
@@ -24,17 +27,19 @@ public class Suggestion {
 	private String suggestion;
 
     /**
-     * The name of the committee member making the suggestion.
+     * The index of the committee member making the suggestion in the {@link UserIdDictionary}, or -1 if there is none.
      */
-	private String suggester;
+	private int suggester;
 
     /**
      * The approval status of the suggestion.
      */
 	private boolean approved;
 
-
-	private static Integer suggestionCounter;
+    /**
+     * Hands out the IDs of new suggestions.
+     */
+	private static final IdAllocator idAllocator = new IdAllocator("Suggestion");
 	
 	/**
 	 * Constructor used for importing {@link Suggestion} from csv.
@@ -47,7 +52,7 @@ public class Suggestion {
 	public Suggestion(Integer suggestionID, String suggestion, String suggester, boolean approved) {
 		this.suggestionID = suggestionID;
 		this.suggestion = suggestion;
-		this.suggester = suggester;
+		this.suggester = UserIdDictionary.indexOf(suggester);
 		this.approved = approved;
 	}
 
@@ -58,9 +63,9 @@ public class Suggestion {
 	 * @param suggester		The name of the committee member making the suggestion.
 	 */
 	public Suggestion(String suggestion, String suggester) {
-		this.suggestionID = suggestionCounter++;
+		this.suggestionID = nextID();
 		this.suggestion = suggestion;
-		this.suggester = suggester;
+		this.suggester = UserIdDictionary.indexOf(suggester);
 		this.approved = false;
 	}
 
@@ -121,7 +126,7 @@ public class Suggestion {
 	 */
 	public String getSuggester() {
 		
-		return suggester;
+		return UserIdDictionary.get(suggester);
 	}
 
 	/**
@@ -131,7 +136,7 @@ public class Suggestion {
 	 */
 	public static Integer getSuggestionCounter() {
 		
-		return suggestionCounter;
+		return idAllocator.peek();
 	}
 
 	/**
@@ -141,6 +146,16 @@ public class Suggestion {
 	 */
 	public static void setSuggestionCounter(Integer suggestionCounter) {
 		
-		Suggestion.suggestionCounter = suggestionCounter;
+		idAllocator.reset(suggestionCounter);
+	}
+
+	/**
+	 * Takes the next suggestion ID from the counter. Sessions running at the same time never receive the same ID.
+	 * 
+	 * @return The new suggestion ID.
+	 */
+	private static int nextID() {
+		
+		return idAllocator.next();
 	}
 }
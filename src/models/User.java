@@ -2,6 +2,8 @@ package models;
 
 import enums.Role;
 
+import utils.UserIdDictionary;
+
 /**
  * The {@link User} class represents a user in CAMs.
  * Users have a unique ID, password, name, and faculty.
@@ -15,7 +17,7 @@ import enums.Role;
  */
 public class User {
 	/**
-	 * The unique ID of the user.
+	 * The unique ID of the user, shared through the {@link UserIdDictionary}.
 	 */
 	private String userID;
 
@@ -50,7 +52,7 @@ public class User {
 	 * @param role 		The {@link Role} of the user.
 	 */
 	public User(String userID, String password, String name, String faculty, Role role) {
-		this.userID = userID;
+		this.userID = UserIdDictionary.canonical(userID);
 		this.password = password;
 		this.name = name;
 		this.faculty = faculty;
@@ -74,7 +76,7 @@ public class User {
 	 */
 	public void setUserID(String userID) {
 		
-		this.userID = userID;
+		this.userID = UserIdDictionary.canonical(userID);
 	}
 
 	/**
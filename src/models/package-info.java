@@ -9,6 +9,7 @@
  * @see models.CommitteeMember
  * @see models.Enquiry
  * @see models.Staff
+ * @see models.Session
  * @see models.Student
  * @see models.Suggestion
  * @see models.User
@@ -1,14 +1,13 @@
 package services;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import dao.CampDaoImpl;
 
@@ -21,6 +20,10 @@ import models.Camp;
 import models.Enquiry;
 import models.Suggestion;
 
+import utils.CsvTokenizer;
+import utils.ExportBatch;
+import utils.MappedCsvReader;
+import utils.UserIdSet;
 import utils.DateUtil;
 
 /**
@@ -40,6 +43,9 @@ import utils.DateUtil;
  * @see models.Camp
  * @see models.Enquiry
  * @see models.Suggestion
+ * @see utils.CsvTokenizer
+ * @see utils.ExportBatch
+ * @see utils.MappedCsvReader
  * @see utils.DateUtil
  * @see enums.Visibility
  */
@@ -47,10 +53,20 @@ public class CampDataService implements DataServiceable {
 
 	private static final CampDao campDao = new CampDaoImpl();
 
+    /**
+     * Exports camp data to a specified file path.
+     *
+     * <p>Nothing is written if no camp has been marked dirty in the {@code CampDao} since the last export.
+     * Otherwise every row is rendered from the camps as they are now, so no copy of the file is kept in memory between exports.</p>
+     *
+     * @param filePath The path for the file to be exported to.
+     */
 	public void exporting(String filePath) {
 		Map<String, Camp> campDataMap = campDao.getCamps();
+		Set<String> dirtyCamps = campDao.takeDirty();
+		if (dirtyCamps.isEmpty()) return;
 
-		try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+		try (BufferedWriter bw = ExportBatch.newWriter(filePath)) {
 			// Write enquiryCounter and suggestionCounter
 			bw.write("Enquiry Counter,Suggestion Counter");
 			bw.newLine();
@@ -63,158 +79,179 @@ public class CampDataService implements DataServiceable {
 					"campName,dates,registrationClosingDate,openTo,location,totalSlots,committeeSlots,description,staffInCharge,attendees,withdrawnAttendees,committeeMembers,visibility,enquiries,suggestions");
 			bw.newLine();
 
-			// Iterate through the studentDataMap and write each student's data to the file
-			for (Map.Entry<String, Camp> entry : campDataMap.entrySet()) {
-				Camp exportingCamp = entry.getValue();
+			// Write every row, rendered from the camp as it is now rather than kept from the last export
+			for (Camp camp : campDataMap.values()) {
+				String row;
+				// Hold the camp's lock, so the row is not caught half way through a change
+				synchronized (camp) {
+					row = render(camp);
+				}
+				bw.write(row);
+				bw.newLine();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			dirtyCamps.forEach(campDao::markDirty);
+		}
+	}
 
-				String campName = exportingCamp.getName();
+	/**
+	 * Builds the CampList.csv row of a camp.
+	 *
+	 * @param exportingCamp The camp to be written.
+	 *
+	 * @return The row, without a line terminator.
+	 */
+	static String render(Camp exportingCamp) {
+
+		String campName = exportingCamp.getName();
+
+		String dates;
+		ArrayList<String> dateStringArrayList = new ArrayList<String>();
+		for (int epochDay : exportingCamp.getEpochDays()) {
+			dateStringArrayList.add(DateUtil.toString(epochDay));
+		}
+		dates = String.join("|", dateStringArrayList);
 
-				String dates;
-				ArrayList<String> dateStringArrayList = new ArrayList<String>();
-				for (GregorianCalendar cal : exportingCamp.getDates()) {
-					dateStringArrayList.add(DateUtil.toString(cal));
-				}
-				dates = String.join("|", dateStringArrayList);
+		String registeredClosingDate = DateUtil.toString(exportingCamp.getRegistrationClosingDay());
 
-				String registeredClosingDate = DateUtil.toString(exportingCamp.getRegistrationClosingDate());
+		String openTo = exportingCamp.getOpenTo();
 
-				String openTo = exportingCamp.getOpenTo();
+		String location = exportingCamp.getLocation();
 
-				String location = exportingCamp.getLocation();
+		String totalSlots = Integer.toString(exportingCamp.getTotalSlots());
 
-				String totalSlots = Integer.toString(exportingCamp.getTotalSlots());
+		String committeeSlots = Integer.toString(exportingCamp.getCommitteeSlots());
 
-				String committeeSlots = Integer.toString(exportingCamp.getCommitteeSlots());
+		String description = exportingCamp.getDescription();
 
-				String description = exportingCamp.getDescription();
+		String staff = exportingCamp.getStaffInCharge();
 
-				String staff = exportingCamp.getStaffInCharge();
+		String attendees;
+		if (exportingCamp.getAttendees().isEmpty()) {
+			attendees = "#NULL!";
+		} else {
+			attendees = String.join("|", exportingCamp.getAttendees());
+		}
 
-				String attendees;
-				if (exportingCamp.getAttendees().isEmpty()) {
-					attendees = "#NULL!";
-				} else {
-					attendees = String.join("|", exportingCamp.getAttendees());
-				}
+		String withdrawnAttendees;
+		if (exportingCamp.getWithdrawnAttendees().isEmpty()) {
+			withdrawnAttendees = "#NULL!";
+		} else {
+			withdrawnAttendees = String.join("|", exportingCamp.getWithdrawnAttendees());
+		}
 
-				String withdrawnAttendees;
-				if (exportingCamp.getWithdrawnAttendees().isEmpty()) {
-					withdrawnAttendees = "#NULL!";
-				} else {
-					withdrawnAttendees = String.join("|", exportingCamp.getWithdrawnAttendees());
-				}
+		String committeeMembers;
+		if (exportingCamp.getCommitteeMembers().isEmpty()) {
+			committeeMembers = "#NULL!";
+		} else {
+			committeeMembers = String.join("|", exportingCamp.getCommitteeMembers());
+		}
 
-				String committeeMembers;
-				if (exportingCamp.getCommitteeMembers().isEmpty()) {
-					committeeMembers = "#NULL!";
-				} else {
-					committeeMembers = String.join("|", exportingCamp.getCommitteeMembers());
+		String visibility = exportingCamp.getVisibility().toString();
+		visibility = visibility.toUpperCase();
+
+		// Enquiries and suggestions that were never read are written back as they were imported
+		String enquiryStrings = exportingCamp.getEncodedEnquiries();
+		if (enquiryStrings == null) {
+			Map<Integer, Enquiry> enquiryMap = exportingCamp.getEnquiries();
+			if (enquiryMap.values().isEmpty()) {
+				enquiryStrings = "#NULL!";
+			} else if (enquiryMap.values().size() == 1) {
+				// there is only 1 enquiry
+				ArrayList<String> enquiryFields = new ArrayList<String>();
+				for (Enquiry enquiry : exportingCamp.getEnquiries().values()) {
+					enquiryFields.add(Integer.toString(enquiry.getEnquiryID()));
+					enquiryFields.add(enquiry.getEnquiry());
+					enquiryFields.add(enquiry.getEnquirer());
+					// if reply is null, there must be no replier either
+					if (enquiry.getReply() == null) {
+						enquiryFields.add("#NULL!");
+						enquiryFields.add("#NULL!");
+					} else {
+						enquiryFields.add(enquiry.getReply());
+						enquiryFields.add(enquiry.getReplier());
+					}
 				}
+				enquiryStrings = String.join("|", enquiryFields);
 
-				String visibility = exportingCamp.getVisibility().toString();
-				visibility = visibility.toUpperCase();
-
-				String enquiryStrings;
-				Map<Integer, Enquiry> enquiryMap = exportingCamp.getEnquiries();
-				if (enquiryMap.values().isEmpty()) {
-					enquiryStrings = "#NULL!";
-				} else if (enquiryMap.values().size() == 1) {
-					// there is only 1 enquiry
+			} else {
+				// there are multiple enquiries
+				ArrayList<String> enquiryStringList = new ArrayList<String>();
+				for (Enquiry enquiry : exportingCamp.getEnquiries().values()) {
 					ArrayList<String> enquiryFields = new ArrayList<String>();
-					for (Enquiry enquiry : exportingCamp.getEnquiries().values()) {
-						enquiryFields.add(Integer.toString(enquiry.getEnquiryID()));
-						enquiryFields.add(enquiry.getEnquiry());
-						enquiryFields.add(enquiry.getEnquirer());
-						// if reply is null, there must be no replier either
-						if (enquiry.getReply() == null) {
-							enquiryFields.add("#NULL!");
-							enquiryFields.add("#NULL!");
-						} else {
-							enquiryFields.add(enquiry.getReply());
-							enquiryFields.add(enquiry.getReplier());
-						}
-					}
-					enquiryStrings = String.join("|", enquiryFields);
-
-				} else {
-					// there are multiple enquiries
-					ArrayList<String> enquiryStringList = new ArrayList<String>();
-					for (Enquiry enquiry : exportingCamp.getEnquiries().values()) {
-						ArrayList<String> enquiryFields = new ArrayList<String>();
-
-						enquiryFields.add(Integer.toString(enquiry.getEnquiryID()));
-						enquiryFields.add(enquiry.getEnquiry());
-						enquiryFields.add(enquiry.getEnquirer());
-						// if reply is null, there must be no replier either
-						if (enquiry.getReply() == null) {
-							enquiryFields.add("#NULL!");
-							enquiryFields.add("#NULL!");
-						} else {
-							enquiryFields.add(enquiry.getReply());
-							enquiryFields.add(enquiry.getReplier());
-						}
-						String enquiryString = String.join("|", enquiryFields);
-						enquiryStringList.add(enquiryString);
+
+					enquiryFields.add(Integer.toString(enquiry.getEnquiryID()));
+					enquiryFields.add(enquiry.getEnquiry());
+					enquiryFields.add(enquiry.getEnquirer());
+					// if reply is null, there must be no replier either
+					if (enquiry.getReply() == null) {
+						enquiryFields.add("#NULL!");
+						enquiryFields.add("#NULL!");
+					} else {
+						enquiryFields.add(enquiry.getReply());
+						enquiryFields.add(enquiry.getReplier());
 					}
-					enquiryStrings = String.join("*", enquiryStringList);
+					String enquiryString = String.join("|", enquiryFields);
+					enquiryStringList.add(enquiryString);
+				}
+				enquiryStrings = String.join("*", enquiryStringList);
+			}
+		}
+
+		String suggestionStrings = exportingCamp.getEncodedSuggestions();
+		if (suggestionStrings == null) {
+			Map<Integer, Suggestion> suggestionMap = exportingCamp.getSuggestions();
+			if (suggestionMap.values().isEmpty()) {
+				suggestionStrings = "#NULL!";
+			} else if (suggestionMap.values().size() == 1) {
+				// there is only 1 suggestion
+				ArrayList<String> suggestionFields = new ArrayList<String>();
+				for (Suggestion suggestion : suggestionMap.values()) {
+					suggestionFields.add(Integer.toString(suggestion.getSuggestionID()));
+					suggestionFields.add(suggestion.getSuggestion());
+					suggestionFields.add(suggestion.getSuggester());
+					suggestionFields.add(Boolean.toString(suggestion.getApproved()));
 				}
 
-				String suggestionStrings;
-				Map<Integer, Suggestion> suggestionMap = exportingCamp.getSuggestions();
-				if (suggestionMap.values().isEmpty()) {
-					suggestionStrings = "#NULL!";
-				} else if (suggestionMap.values().size() == 1) {
-					// there is only 1 suggestion
+				suggestionStrings = String.join("|", suggestionFields);
+			} else {
+				// there are multiple suggestions
+				ArrayList<String> suggestionStringList = new ArrayList<String>();
+				for (Suggestion suggestion : suggestionMap.values()) {
 					ArrayList<String> suggestionFields = new ArrayList<String>();
-					for (Suggestion suggestion : suggestionMap.values()) {
-						suggestionFields.add(Integer.toString(suggestion.getSuggestionID()));
-						suggestionFields.add(suggestion.getSuggestion());
-						suggestionFields.add(suggestion.getSuggester());
-						suggestionFields.add(Boolean.toString(suggestion.getApproved()));
-					}
+					suggestionFields.add(Integer.toString(suggestion.getSuggestionID()));
+					suggestionFields.add(suggestion.getSuggestion());
+					suggestionFields.add(suggestion.getSuggester());
+					suggestionFields.add(Boolean.toString(suggestion.getApproved()));
 
-					suggestionStrings = String.join("|", suggestionFields);
-				} else {
-					// there are multiple suggestions
-					ArrayList<String> suggestionStringList = new ArrayList<String>();
-					for (Suggestion suggestion : suggestionMap.values()) {
-						ArrayList<String> suggestionFields = new ArrayList<String>();
-						suggestionFields.add(Integer.toString(suggestion.getSuggestionID()));
-						suggestionFields.add(suggestion.getSuggestion());
-						suggestionFields.add(suggestion.getSuggester());
-						suggestionFields.add(Boolean.toString(suggestion.getApproved()));
-
-						String suggestionString = String.join("|", suggestionFields);
-						suggestionStringList.add(suggestionString);
-					}
-					suggestionStrings = String.join("*", suggestionStringList);
+					String suggestionString = String.join("|", suggestionFields);
+					suggestionStringList.add(suggestionString);
 				}
-
-				ArrayList<String> rowArrayList = new ArrayList<String>();
-				rowArrayList.add(campName);
-				rowArrayList.add(dates);
-				rowArrayList.add(registeredClosingDate);
-				rowArrayList.add(openTo);
-				rowArrayList.add(location);
-				rowArrayList.add(totalSlots);
-				rowArrayList.add(committeeSlots);
-				rowArrayList.add(description);
-				rowArrayList.add(staff);
-				rowArrayList.add(attendees);
-				rowArrayList.add(withdrawnAttendees);
-				rowArrayList.add(committeeMembers);
-				rowArrayList.add(visibility);
-				rowArrayList.add(enquiryStrings);
-				rowArrayList.add(suggestionStrings);
-
-				// Write data fields separated by commas
-				bw.write(String.join(",", rowArrayList));
-				bw.newLine();
+				suggestionStrings = String.join("*", suggestionStringList);
 			}
-
-		} catch (IOException e) {
-			e.printStackTrace();
 		}
+
+		ArrayList<String> rowArrayList = new ArrayList<String>();
+		rowArrayList.add(campName);
+		rowArrayList.add(dates);
+		rowArrayList.add(registeredClosingDate);
+		rowArrayList.add(openTo);
+		rowArrayList.add(location);
+		rowArrayList.add(totalSlots);
+		rowArrayList.add(committeeSlots);
+		rowArrayList.add(description);
+		rowArrayList.add(staff);
+		rowArrayList.add(attendees);
+		rowArrayList.add(withdrawnAttendees);
+		rowArrayList.add(committeeMembers);
+		rowArrayList.add(visibility);
+		rowArrayList.add(enquiryStrings);
+		rowArrayList.add(suggestionStrings);
+
+		// Join data fields with commas, quoting any field that contains one
+		rowArrayList.replaceAll(CsvTokenizer::escape);
+		return String.join(",", rowArrayList);
 	}
 
     /**
@@ -226,136 +263,24 @@ public class CampDataService implements DataServiceable {
 		CampDao campDao = new CampDaoImpl();
 		Map<String, Camp> campDataMap = campDao.getCamps();
 
-		try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-			String line;
-
-			int enquiryCount, suggestionCount;
+		try {
+			ByteBuffer data = MappedCsvReader.read(filePath);
+			CsvTokenizer header = new CsvTokenizer(data.duplicate());
 
-			// Read the header of enquiryCounter and suggestionCounter
-			line = br.readLine();
+			// Skip the header of enquiryCounter and suggestionCounter
+			header.next();
 			// Read the enquiryCounter and suggestionCounter
-			line = br.readLine();
-			String[] counts = line.split(",");
-			enquiryCount = Integer.parseInt(counts[0]) + 1;
-			suggestionCount = Integer.parseInt(counts[1]) + 1;
-			Enquiry.setEnquiryCounter(enquiryCount);
-			Suggestion.setSuggestionCounter(suggestionCount);
-
-			// do 1 readLine() to skip headers
-			line = br.readLine();
-
-			while ((line = br.readLine()) != null) {
-
-				String campName, openTo, location, description, staff;
-				String[] enquiryStrings = new String[1];
-				String[] suggestionStrings = new String[1];
-				ArrayList<GregorianCalendar> dates = new ArrayList<GregorianCalendar>();
-				GregorianCalendar registrationClosingDate;
-				int totalSlots, committeeSlots;
-				Visibility visibility;
-				ArrayList<String> attendees = new ArrayList<String>();
-				ArrayList<String> withdrawnAttendees = new ArrayList<String>();
-				ArrayList<String> committeeMembers = new ArrayList<String>();
-
-				Map<Integer, Enquiry> enquiryMap = new HashMap<Integer, Enquiry>();
-				Map<Integer, Suggestion> suggestionMap = new HashMap<Integer, Suggestion>();
-				
-				String[] fields = line.split(",");
-				campName = fields[0];
-
-				if (!fields[1].equals("#NULL!")) {
-					if (fields[1].contains("|")) {
-						String[] dateStrings = fields[1].split("\\|");
-						for (String dateString : dateStrings) {
-							dates.add(DateUtil.toDate(dateString));
-						}
-					} else {
-						dates.add(DateUtil.toDate(fields[1]));
-					}
-				}
-
-				registrationClosingDate = DateUtil.toDate(fields[2]);
-				openTo = fields[3];
-				location = fields[4];
-				totalSlots = Integer.parseInt(fields[5]);
-				committeeSlots = Integer.parseInt(fields[6]);
-				description = fields[7];
-				staff = fields[8];
-
-				if (!fields[9].equals("#NULL!")) {
-					if (fields[9].contains("|")) {
-						String[] attendeeStrings = fields[9].split("\\|");
-						for (String attendeeString : attendeeStrings) {
-							attendees.add(attendeeString);
-						}
-					} else {
-						attendees.add(fields[9]);
-					}
-				}
-
-				if (!fields[10].equals("#NULL!")) {
-					if (fields[10].contains("|")) {
-						String[] withdrawnAttendeeStrings = fields[10].split("\\|");
-						for (String withdrawnAttendeeString : withdrawnAttendeeStrings) {
-							withdrawnAttendees.add(withdrawnAttendeeString);
-						}
-					} else {
-						withdrawnAttendees.add(fields[10]);
-					}
-				}
-
-				if (!fields[11].equals("#NULL!")) {
-					if (fields[11].contains("|")) {
-						String[] committeeStrings = fields[11].split("\\|");
-						for (String committeeString : committeeStrings) {
-							committeeMembers.add(committeeString);
-						}
-					} else {
-						committeeMembers.add(fields[11]);
-					}
-				}
-
-				if (fields[12].equals("ON")) {
-					visibility = Visibility.ON;
-				} else {
-					visibility = Visibility.OFF;
-				}
-
-				if (!fields[13].equals("#NULL!")) {
-					if (fields[13].contains("*")) {
-						enquiryStrings = fields[13].split("\\*");
-					} else {
-						enquiryStrings[0] = fields[13];
-					}
-					for (String enquiryString : enquiryStrings) {
-						String[] enquiryFields = enquiryString.split("\\|");
-						Enquiry enquiry = new Enquiry(Integer.valueOf(enquiryFields[0]), enquiryFields[1],
-								enquiryFields[2],
-								enquiryFields[3], enquiryFields[4]);
-						enquiryMap.put(enquiry.getEnquiryID(), enquiry);
-					}
-				}
-
-				if (!fields[14].equals("#NULL!")) {
-					if (fields[14].contains("*")) {
-						suggestionStrings = fields[14].split("\\*");
-					} else {
-						suggestionStrings[0] = fields[14];
-					}
-					for (String suggestionString : suggestionStrings) {
-						String[] suggestionFields = suggestionString.split("\\|");
-						Suggestion suggestion = new Suggestion(Integer.valueOf(suggestionFields[0]),
-								suggestionFields[1], suggestionFields[2], Boolean.parseBoolean(suggestionFields[3]));
-						suggestionMap.put(suggestion.getSuggestionID(), suggestion);
-					}
-				}
+			header.next();
+			Enquiry.setEnquiryCounter(header.intField(0) + 1);
+			Suggestion.setSuggestionCounter(header.intField(1) + 1);
 
-				Camp importedCamp = new Camp(campName, dates, registrationClosingDate, openTo, location,
-						totalSlots, committeeSlots, description, staff, attendees, withdrawnAttendees,
-						committeeMembers, enquiryMap, suggestionMap, visibility);
+			// Skip the column headers
+			header.next();
 
+			List<Camp> camps = MappedCsvReader.parse(data, header.position(), row -> row.isBlank() ? null : parse(row));
+			for (Camp importedCamp : camps) {
 				campDataMap.put(importedCamp.getName(), importedCamp);
-
+				campDao.index(importedCamp);
 			}
 
 		} catch (IOException e) {
@@ -363,4 +288,88 @@ public class CampDataService implements DataServiceable {
 		}
 	}
 
+	/**
+	 * Builds a camp from the current record of a CampList.csv tokenizer.
+	 *
+	 * @param row The tokenizer positioned at a camp record.
+	 *
+	 * @return The camp described by the record.
+	 */
+	static Camp parse(CsvTokenizer row) {
+
+		String campName = row.field(0);
+
+		ArrayList<String> dateStrings = row.strings(1, '|');
+		int[] epochDays = new int[dateStrings.size()];
+		for (int i = 0; i < epochDays.length; i++)
+			epochDays[i] = DateUtil.toEpochDay(dateStrings.get(i));
+
+		int registrationClosingDay = DateUtil.toEpochDay(row.field(2));
+		String openTo = row.field(3);
+		String location = row.field(4);
+		int totalSlots = row.intField(5);
+		int committeeSlots = row.intField(6);
+		String description = row.field(7);
+		String staff = row.field(8);
+		UserIdSet attendees = new UserIdSet(row.strings(9, '|'));
+		UserIdSet withdrawnAttendees = new UserIdSet(row.strings(10, '|'));
+		UserIdSet committeeMembers = new UserIdSet(row.strings(11, '|'));
+		Visibility visibility = row.field(12).equals("ON") ? Visibility.ON : Visibility.OFF;
+
+		// Keep the enquiries and suggestions encoded until the camp is asked for them
+		CsvTokenizer.Segment enquiries = row.segment(13);
+		String encodedEnquiries = enquiries.isNull() ? null : enquiries.toString();
+		CsvTokenizer.Segment suggestions = row.segment(14);
+		String encodedSuggestions = suggestions.isNull() ? null : suggestions.toString();
+
+		return new Camp(campName, epochDays, registrationClosingDay, openTo, location,
+				totalSlots, committeeSlots, description, staff, attendees, withdrawnAttendees,
+				committeeMembers, encodedEnquiries, CampDataService::parseEnquiries,
+				encodedSuggestions, CampDataService::parseSuggestions, visibility);
+	}
+
+	/**
+	 * Builds the enquiries of a camp from their CampList.csv encoding.
+	 *
+	 * @param encoded The enquiries field of a camp record.
+	 *
+	 * @return The enquiries, keyed by ID.
+	 */
+	static Map<Integer, Enquiry> parseEnquiries(String encoded) {
+
+		Map<Integer, Enquiry> enquiryMap = new HashMap<Integer, Enquiry>();
+		CsvTokenizer.Segment enquiries = CsvTokenizer.segmentOf(encoded);
+		if (enquiries.isNull()) return enquiryMap;
+
+		while (enquiries.hasNext()) {
+			CsvTokenizer.Segment enquiryFields = enquiries.next('*');
+			Enquiry enquiry = new Enquiry(enquiryFields.nextInt('|'), enquiryFields.nextString('|'),
+					enquiryFields.nextString('|'), enquiryFields.nextString('|'), enquiryFields.nextString('|'));
+			enquiryMap.put(enquiry.getEnquiryID(), enquiry);
+		}
+		return enquiryMap;
+	}
+
+	/**
+	 * Builds the suggestions of a camp from their CampList.csv encoding.
+	 *
+	 * @param encoded The suggestions field of a camp record.
+	 *
+	 * @return The suggestions, keyed by ID.
+	 */
+	static Map<Integer, Suggestion> parseSuggestions(String encoded) {
+
+		Map<Integer, Suggestion> suggestionMap = new HashMap<Integer, Suggestion>();
+		CsvTokenizer.Segment suggestions = CsvTokenizer.segmentOf(encoded);
+		if (suggestions.isNull()) return suggestionMap;
+
+		while (suggestions.hasNext()) {
+			CsvTokenizer.Segment suggestionFields = suggestions.next('*');
+			Suggestion suggestion = new Suggestion(suggestionFields.nextInt('|'), suggestionFields.nextString('|'),
+					suggestionFields.nextString('|'), Boolean.parseBoolean(suggestionFields.nextString('|')));
+			suggestionMap.put(suggestion.getSuggestionID(), suggestion);
+		}
+		return suggestionMap;
+	}
+
 }
@@ -6,6 +6,7 @@ import dao.CurrentUserDaoImpl;
 
 import interfaces.dao.CurrentUserDao;
 import interfaces.services.ChangePasswordServiceable;
+import interfaces.services.JournalServiceable;
 
 import models.User;
 
@@ -33,6 +34,8 @@ import utils.PrintUtil;
 public class ChangePasswordService implements ChangePasswordServiceable{
 
 	private static final CurrentUserDao currentUserDao = new CurrentUserDaoImpl();
+
+	private static final JournalServiceable journalService = new JournalService();
 	
     
     /**
@@ -70,6 +73,8 @@ public class ChangePasswordService implements ChangePasswordServiceable{
     	}
     	
 		currentUser.setPassword(newPassword);
+		journalService.recordUser(currentUser);
+		journalService.commit();
     	System.out.println("\n> Password sucessfully changed");
     	SessionController.endSession();
     	return true;
@@ -1,14 +1,12 @@
 package services;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import dao.CommitteeMemberDaoImpl;
@@ -18,6 +16,10 @@ import interfaces.dao.CommitteeMemberDao;
 
 import models.CommitteeMember;
 
+import utils.CsvTokenizer;
+import utils.ExportBatch;
+import utils.MappedCsvReader;
+
 /**
  * The {@code CommitteeDataService} class provides methods for exporting and importing data related to committee members.
  * It implements the {@code DataServiceable} interface for data management.
@@ -33,73 +35,78 @@ import models.CommitteeMember;
  */
 public class CommitteeDataService implements DataServiceable {
 
+    private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
     /**
      * Exports committee member data to a CSV file.
+     * Nothing is written if no committee member has been marked dirty since the last export,
+     * and otherwise every row is rendered from the committee members as they are now.
      *
      * @param filePath The path for the file to be exported to.
      */
-    private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
-
     public void exporting (String filePath) {
         
         Map<String, CommitteeMember> committeeDataMap = committeeMemberDao.getCommitteeMembers();
+        Set<String> dirty = committeeMemberDao.takeDirty();
+        if (dirty.isEmpty()) return;
+
     
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter bw = ExportBatch.newWriter(filePath)) {
             // Write header line
             bw.write("Name,Email,Faculty,Password,RegisteredCamps,Enquiries,FacilitatingCamp,Suggestions,Points");
             bw.newLine();
 
-            for (Map.Entry<String, CommitteeMember> entry : committeeDataMap.entrySet()) {
-                CommitteeMember committeeMember = entry.getValue();
-            
-                String registeredCampsString;
-				if (committeeMember.getRegisteredCamps().isEmpty()) {
-					registeredCampsString = "#NULL!";
-				} else {
-					registeredCampsString = String.join("|", committeeMember.getRegisteredCamps());
-				}
-
-                String enquiryString;
-                if (committeeMember.getEnquiries().isEmpty()) {
-                    enquiryString = "#NULL!";
-                } else {
-                    // Construct the enquiries string
-                    StringBuilder enquiryStringBuilder = new StringBuilder();
-                    for (Map.Entry<String, ArrayList<Integer>> campEnquiryEntry : committeeMember.getEnquiries().entrySet()) {
-                        String campName = campEnquiryEntry.getKey();
-                        ArrayList<Integer> enquiryList = campEnquiryEntry.getValue();
-                        String campEnquiryString = campName + "=" + String.join("|", enquiryList.stream().map(Object::toString).toArray(String[]::new));
-                        enquiryStringBuilder.append(campEnquiryString).append("*");
-                    }
-                
-                    // Remove the trailing asterisk if there are any enquiries
-                    enquiryString = enquiryStringBuilder.length() > 0 ? enquiryStringBuilder.substring(0, enquiryStringBuilder.length() - 1) : "#NULL!";
-                }
-
-                String suggestionsString;
-                if (committeeMember.getSuggestions().isEmpty()) {
-                    suggestionsString = "#NULL!";
-                } else {
-                    suggestionsString = committeeMember.getSuggestions().stream().map(Object::toString).collect(Collectors.joining("|"));
+            // Write every row, rendered from the committee member as it is now rather than kept from the last export
+            for (CommitteeMember committeeMember : committeeDataMap.values()) {
+                String row;
+                // Hold the committee member's lock, so the row is not caught half way through a change
+                synchronized (committeeMember) {
+                    row = render(committeeMember);
                 }
-
-                // Write data fields separated by commas
-                bw.write(committeeMember.getName() + ","
-                        + committeeMember.getUserID() + "@e.ntu.edu.sg,"
-                        + committeeMember.getFaculty() + ","
-                        + committeeMember.getPassword() + ","
-                        + registeredCampsString + ","
-                        + enquiryString + ","
-                        + committeeMember.getFacilitatingCamp() + ","
-                        + suggestionsString + ","
-                        + committeeMember.getPoints());
+                bw.write(row);
                 bw.newLine();
             }
-
         } catch (IOException e) {
             e.printStackTrace();
+            dirty.forEach(committeeMemberDao::markDirty);
         }
-    
+    }
+
+    /**
+     * Builds the CommitteeList.csv row of a committee member.
+     *
+     * @param committeeMember The committee member to be written.
+     *
+     * @return The row, without a line terminator.
+     */
+    static String render(CommitteeMember committeeMember) {
+
+        String registeredCampsString;
+		if (committeeMember.getRegisteredCamps().isEmpty()) {
+			registeredCampsString = "#NULL!";
+		} else {
+			registeredCampsString = String.join("|", committeeMember.getRegisteredCamps());
+		}
+
+        String enquiryString = StudentDataService.writeEnquiries(committeeMember.getEnquiries());
+
+        String suggestionsString;
+        if (committeeMember.getSuggestions().isEmpty()) {
+            suggestionsString = "#NULL!";
+        } else {
+            suggestionsString = committeeMember.getSuggestions().stream().map(Object::toString).collect(Collectors.joining("|"));
+        }
+
+        // Join data fields with commas
+        return CsvTokenizer.escape(committeeMember.getName()) + ","
+                + committeeMember.getUserID() + "@e.ntu.edu.sg,"
+                + committeeMember.getFaculty() + ","
+                + CsvTokenizer.escape(committeeMember.getPassword()) + ","
+                + CsvTokenizer.escape(registeredCampsString) + ","
+                + CsvTokenizer.escape(enquiryString) + ","
+                + CsvTokenizer.escape(committeeMember.getFacilitatingCamp()) + ","
+                + suggestionsString + ","
+                + committeeMember.getPoints();
     }
     
     /**
@@ -111,110 +118,51 @@ public class CommitteeDataService implements DataServiceable {
         CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
         Map<String, CommitteeMember> committeeDataMap = committeeMemberDao.getCommitteeMembers();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int rowNumber = 0;
-
-            while ((line = br.readLine()) != null) {
-                rowNumber++;
-
-                // Start only from 2nd row, neglecting the column header
-                if (rowNumber >= 2) {
-                    // Split the line into fields based on the comma separator
-                    String[] fields = line.split(",");
-
-                    // Ensure that there are enough fields to extract the email
-                    if (fields.length > 1) {
-				    	String name = fields[0];
-                        String email = fields[1];
-				    	String faculty = fields[2];
-				    	String password = fields[3];
-
-				    	String username = email.substring(0, email.indexOf('@'));
-
-                        //Extract Registered Camp(s)
-                        String registeredCampsString = fields[4];
-                        //Initialise Array to store Registered Camp(s)
-                        ArrayList<String> registeredCamps = new ArrayList<String>();
-
-                        //There exist camp(s) registered
-                        if (!registeredCampsString.equals("#NULL!")){
-                            if (registeredCampsString.contains("|")) {	//registered for > 1 camp
-                                registeredCamps.addAll(Arrays.asList(registeredCampsString.split("\\|")));
-                            } else {	//registered for 1 camp only
-                                registeredCamps.add(registeredCampsString);
-                            }
-                        }
-
-                        //Extract enquiries
-                        String enquiryString = fields[5];
-
-                        Map<String, ArrayList<Integer>> enquiries = new HashMap<>();
-
-                        if (!enquiryString.equals("#NULL!")){
-
-                            String[] campEnquiries;
-                            if (enquiryString.contains("*")){
-                                // Split the string based on the asterisk "*"
-                                campEnquiries = enquiryString.split("\\*");
-                            } else {
-                                campEnquiries = new String[]{enquiryString};
-                            }
-
-                            for (String campEnquiry : campEnquiries) {
-                                // Split each campEnquiry based on the equal sign "="
-                                String[] parts = campEnquiry.split("=");
-                                        
-                                // Ensure there are enough parts before accessing indices
-                                if (parts.length == 2) {
-                                    // The first part is the camp name, and the second part is the list of integers separated by "|"
-                                    String campName = parts[0].trim();
-
-                                    String[] enquiryValues;
-                                    if (parts[1].contains("|")){
-                                        enquiryValues = parts[1].split("\\|");
-                                    } else {
-                                        enquiryValues = new String[]{parts[1]};
-                                    }
-
-                                    // Convert the values to integers and add to the ArrayList
-                                    ArrayList<Integer> enquiryList = new ArrayList<>();
-                                    for (String value : enquiryValues) {
-                                        enquiryList.add(Integer.parseInt(value));
-                                    }
-
-                                    // Put the campName and enquiryList into the Map
-                                    enquiries.put(campName, enquiryList);
-                                }
-                            }                            
-                        }
-                            
-                        String facilitatingCamp = fields[6];
-                            
-                        String suggestionString = fields[7];
-                        ArrayList<Integer> suggestions = new ArrayList<Integer>();
-
-                        if (!suggestionString.equals("#NULL!")){
-                            if (suggestionString.contains("|")) {
-                                String[] suggestionArray = suggestionString.split("\\|");
-                                for (String value : suggestionArray) {
-                                    suggestions.add(Integer.parseInt(value));
-                                }
-                            } else {
-                                suggestions.add(Integer.parseInt(suggestionString));
-                            }
-                        }
-
-                        int points = Integer.parseInt(fields[8]);
-
-                        CommitteeMember committeeData = new CommitteeMember(username, password, name, faculty, registeredCamps, enquiries, facilitatingCamp, suggestions, points);
-                
-                        committeeDataMap.put(username, committeeData);
-                    }
-                }
-            }
+        try {
+            ByteBuffer data = MappedCsvReader.read(filePath);
+            CsvTokenizer header = new CsvTokenizer(data.duplicate());
+
+            // Skip the column header
+            header.next();
+
+            // Ensure that there are enough fields to extract the email
+            List<CommitteeMember> committeeMembers = MappedCsvReader.parse(data, header.position(), row -> row.fieldCount() <= 1 ? null : parse(row));
+
+            for (CommitteeMember committeeData : committeeMembers)
+                committeeDataMap.put(committeeData.getUserID(), committeeData);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Builds a committee member from the current record of a CommitteeList.csv tokenizer.
+     *
+     * @param row The tokenizer positioned at a committee member record.
+     *
+     * @return The committee member described by the record.
+     */
+    static CommitteeMember parse(CsvTokenizer row) {
+
+        String name = row.field(0);
+        String email = row.field(1);
+        String faculty = row.field(2);
+        String password = row.field(3);
+
+        String username = email.substring(0, email.indexOf('@'));
+
+        //Extract Registered Camp(s)
+        ArrayList<String> registeredCamps = row.strings(4, '|');
+
+        //Extract enquiries
+        Map<String, ArrayList<Integer>> enquiries = StudentDataService.readEnquiries(row.segment(5));
+
+        String facilitatingCamp = row.field(6);
+
+        ArrayList<Integer> suggestions = row.segment(7).ints('|');
+
+        int points = row.intField(8);
+
+        return new CommitteeMember(username, password, name, faculty, registeredCamps, enquiries, facilitatingCamp, suggestions, points);
+    }
 }
@@ -9,6 +9,7 @@ import dao.CurrentUserDaoImpl;
 import interfaces.dao.CampDao;
 import interfaces.dao.CommitteeMemberDao;
 import interfaces.dao.CurrentUserDao;
+import interfaces.services.JournalServiceable;
 import interfaces.services.ReplyEnquiryServiceable;
 
 import models.Camp;
@@ -55,6 +56,11 @@ public class CommitteeReplyEnquiryService implements ReplyEnquiryServiceable {
      */    
     public static final CurrentUserDao currentUserDao = new CurrentUserDaoImpl();
 
+    /**
+     * The journal service for recording replies and points.
+     */
+    private static final JournalServiceable journalService = new JournalService();
+
     /**
      * Allows a committee member to reply to an enquiry.
      */    
@@ -65,14 +71,7 @@ public class CommitteeReplyEnquiryService implements ReplyEnquiryServiceable {
         String replyField;
         CommitteeMember currentUser = (CommitteeMember)currentUserDao.getCurrentUser();
         String campName = currentUser.getFacilitatingCamp();
-        Camp camp = campDao.getCamps().get(campName);
-        ArrayList<Enquiry> validEnquiryList = new ArrayList<Enquiry>();
-
-        for (Enquiry enquiry : camp.getEnquiries().values()) {
-            if (enquiry.getEnquirer() == null) continue;
-
-            validEnquiryList.add(enquiry);
-        }
+        ArrayList<Enquiry> validEnquiryList = campDao.getPendingEnquiries(campName);
 
         if (validEnquiryList.size() == 0) {
             System.out.println("\n> No enquiry to reply");
@@ -104,9 +103,25 @@ public class CommitteeReplyEnquiryService implements ReplyEnquiryServiceable {
             PrintUtil.invalid("input");
         } while (true);
 
-        selectedEnquiry.setReply(replyField);
-        selectedEnquiry.setReplier(currentUser.getName());
-        currentUser.setPoints(currentUser.getPoints() + 1);
+        Camp camp = campDao.getCamps().get(campName);
+        synchronized (camp) {
+            // A staff member may have replied while this reply was typed, and then no point is earned
+            if (!camp.isAwaitingReply(selectedEnquiry)) {
+                System.out.println("\n> Enquiry has already been replied to or deleted");
+                return;
+            }
+
+            selectedEnquiry.setReply(replyField);
+            selectedEnquiry.setReplier(currentUser.getName());
+            campDao.removePendingEnquiry(campName, selectedEnquiry.getEnquiryID());
+            journalService.recordEnquiry(camp, selectedEnquiry);
+
+            synchronized (currentUser) {
+                currentUser.setPoints(currentUser.getPoints() + 1);
+                journalService.recordPoints(currentUser);
+            }
+        }
+        journalService.commit();
         System.out.println("\n> Enquiry replied");
     }
 }
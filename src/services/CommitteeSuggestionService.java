@@ -2,12 +2,14 @@ package services;
 
 import java.util.Map;
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import dao.CampDaoImpl;
 import dao.CurrentUserDaoImpl;
 
 import interfaces.dao.CampDao;
 import interfaces.dao.CurrentUserDao;
+import interfaces.services.JournalServiceable;
 import interfaces.services.SuggestionServiceable;
 
 import models.Camp;
@@ -48,6 +50,11 @@ public class CommitteeSuggestionService implements SuggestionServiceable {
      */    
     private static final CampDao campDao = new CampDaoImpl();
 
+    /**
+     * The journal service for recording suggestions and points.
+     */
+    private static final JournalServiceable journalService = new JournalService();
+
     /**
      * Creates a new suggestion for the camp facilitated by the current committee member.
      */
@@ -55,8 +62,8 @@ public class CommitteeSuggestionService implements SuggestionServiceable {
 
         CommitteeMember currentUser = (CommitteeMember) currentUserDao.getCurrentUser();
         Camp camp = campDao.getCamps().get(currentUser.getFacilitatingCamp());
-        Map<Integer, Suggestion> SuggestionData = camp.getSuggestions();
-        ArrayList<Integer> committeeSuggestionIDList = currentUser.getSuggestions();
+        Map<Integer, Suggestion> SuggestionData;
+        ArrayList<Integer> committeeSuggestionIDList;
         String suggestionField;
         Suggestion newSuggestion;
 
@@ -69,9 +76,23 @@ public class CommitteeSuggestionService implements SuggestionServiceable {
         } while (true);
 
         newSuggestion = new Suggestion(suggestionField, currentUser.getUserID());
-        SuggestionData.put(newSuggestion.getSuggestionID(), newSuggestion);
-        committeeSuggestionIDList.add(newSuggestion.getSuggestionID());
-        currentUser.setPoints(currentUser.getPoints() + 1);
+        synchronized (camp) {
+            SuggestionData = new HashMap<Integer, Suggestion>(camp.getSuggestions());
+            SuggestionData.put(newSuggestion.getSuggestionID(), newSuggestion);
+            camp.setSuggestions(SuggestionData);
+            campDao.indexSuggestion(newSuggestion.getSuggestionID(), camp.getName());
+            campDao.addPendingSuggestion(camp.getName(), newSuggestion.getSuggestionID());
+            journalService.recordSuggestion(camp, newSuggestion);
+
+            synchronized (currentUser) {
+                committeeSuggestionIDList = new ArrayList<Integer>(currentUser.getSuggestions());
+                committeeSuggestionIDList.add(newSuggestion.getSuggestionID());
+                currentUser.setSuggestions(committeeSuggestionIDList);
+                currentUser.setPoints(currentUser.getPoints() + 1);
+                journalService.recordPoints(currentUser);
+            }
+        }
+        journalService.commit();
         System.out.println("\n> Suggestion created");
     }
 
@@ -114,8 +135,20 @@ public class CommitteeSuggestionService implements SuggestionServiceable {
         } while (true);
 
         validSuggestionList.remove(selectedSuggestion);
-        suggestionData.remove(selectedSuggestion.getSuggestionID());
-        currentUser.setPoints(currentUser.getPoints() - 1);
+        synchronized (camp) {
+            suggestionData = new HashMap<Integer, Suggestion>(camp.getSuggestions());
+            suggestionData.remove(selectedSuggestion.getSuggestionID());
+            camp.setSuggestions(suggestionData);
+            campDao.unindexSuggestion(selectedSuggestion.getSuggestionID());
+            campDao.removePendingSuggestion(camp.getName(), selectedSuggestion.getSuggestionID());
+            journalService.recordSuggestionRemoval(camp, selectedSuggestion);
+
+            synchronized (currentUser) {
+                currentUser.setPoints(currentUser.getPoints() - 1);
+                journalService.recordPoints(currentUser);
+            }
+        }
+        journalService.commit();
         System.out.println("\n> Suggestion deleted");
     }
 
@@ -165,7 +198,11 @@ public class CommitteeSuggestionService implements SuggestionServiceable {
             PrintUtil.invalid("input");
         } while (true);
 
-        selectedSuggestion.setSuggestion(newSuggestionField);
+        synchronized (camp) {
+            selectedSuggestion.setSuggestion(newSuggestionField);
+            journalService.recordSuggestion(camp, selectedSuggestion);
+        }
+        journalService.commit();
         System.out.println("\n> Suggestion edited");
     }
 }
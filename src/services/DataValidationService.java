@@ -0,0 +1,135 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import dao.CampDaoImpl;
+import dao.CommitteeMemberDaoImpl;
+import dao.StaffDaoImpl;
+import dao.StudentDaoImpl;
+
+import interfaces.dao.CampDao;
+import interfaces.dao.CommitteeMemberDao;
+import interfaces.dao.StaffDao;
+import interfaces.dao.StudentDao;
+import interfaces.services.ValidateDataServiceable;
+
+import models.Camp;
+import models.CommitteeMember;
+import models.Staff;
+import models.Student;
+
+/**
+ * The {@code DataValidationService} class checks that the imported staff, students, committee members and camps refer to each other consistently.
+ * It implements the {@code ValidateDataServiceable} interface.
+ *
+ * <p>Each kind of record is checked in parallel once all four files have been imported, so the pass costs little on top of the import itself.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see interfaces.services.ValidateDataServiceable
+ * @see dao.CampDaoImpl
+ * @see dao.CommitteeMemberDaoImpl
+ * @see dao.StaffDaoImpl
+ * @see dao.StudentDaoImpl
+ */
+public class DataValidationService implements ValidateDataServiceable {
+
+	private static final CampDao campDao = new CampDaoImpl();
+
+	private static final StaffDao staffDao = new StaffDaoImpl();
+
+	private static final StudentDao studentDao = new StudentDaoImpl();
+
+	private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
+    /**
+     * Checks that every camp's staff-in-charge, attendees and committee members exist,
+     * and that every camp named by a user exists.
+     *
+     * @return a list of problems found, empty if the data is consistent.
+     */
+	public List<String> validate() {
+
+		Map<String, Camp> campData = campDao.getCamps();
+		Map<String, Staff> staffData = staffDao.getStaffs();
+		Map<String, Student> studentData = studentDao.getStudents();
+		Map<String, CommitteeMember> committeeMemberData = committeeMemberDao.getCommitteeMembers();
+
+		Stream<String> campProblems = campData.values().parallelStream().flatMap(camp -> {
+			List<String> problems = new ArrayList<String>();
+			if (!staffData.containsKey(camp.getStaffInCharge()))
+				problems.add(String.format("Camp %s: unknown staff-in-charge %s", camp.getName(), camp.getStaffInCharge()));
+
+			checkStudents(camp.getName(), "attendee", camp.getAttendees(), studentData, committeeMemberData, problems);
+			checkStudents(camp.getName(), "withdrawn attendee", camp.getWithdrawnAttendees(), studentData, committeeMemberData, problems);
+			for (String userID : camp.getCommitteeMembers()) {
+				if (!committeeMemberData.containsKey(userID))
+					problems.add(String.format("Camp %s: unknown committee member %s", camp.getName(), userID));
+			}
+			return problems.stream();
+		});
+
+		Stream<String> staffProblems = staffData.values().parallelStream().flatMap(staff ->
+			missingCamps(staff.getUserID(), staff.getCreatedCamps(), campData).stream());
+
+		Stream<String> studentProblems = Stream.concat(studentData.values().parallelStream(), committeeMemberData.values().parallelStream())
+			.flatMap(student -> {
+				List<String> problems = missingCamps(student.getUserID(), student.getRegisteredCamps(), campData);
+				if (student instanceof CommitteeMember) {
+					String facilitatingCamp = ((CommitteeMember) student).getFacilitatingCamp();
+					if (!campData.containsKey(facilitatingCamp))
+						problems.add(String.format("User %s: unknown facilitating camp %s", student.getUserID(), facilitatingCamp));
+				}
+				return problems.stream();
+			});
+
+		return Stream.of(campProblems, staffProblems, studentProblems)
+			.flatMap(problems -> problems)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Adds a problem for every user ID that is neither a student nor a committee member.
+	 *
+	 * @param campName The name of the camp being checked.
+	 * @param kind The kind of membership being checked, used in the message.
+	 * @param userIDs The user IDs to check.
+	 * @param studentData The imported students.
+	 * @param committeeMemberData The imported committee members.
+	 * @param problems The list to add problems to.
+	 */
+	private static void checkStudents(String campName, String kind, Collection<String> userIDs,
+			Map<String, Student> studentData, Map<String, CommitteeMember> committeeMemberData, List<String> problems) {
+
+		for (String userID : userIDs) {
+			if (!studentData.containsKey(userID) && !committeeMemberData.containsKey(userID))
+				problems.add(String.format("Camp %s: unknown %s %s", campName, kind, userID));
+		}
+	}
+
+	/**
+	 * Lists the camps named by a user that do not exist.
+	 *
+	 * @param userID The ID of the user being checked.
+	 * @param campNames The camp names held by the user.
+	 * @param campData The imported camps.
+	 *
+	 * @return A problem for every missing camp.
+	 */
+	private static List<String> missingCamps(String userID, Collection<String> campNames, Map<String, Camp> campData) {
+
+		List<String> problems = new ArrayList<String>();
+		for (String campName : campNames) {
+			if (!campData.containsKey(campName))
+				problems.add(String.format("User %s: unknown camp %s", userID, campName));
+		}
+		return problems;
+	}
+}
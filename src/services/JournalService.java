@@ -0,0 +1,1017 @@
+package services;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import dao.CampDaoImpl;
+import dao.CommitteeMemberDaoImpl;
+import dao.StaffDaoImpl;
+import dao.StudentDaoImpl;
+
+import enums.Role;
+import enums.Visibility;
+
+import interfaces.dao.CampDao;
+import interfaces.dao.CommitteeMemberDao;
+import interfaces.dao.StaffDao;
+import interfaces.dao.StudentDao;
+import interfaces.services.JournalServiceable;
+
+import models.Camp;
+import models.CommitteeMember;
+import models.Enquiry;
+import models.Staff;
+import models.Student;
+import models.Suggestion;
+import models.User;
+
+import utils.CsvTokenizer;
+import utils.DateUtil;
+import utils.UserIdDictionary;
+import utils.UserIdSet;
+
+/**
+ * The {@code JournalService} class keeps an append-only journal of the changes made to the resident data set.
+ * It implements the {@code JournalServiceable} interface.
+ *
+ * <p>Each change is one CSV record of the form {@code OP,key,value...,checksum}, naming the change and only the values
+ * it changed, such as {@code REGISTER,<camp>,<user>}, {@code ENQUIRY_PUT,<camp>,<id>,...} or
+ * {@code CAMP_SET,<camp>,totalSlots,<n>}. A camp is written out in full only when it is created, and a user only when
+ * a change is not covered by a camp record, such as a new password. Replaying a record sets what it names to the
+ * recorded value, so replaying it over files that already hold the change leaves them as they are.</p>
+ *
+ * <p>Recording a change marks it dirty in its DAO and adds the record to a buffer, under a lock held only for as long
+ * as that takes. {@link #commit()} then writes the buffer and forces it to disk: the first session to commit writes the
+ * records of every session waiting with it in one write, so each session waits for one disk sync, not one per record.
+ * Services record changes under the camp's lock, so records for the same camp are buffered in the order the changes
+ * were made, and commit after releasing it. Unless the {@code cams.journal.sync} system property is {@code false},
+ * the write is forced to disk before {@code commit()} returns.</p>
+ *
+ * <p>The journal file is created by the first write, not when the journal is opened, and closing a journal that the last
+ * export emptied deletes it.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.1
+ * @since 1.1
+ *
+ * @see interfaces.services.JournalServiceable
+ * @see services.CampDataService
+ * @see services.CommitteeDataService
+ * @see services.StaffDataService
+ * @see services.StudentDataService
+ */
+public class JournalService implements JournalServiceable {
+
+	private static final String STAFF_PUT = "STAFF_PUT";
+
+	private static final String STAFF_REMOVE = "STAFF_REMOVE";
+
+	private static final String STUDENT_PUT = "STUDENT_PUT";
+
+	private static final String STUDENT_REMOVE = "STUDENT_REMOVE";
+
+	private static final String COMMITTEE_PUT = "COMMITTEE_PUT";
+
+	private static final String COMMITTEE_REMOVE = "COMMITTEE_REMOVE";
+
+	private static final String CAMP_PUT = "CAMP_PUT";
+
+	private static final String CAMP_REMOVE = "CAMP_REMOVE";
+
+	private static final String CAMP_SET = "CAMP_SET";
+
+	private static final String REGISTER = "REGISTER";
+
+	private static final String WITHDRAW = "WITHDRAW";
+
+	private static final String COMMITTEE_JOIN = "COMMITTEE_JOIN";
+
+	private static final String ENQUIRY_PUT = "ENQUIRY_PUT";
+
+	private static final String ENQUIRY_REMOVE = "ENQUIRY_REMOVE";
+
+	private static final String SUGGESTION_PUT = "SUGGESTION_PUT";
+
+	private static final String SUGGESTION_REMOVE = "SUGGESTION_REMOVE";
+
+	private static final String POINTS = "POINTS";
+
+	private static final boolean syncEachRecord = Boolean.parseBoolean(System.getProperty("cams.journal.sync", "true"));
+
+	private static final CampDao campDao = new CampDaoImpl();
+
+	private static final StaffDao staffDao = new StaffDaoImpl();
+
+	private static final StudentDao studentDao = new StudentDaoImpl();
+
+	private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
+	/**
+	 * The path of the journal file, or {@code null} while the journal is closed.
+	 */
+	private static String journalPath;
+
+	/**
+	 * The journal file, opened by the first write.
+	 */
+	private static FileOutputStream journal;
+
+	/**
+	 * The records not yet written to the file.
+	 */
+	private static final StringBuilder buffer = new StringBuilder();
+
+	/**
+	 * The number of records buffered since the process started.
+	 */
+	private static long buffered = 0;
+
+	/**
+	 * The number of those records written and forced to disk, or discarded once exported.
+	 */
+	private static long durable = 0;
+
+	/**
+	 * Whether a session is writing the buffer out.
+	 */
+	private static boolean writing = false;
+
+	private static int size = 0;
+
+	/**
+	 * The last record buffered by each thread, which its next {@link #commit()} waits for.
+	 */
+	private static final ThreadLocal<Long> lastRecord = new ThreadLocal<Long>();
+
+    /**
+     * Replays the journal over the imported data and opens it for appending.
+     *
+     * <p>Replay stops at the first record that is incomplete, fails its checksum or names a change this journal does not
+     * write, which can only be the last record written before a crash. The journal is then rewritten without it, so new
+     * records are never appended after a torn one.</p>
+     *
+     * @param filePath The path of the journal file.
+     *
+     * @return the number of changes replayed.
+     */
+	public int open(String filePath) {
+
+		synchronized (JournalService.class) {
+			close();
+
+			List<String> replayed = new ArrayList<String>();
+			boolean torn = false;
+			File file = new File(filePath);
+
+			if (file.exists()) {
+				try (BufferedReader br = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+					CsvTokenizer record = new CsvTokenizer(br);
+
+					while (record.next()) {
+						if (record.isBlank()) continue;
+
+						String line = replay(record);
+						if (line == null) {
+							torn = true;
+							break;
+						}
+						replayed.add(line);
+					}
+				} catch (IOException | RuntimeException e) {
+					System.err.println("> Journal: replay stopped at record " + (replayed.size() + 1) + ": " + e);
+					torn = true;
+				}
+			}
+
+			if (torn && replayed.isEmpty()) {
+				// Nothing worth keeping, so leave no file, as an empty journal has none
+				try {
+					Files.deleteIfExists(file.toPath());
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			} else if (torn) {
+				try (FileOutputStream rewrite = new FileOutputStream(file)) {
+					for (String line : replayed)
+						rewrite.write(line.getBytes(StandardCharsets.UTF_8));
+					rewrite.getFD().sync();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+
+			journalPath = filePath;
+			size = replayed.size();
+			return size;
+		}
+	}
+
+    /**
+     * Records a camp as a whole, as when it is created, or its removal if it no longer exists.
+     * The camp's row is built under its lock.
+     *
+     * @param campName The name of the camp.
+     */
+	public void recordCamp(String campName) {
+
+		Camp camp = campDao.getCamps().get(campName);
+		if (camp == null) {
+			append(() -> campDao.markDirty(campName), CAMP_REMOVE, campName);
+			return;
+		}
+
+		synchronized (camp) {
+			append(() -> campDao.markDirty(campName), CAMP_PUT, campName, CampDataService.render(camp));
+		}
+	}
+
+    /**
+     * Records the new value of one of a camp's details. The caller holds the camp's lock.
+     *
+     * @param camp The camp that changed.
+     * @param field The CampList.csv column of the detail: {@code registrationClosingDate}, {@code openTo},
+     * {@code location}, {@code totalSlots}, {@code committeeSlots}, {@code description} or {@code visibility}.
+     *
+     * @throws IllegalArgumentException if the field is not one of these.
+     */
+	public void recordCampField(Camp camp, String field) {
+
+		String value;
+		switch (field) {
+			case "registrationClosingDate":
+				value = DateUtil.toString(camp.getRegistrationClosingDay());
+				break;
+			case "openTo":
+				value = camp.getOpenTo();
+				break;
+			case "location":
+				value = camp.getLocation();
+				break;
+			case "totalSlots":
+				value = Integer.toString(camp.getTotalSlots());
+				break;
+			case "committeeSlots":
+				value = Integer.toString(camp.getCommitteeSlots());
+				break;
+			case "description":
+				value = camp.getDescription();
+				break;
+			case "visibility":
+				value = camp.getVisibility().toString();
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown camp field " + field);
+		}
+		append(() -> campDao.markDirty(camp.getName()), CAMP_SET, camp.getName(), field, value);
+	}
+
+    /**
+     * Records a student joining a camp as an attendee. The caller holds the camp's lock.
+     *
+     * @param camp The camp joined.
+     * @param student The student who joined it.
+     */
+	public void recordRegistration(Camp camp, Student student) {
+
+		append(() -> markDirty(camp.getName(), student), REGISTER, camp.getName(), student.getUserID());
+	}
+
+    /**
+     * Records a student withdrawing from a camp. The caller holds the camp's lock.
+     *
+     * @param camp The camp withdrawn from.
+     * @param student The student who withdrew.
+     */
+	public void recordWithdrawal(Camp camp, Student student) {
+
+		append(() -> markDirty(camp.getName(), student), WITHDRAW, camp.getName(), student.getUserID());
+	}
+
+    /**
+     * Records a student joining a camp's committee, and so becoming a committee member. The caller holds the camp's lock.
+     *
+     * @param camp The camp whose committee was joined.
+     * @param committeeMember The committee member the student became.
+     */
+	public void recordCommitteeJoin(Camp camp, CommitteeMember committeeMember) {
+
+		String userID = committeeMember.getUserID();
+		append(() -> {
+			campDao.markDirty(camp.getName());
+			studentDao.markDirty(userID);
+			committeeMemberDao.markDirty(userID);
+		}, COMMITTEE_JOIN, camp.getName(), userID);
+	}
+
+    /**
+     * Records an enquiry as it now is, whether just made, edited or replied to. The caller holds the camp's lock.
+     *
+     * @param camp The camp holding the enquiry.
+     * @param enquiry The enquiry.
+     */
+	public void recordEnquiry(Camp camp, Enquiry enquiry) {
+
+		append(() -> markDirty(camp.getName(), enquiry.getEnquirer()), ENQUIRY_PUT, camp.getName(),
+				enquiry.getEnquiryID().toString(), enquiry.getEnquirer(), enquiry.getEnquiry(), enquiry.getReplier(),
+				enquiry.getReply());
+	}
+
+    /**
+     * Records an enquiry being deleted. The caller holds the camp's lock.
+     *
+     * @param camp The camp the enquiry was deleted from.
+     * @param enquiry The deleted enquiry.
+     */
+	public void recordEnquiryRemoval(Camp camp, Enquiry enquiry) {
+
+		append(() -> markDirty(camp.getName(), enquiry.getEnquirer()), ENQUIRY_REMOVE, camp.getName(),
+				enquiry.getEnquiryID().toString());
+	}
+
+    /**
+     * Records a suggestion as it now is, whether just made, edited or approved. The caller holds the camp's lock.
+     *
+     * @param camp The camp holding the suggestion.
+     * @param suggestion The suggestion.
+     */
+	public void recordSuggestion(Camp camp, Suggestion suggestion) {
+
+		append(() -> markDirty(camp.getName(), suggestion.getSuggester()), SUGGESTION_PUT, camp.getName(),
+				suggestion.getSuggestionID().toString(), suggestion.getSuggester(), suggestion.getSuggestion(),
+				Boolean.toString(suggestion.getApproved()));
+	}
+
+    /**
+     * Records a suggestion being deleted. The caller holds the camp's lock.
+     *
+     * @param camp The camp the suggestion was deleted from.
+     * @param suggestion The deleted suggestion.
+     */
+	public void recordSuggestionRemoval(Camp camp, Suggestion suggestion) {
+
+		append(() -> campDao.markDirty(camp.getName()), SUGGESTION_REMOVE, camp.getName(),
+				suggestion.getSuggestionID().toString());
+	}
+
+    /**
+     * Records a committee member's new points. The caller holds the committee member's lock.
+     *
+     * @param committeeMember The committee member whose points changed.
+     */
+	public void recordPoints(CommitteeMember committeeMember) {
+
+		String userID = committeeMember.getUserID();
+		append(() -> committeeMemberDao.markDirty(userID), POINTS, userID, Integer.toString(committeeMember.getPoints()));
+	}
+
+    /**
+     * Marks a user dirty and records their current row.
+     *
+     * @param user The user that changed.
+     */
+	public void recordUser(User user) {
+		recordUser(user.getRole(), user.getUserID());
+	}
+
+    /**
+     * Marks a user dirty in the DAO for the given role and records their current row,
+     * or a removal if the DAO no longer holds them. The row is built under the user's lock.
+     *
+     * @param role The role under which the user is stored.
+     * @param userID The ID of the user that changed.
+     */
+	public void recordUser(Role role, String userID) {
+
+		switch (role) {
+			case STAFF:
+				Staff staff = staffDao.getStaffs().get(userID);
+				if (staff == null) {
+					append(() -> staffDao.markDirty(userID), STAFF_REMOVE, userID);
+					return;
+				}
+				synchronized (staff) {
+					append(() -> staffDao.markDirty(userID), STAFF_PUT, userID, StaffDataService.render(staff));
+				}
+				break;
+			case COMMITTEE:
+				CommitteeMember committeeMember = committeeMemberDao.getCommitteeMembers().get(userID);
+				if (committeeMember == null) {
+					append(() -> committeeMemberDao.markDirty(userID), COMMITTEE_REMOVE, userID);
+					return;
+				}
+				synchronized (committeeMember) {
+					append(() -> committeeMemberDao.markDirty(userID), COMMITTEE_PUT, userID,
+							CommitteeDataService.render(committeeMember));
+				}
+				break;
+			default:
+				Student student = studentDao.getStudents().get(userID);
+				if (student == null) {
+					append(() -> studentDao.markDirty(userID), STUDENT_REMOVE, userID);
+					return;
+				}
+				synchronized (student) {
+					append(() -> studentDao.markDirty(userID), STUDENT_PUT, userID, StudentDataService.render(student));
+				}
+				break;
+		}
+	}
+
+    /**
+     * Writes the records buffered by the calling thread to the journal and forces them to disk, together with those
+     * of any other session committing at the same time. Returns at once if the thread has nothing to commit.
+     * Must not be called while holding a camp's or user's lock.
+     */
+	public void commit() {
+
+		Long record = lastRecord.get();
+		if (record == null) return;
+		lastRecord.remove();
+
+		byte[] batch;
+		long upTo;
+		synchronized (JournalService.class) {
+			// Another session may already be writing this thread's records
+			while (writing && durable < record) {
+				try {
+					JournalService.class.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+			if (durable >= record) return;
+
+			writing = true;
+			batch = buffer.toString().getBytes(StandardCharsets.UTF_8);
+			buffer.setLength(0);
+			upTo = buffered;
+		}
+
+		try {
+			write(batch);
+		} finally {
+			synchronized (JournalService.class) {
+				durable = Math.max(durable, upTo);
+				writing = false;
+				JournalService.class.notifyAll();
+			}
+		}
+	}
+
+    /**
+     * Returns the number of changes recorded since the journal was last emptied, including those replayed on startup.
+     *
+     * @return the number of changes in the journal.
+     */
+	public int size() {
+
+		synchronized (JournalService.class) {
+			return size;
+		}
+	}
+
+    /**
+     * Empties the journal if no DAO holds a change that has not been exported.
+     *
+     * <p>Recording a change marks it dirty under the same lock, so a change made while the CSV files were being written
+     * keeps the journal intact until the next export. Records still buffered are for changes already exported, and are dropped.
+     * A journal that is already empty is left as it is, without touching the disk.</p>
+     *
+     * @return {@code true} if the journal was emptied, {@code false} otherwise.
+     */
+	public boolean truncate() {
+
+		synchronized (JournalService.class) {
+			if (journalPath == null) return false;
+
+			// Already empty, so there is nothing to write or sync
+			if (size == 0) return true;
+
+			if (campDao.isDirty() || staffDao.isDirty() || studentDao.isDirty() || committeeMemberDao.isDirty())
+				return false;
+
+			awaitWriter();
+			buffer.setLength(0);
+			durable = buffered;
+			JournalService.class.notifyAll();
+
+			try {
+				if (journal != null) {
+					journal.getChannel().truncate(0);
+					journal.getFD().sync();
+				} else {
+					// Left by the last run and replayed, but not written to since
+					Files.deleteIfExists(Paths.get(journalPath));
+				}
+				size = 0;
+				return true;
+			} catch (IOException e) {
+				e.printStackTrace();
+				return false;
+			}
+		}
+	}
+
+    /**
+     * Writes out any buffered records and closes the journal file, if it is open. A journal left empty is deleted.
+     */
+	public void close() {
+
+		synchronized (JournalService.class) {
+			if (journalPath == null) return;
+
+			awaitWriter();
+			write(buffer.toString().getBytes(StandardCharsets.UTF_8));
+			buffer.setLength(0);
+			durable = buffered;
+			JournalService.class.notifyAll();
+
+			if (journal != null) {
+				try {
+					journal.close();
+					// Emptied by the last export, so leave no file behind, as if none had been written
+					if (size == 0) Files.deleteIfExists(Paths.get(journalPath));
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+			journal = null;
+			journalPath = null;
+		}
+	}
+
+	/**
+	 * Marks a change dirty and buffers its record, under the journal's lock.
+	 *
+	 * @param markDirty Marks the records changed dirty in their DAOs.
+	 * @param fields The fields of the record, starting with the kind of change.
+	 */
+	private static void append(Runnable markDirty, String... fields) {
+
+		synchronized (JournalService.class) {
+			markDirty.run();
+			if (journalPath == null) return;
+
+			StringBuilder line = new StringBuilder();
+			for (String field : fields)
+				line.append(CsvTokenizer.escape(field)).append(',');
+			buffer.append(line).append(checksum(fields)).append('\n');
+			size++;
+			lastRecord.set(++buffered);
+		}
+	}
+
+	/**
+	 * Appends a batch of records to the journal file, opening it first if this is the first write, and forces it to disk.
+	 * Called by one thread at a time: the one that set {@link #writing}, or one holding the journal's lock while no
+	 * thread is writing.
+	 *
+	 * @param batch The records to be written.
+	 */
+	private static void write(byte[] batch) {
+
+		if (batch.length == 0) return;
+
+		String path;
+		synchronized (JournalService.class) {
+			path = journalPath;
+		}
+		if (path == null) return;
+
+		try {
+			if (journal == null) journal = new FileOutputStream(path, true);
+			journal.write(batch);
+			if (syncEachRecord) journal.getFD().sync();
+		} catch (IOException e) {
+			System.err.println("> Journal: unable to write to " + path + ": " + e);
+		}
+	}
+
+	/**
+	 * Waits, holding the journal's lock, until no thread is writing the buffer out.
+	 */
+	private static void awaitWriter() {
+
+		boolean interrupted = false;
+		while (writing) {
+			try {
+				JournalService.class.wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Marks a camp and one of its students dirty.
+	 *
+	 * @param campName The name of the camp.
+	 * @param student The student, who may be a committee member.
+	 */
+	private static void markDirty(String campName, Student student) {
+
+		campDao.markDirty(campName);
+		if (student.getRole() == Role.COMMITTEE) committeeMemberDao.markDirty(student.getUserID());
+		else studentDao.markDirty(student.getUserID());
+	}
+
+	/**
+	 * Marks a camp dirty, and the student or committee member with the given ID.
+	 *
+	 * @param campName The name of the camp.
+	 * @param userID The ID of the student or committee member.
+	 */
+	private static void markDirty(String campName, String userID) {
+
+		campDao.markDirty(campName);
+		if (committeeMemberDao.getCommitteeMembers().containsKey(userID)) committeeMemberDao.markDirty(userID);
+		else studentDao.markDirty(userID);
+	}
+
+	/**
+	 * Applies the current journal record to the DAOs.
+	 *
+	 * @param record The tokenizer positioned at a journal record.
+	 *
+	 * @return The record as it should be written back to the journal, or {@code null} if the record is torn.
+	 *
+	 * @throws IOException if a row in the record cannot be read.
+	 */
+	private static String replay(CsvTokenizer record) throws IOException {
+
+		int count = record.fieldCount() - 1;
+		if (count < 2) return null;
+
+		String[] fields = new String[count];
+		for (int i = 0; i < count; i++)
+			fields[i] = record.isNull(i) ? null : record.field(i);
+		if (!checksum(fields).equals(record.field(count))) return null;
+
+		String op = fields[0];
+		String key = fields[1];
+
+		switch (op) {
+			case CAMP_PUT:
+				replayCampPut(key, fields[2]);
+				break;
+			case CAMP_REMOVE:
+				replayCampRemove(key);
+				break;
+			case STAFF_PUT:
+				staffDao.getStaffs().put(UserIdDictionary.canonical(key), StaffDataService.parse(row(fields[2])));
+				staffDao.markDirty(key);
+				break;
+			case STAFF_REMOVE:
+				staffDao.getStaffs().remove(key);
+				staffDao.markDirty(key);
+				break;
+			case COMMITTEE_PUT:
+				committeeMemberDao.getCommitteeMembers().put(UserIdDictionary.canonical(key),
+						CommitteeDataService.parse(row(fields[2])));
+				committeeMemberDao.markDirty(key);
+				break;
+			case COMMITTEE_REMOVE:
+				committeeMemberDao.getCommitteeMembers().remove(key);
+				committeeMemberDao.markDirty(key);
+				break;
+			case STUDENT_PUT:
+				studentDao.getStudents().put(UserIdDictionary.canonical(key), StudentDataService.parse(row(fields[2])));
+				studentDao.markDirty(key);
+				break;
+			case STUDENT_REMOVE:
+				studentDao.getStudents().remove(key);
+				studentDao.markDirty(key);
+				break;
+			case POINTS:
+				CommitteeMember committeeMember = committeeMemberDao.getCommitteeMembers().get(key);
+				// A committee member removed later in the journal
+				if (committeeMember == null) break;
+
+				synchronized (committeeMember) {
+					committeeMember.setPoints(Integer.parseInt(fields[2]));
+				}
+				committeeMemberDao.markDirty(key);
+				break;
+			case CAMP_SET:
+			case REGISTER:
+			case WITHDRAW:
+			case COMMITTEE_JOIN:
+			case ENQUIRY_PUT:
+			case ENQUIRY_REMOVE:
+			case SUGGESTION_PUT:
+			case SUGGESTION_REMOVE:
+				Camp camp = campDao.getCamps().get(key);
+				// A change to a camp removed later in the journal
+				if (camp == null) break;
+
+				synchronized (camp) {
+					replayCampChange(op, camp, fields);
+				}
+				break;
+			default:
+				// Not a record this journal writes, so it is as corrupt as one that fails its checksum
+				return null;
+		}
+
+		StringBuilder line = new StringBuilder();
+		for (String field : fields)
+			line.append(CsvTokenizer.escape(field)).append(',');
+		return line.append(record.field(count)).append('\n').toString();
+	}
+
+	/**
+	 * Applies a recorded change to a camp and to the users it involves.
+	 *
+	 * @param op The kind of change.
+	 * @param camp The camp changed.
+	 * @param fields The fields of the record.
+	 */
+	private static void replayCampChange(String op, Camp camp, String[] fields) {
+
+		String campName = camp.getName();
+		campDao.markDirty(campName);
+
+		switch (op) {
+			case CAMP_SET:
+				replayCampField(camp, fields[2], fields[3]);
+				break;
+			case REGISTER: {
+				Student student = findStudent(fields[2]);
+				UserIdSet attendees = new UserIdSet(camp.getAttendees());
+				attendees.add(fields[2]);
+				camp.setAttendees(attendees);
+				camp.recountSlots();
+				if (student != null) {
+					ArrayList<String> registeredCamps = new ArrayList<String>(student.getRegisteredCamps());
+					if (!registeredCamps.contains(campName)) registeredCamps.add(campName);
+					student.setRegisteredCamps(registeredCamps);
+					markDirty(campName, student);
+				}
+				break;
+			}
+			case WITHDRAW: {
+				Student student = findStudent(fields[2]);
+				UserIdSet attendees = new UserIdSet(camp.getAttendees());
+				UserIdSet withdrawnAttendees = new UserIdSet(camp.getWithdrawnAttendees());
+				attendees.remove(fields[2]);
+				withdrawnAttendees.add(fields[2]);
+				camp.setAttendees(attendees);
+				camp.setWithdrawnAttendees(withdrawnAttendees);
+				camp.recountSlots();
+				if (student != null) {
+					ArrayList<String> registeredCamps = new ArrayList<String>(student.getRegisteredCamps());
+					registeredCamps.remove(campName);
+					student.setRegisteredCamps(registeredCamps);
+					markDirty(campName, student);
+				}
+				break;
+			}
+			case COMMITTEE_JOIN: {
+				Student student = studentDao.getStudents().remove(fields[2]);
+				if (student != null) {
+					CommitteeMember committeeMember = new CommitteeMember(student.getUserID(), student.getPassword(),
+							student.getName(), student.getFaculty(), student.getRegisteredCamps(), student.getEnquiries(),
+							campName, new ArrayList<>(), 0);
+					committeeMemberDao.getCommitteeMembers().put(committeeMember.getUserID(), committeeMember);
+					studentDao.markDirty(fields[2]);
+					committeeMemberDao.markDirty(fields[2]);
+				}
+				UserIdSet committeeMembers = new UserIdSet(camp.getCommitteeMembers());
+				committeeMembers.add(fields[2]);
+				camp.setCommitteeMembers(committeeMembers);
+				camp.recountSlots();
+				break;
+			}
+			case ENQUIRY_PUT: {
+				Integer enquiryID = Integer.valueOf(fields[2]);
+				Map<Integer, Enquiry> enquiries = new HashMap<Integer, Enquiry>(camp.getEnquiries());
+				enquiries.put(enquiryID, new Enquiry(enquiryID, fields[4], fields[3], fields[5], fields[6]));
+				camp.setEnquiries(enquiries);
+				campDao.indexEnquiry(enquiryID, campName);
+				if (enquiryID >= Enquiry.getEnquiryCounter()) Enquiry.setEnquiryCounter(enquiryID + 1);
+
+				Student enquirer = findStudent(fields[3]);
+				if (enquirer != null) {
+					Map<String, ArrayList<Integer>> studentEnquiries = new HashMap<String, ArrayList<Integer>>(enquirer.getEnquiries());
+					ArrayList<Integer> campEnquiries = new ArrayList<Integer>(studentEnquiries.getOrDefault(campName, new ArrayList<Integer>()));
+					if (!campEnquiries.contains(enquiryID)) campEnquiries.add(enquiryID);
+					studentEnquiries.put(campName, campEnquiries);
+					enquirer.setEnquiries(studentEnquiries);
+					markDirty(campName, enquirer);
+				}
+				break;
+			}
+			case ENQUIRY_REMOVE: {
+				Integer enquiryID = Integer.valueOf(fields[2]);
+				Map<Integer, Enquiry> enquiries = new HashMap<Integer, Enquiry>(camp.getEnquiries());
+				Enquiry removed = enquiries.remove(enquiryID);
+				camp.setEnquiries(enquiries);
+				campDao.unindexEnquiry(enquiryID);
+
+				Student enquirer = removed == null ? null : findStudent(removed.getEnquirer());
+				if (enquirer != null && enquirer.getEnquiries().containsKey(campName)) {
+					Map<String, ArrayList<Integer>> studentEnquiries = new HashMap<String, ArrayList<Integer>>(enquirer.getEnquiries());
+					ArrayList<Integer> campEnquiries = new ArrayList<Integer>(studentEnquiries.get(campName));
+					campEnquiries.remove(enquiryID);
+					if (campEnquiries.isEmpty()) studentEnquiries.remove(campName);
+					else studentEnquiries.put(campName, campEnquiries);
+					enquirer.setEnquiries(studentEnquiries);
+					markDirty(campName, enquirer);
+				}
+				break;
+			}
+			case SUGGESTION_PUT: {
+				Integer suggestionID = Integer.valueOf(fields[2]);
+				Map<Integer, Suggestion> suggestions = new HashMap<Integer, Suggestion>(camp.getSuggestions());
+				suggestions.put(suggestionID, new Suggestion(suggestionID, fields[4], fields[3], Boolean.parseBoolean(fields[5])));
+				camp.setSuggestions(suggestions);
+				campDao.indexSuggestion(suggestionID, campName);
+				if (suggestionID >= Suggestion.getSuggestionCounter()) Suggestion.setSuggestionCounter(suggestionID + 1);
+
+				CommitteeMember suggester = committeeMemberDao.getCommitteeMembers().get(fields[3]);
+				if (suggester != null && !suggester.getSuggestions().contains(suggestionID)) {
+					ArrayList<Integer> suggestionIDs = new ArrayList<Integer>(suggester.getSuggestions());
+					suggestionIDs.add(suggestionID);
+					suggester.setSuggestions(suggestionIDs);
+					committeeMemberDao.markDirty(fields[3]);
+				}
+				break;
+			}
+			case SUGGESTION_REMOVE: {
+				Integer suggestionID = Integer.valueOf(fields[2]);
+				Map<Integer, Suggestion> suggestions = new HashMap<Integer, Suggestion>(camp.getSuggestions());
+				suggestions.remove(suggestionID);
+				camp.setSuggestions(suggestions);
+				campDao.unindexSuggestion(suggestionID);
+				break;
+			}
+			default:
+				throw new IllegalArgumentException("Unknown journal record " + op);
+		}
+	}
+
+	/**
+	 * Sets one of a camp's details to its recorded value, and re-indexes the camp.
+	 *
+	 * @param camp The camp changed.
+	 * @param field The CampList.csv column of the detail.
+	 * @param value The recorded value.
+	 */
+	private static void replayCampField(Camp camp, String field, String value) {
+
+		switch (field) {
+			case "registrationClosingDate":
+				camp.setRegistrationClosingDate(LocalDate.parse(value));
+				break;
+			case "openTo":
+				camp.setOpenTo(value);
+				break;
+			case "location":
+				camp.setLocation(value);
+				break;
+			case "totalSlots":
+				camp.setTotalSlots(Integer.parseInt(value));
+				break;
+			case "committeeSlots":
+				camp.setCommitteeSlots(Integer.parseInt(value));
+				break;
+			case "description":
+				camp.setDescription(value);
+				break;
+			case "visibility":
+				camp.setVisibility(value.equals(Visibility.ON.toString()) ? Visibility.ON : Visibility.OFF);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown camp field " + field);
+		}
+		campDao.index(camp);
+	}
+
+	/**
+	 * Puts a recorded camp in place of the one of the same name, and adds it to its staff-in-charge's created camps.
+	 *
+	 * @param campName The name of the camp.
+	 * @param row The camp's CampList.csv row.
+	 *
+	 * @throws IOException if the row cannot be read.
+	 */
+	private static void replayCampPut(String campName, String row) throws IOException {
+
+		Camp camp = CampDataService.parse(row(row));
+		campDao.getCamps().put(campName, camp);
+		campDao.index(camp);
+		campDao.markDirty(campName);
+		advanceCounters(camp);
+
+		Staff staff = staffDao.getStaffs().get(camp.getStaffInCharge());
+		if (staff != null && !staff.getCreatedCamps().contains(campName)) {
+			ArrayList<String> createdCamps = new ArrayList<String>(staff.getCreatedCamps());
+			createdCamps.add(campName);
+			staff.setCreatedCamps(createdCamps);
+			staffDao.markDirty(staff.getUserID());
+		}
+	}
+
+	/**
+	 * Removes a recorded camp, and takes it off its staff-in-charge's created camps.
+	 *
+	 * @param campName The name of the camp.
+	 */
+	private static void replayCampRemove(String campName) {
+
+		Camp camp = campDao.getCamps().remove(campName);
+		campDao.unindex(campName);
+		campDao.markDirty(campName);
+		if (camp == null) return;
+
+		Staff staff = staffDao.getStaffs().get(camp.getStaffInCharge());
+		if (staff != null && staff.getCreatedCamps().contains(campName)) {
+			ArrayList<String> createdCamps = new ArrayList<String>(staff.getCreatedCamps());
+			createdCamps.remove(campName);
+			staff.setCreatedCamps(createdCamps);
+			staffDao.markDirty(staff.getUserID());
+		}
+	}
+
+	/**
+	 * Finds a student, who may have become a committee member.
+	 *
+	 * @param userID The ID of the student.
+	 *
+	 * @return The student or committee member, or {@code null} if there is none.
+	 */
+	private static Student findStudent(String userID) {
+
+		Student student = studentDao.getStudents().get(userID);
+		return student != null ? student : committeeMemberDao.getCommitteeMembers().get(userID);
+	}
+
+	/**
+	 * Positions a tokenizer at a row held in a journal record.
+	 *
+	 * @param row The row.
+	 *
+	 * @return The tokenizer, positioned at the row.
+	 *
+	 * @throws IOException if the row cannot be read.
+	 */
+	private static CsvTokenizer row(String row) throws IOException {
+
+		CsvTokenizer fields = new CsvTokenizer(new StringReader(row));
+		fields.next();
+		return fields;
+	}
+
+	/**
+	 * Moves the enquiry and suggestion counters past the IDs used by a replayed camp,
+	 * since the counters in CampList.csv predate the journal.
+	 *
+	 * @param camp The replayed camp.
+	 */
+	private static void advanceCounters(Camp camp) {
+
+		for (Integer enquiryID : camp.getEnquiries().keySet()) {
+			if (enquiryID >= Enquiry.getEnquiryCounter())
+				Enquiry.setEnquiryCounter(enquiryID + 1);
+		}
+		for (Integer suggestionID : camp.getSuggestions().keySet()) {
+			if (suggestionID >= Suggestion.getSuggestionCounter())
+				Suggestion.setSuggestionCounter(suggestionID + 1);
+		}
+	}
+
+	/**
+	 * Computes the checksum stored with a journal record.
+	 *
+	 * @param fields The fields of the record, with {@code null} for an empty value.
+	 *
+	 * @return The CRC-32 of the fields joined by commas, in hexadecimal.
+	 */
+	private static String checksum(String... fields) {
+
+		StringBuilder joined = new StringBuilder();
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) joined.append(',');
+			joined.append(fields[i] == null ? CsvTokenizer.NULL : fields[i]);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(joined.toString().getBytes(StandardCharsets.UTF_8));
+		return Long.toHexString(crc.getValue());
+	}
+}
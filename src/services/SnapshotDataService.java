@@ -0,0 +1,362 @@
+package services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import dao.CampDaoImpl;
+import dao.CommitteeMemberDaoImpl;
+import dao.StaffDaoImpl;
+import dao.StudentDaoImpl;
+
+import enums.Visibility;
+
+import interfaces.dao.CampDao;
+import interfaces.dao.CommitteeMemberDao;
+import interfaces.dao.StaffDao;
+import interfaces.dao.StudentDao;
+import interfaces.services.DataServiceable;
+
+import models.Camp;
+import models.CommitteeMember;
+import models.Enquiry;
+import models.Staff;
+import models.Student;
+import models.Suggestion;
+
+import utils.ExportBatch;
+import utils.SnapshotInput;
+import utils.SnapshotOutput;
+import utils.UserIdDictionary;
+import utils.UserIdSet;
+
+/**
+ * The {@code SnapshotDataService} class imports and exports the whole data set as a single binary snapshot.
+ * It implements the {@code DataServiceable} interface as an alternative to the four CSV data services.
+ *
+ * <p>A snapshot starts with the magic number {@code CAMS} and a format version, followed by the enquiry and suggestion
+ * counters, the staff, students, committee members and camps, and a CRC-32 of everything before it. Strings are length-prefixed,
+ * dates are stored as epoch days and IDs, counts and slots as varints (see {@link utils.SnapshotOutput}), so loading a snapshot
+ * involves no date formatting or delimiter splitting.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see interfaces.services.DataServiceable
+ * @see utils.ExportBatch
+ * @see utils.SnapshotInput
+ * @see utils.SnapshotOutput
+ */
+public class SnapshotDataService implements DataServiceable {
+
+	private static final int MAGIC = 0x43414D53;
+
+	private static final int VERSION = 1;
+
+	private static final CampDao campDao = new CampDaoImpl();
+
+	private static final StaffDao staffDao = new StaffDaoImpl();
+
+	private static final StudentDao studentDao = new StudentDaoImpl();
+
+	private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
+    /**
+     * Writes the whole data set to a snapshot file.
+     * Nothing is written if no record has been marked dirty since the last export.
+     *
+     * @param filePath The path for the snapshot to be written to.
+     */
+	public void exporting(String filePath) {
+
+		if (!campDao.isDirty() && !staffDao.isDirty() && !studentDao.isDirty() && !committeeMemberDao.isDirty())
+			return;
+
+		Set<String> dirtyCamps = campDao.takeDirty();
+		Set<String> dirtyStaffs = staffDao.takeDirty();
+		Set<String> dirtyStudents = studentDao.takeDirty();
+		Set<String> dirtyCommitteeMembers = committeeMemberDao.takeDirty();
+
+		SnapshotOutput out = new SnapshotOutput();
+		out.writeFixedInt(MAGIC);
+		out.writeVarint(VERSION);
+		out.writeVarint(Enquiry.getEnquiryCounter());
+		out.writeVarint(Suggestion.getSuggestionCounter());
+
+		// Copy each map's values first, so the count written matches the records that follow it,
+		// and write each record under its own lock, so it is not caught half way through a change
+		ArrayList<Staff> staffData = new ArrayList<Staff>(staffDao.getStaffs().values());
+		out.writeVarint(staffData.size());
+		for (Staff staff : staffData) {
+			synchronized (staff) {
+				writeUser(out, staff.getUserID(), staff.getPassword(), staff.getName(), staff.getFaculty());
+				out.writeStrings(staff.getCreatedCamps());
+			}
+		}
+
+		ArrayList<Student> studentData = new ArrayList<Student>(studentDao.getStudents().values());
+		out.writeVarint(studentData.size());
+		for (Student student : studentData) {
+			synchronized (student) {
+				writeStudent(out, student);
+			}
+		}
+
+		ArrayList<CommitteeMember> committeeMemberData = new ArrayList<CommitteeMember>(committeeMemberDao.getCommitteeMembers().values());
+		out.writeVarint(committeeMemberData.size());
+		for (CommitteeMember committeeMember : committeeMemberData) {
+			synchronized (committeeMember) {
+				writeStudent(out, committeeMember);
+				out.writeString(committeeMember.getFacilitatingCamp());
+				out.writeInts(committeeMember.getSuggestions());
+				out.writeSignedVarint(committeeMember.getPoints());
+			}
+		}
+
+		ArrayList<Camp> campData = new ArrayList<Camp>(campDao.getCamps().values());
+		out.writeVarint(campData.size());
+		for (Camp camp : campData) {
+			synchronized (camp) {
+				writeCamp(out, camp);
+			}
+		}
+
+		CRC32 crc = new CRC32();
+		try (OutputStream file = ExportBatch.newOutputStream(filePath)) {
+			out.writeTo(new CheckedOutputStream(file, crc));
+			SnapshotOutput trailer = new SnapshotOutput();
+			trailer.writeFixedInt((int) crc.getValue());
+			trailer.writeTo(file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			dirtyCamps.forEach(campDao::markDirty);
+			dirtyStaffs.forEach(staffDao::markDirty);
+			dirtyStudents.forEach(studentDao::markDirty);
+			dirtyCommitteeMembers.forEach(committeeMemberDao::markDirty);
+		}
+	}
+
+    /**
+     * Loads the whole data set from a snapshot file into the DAOs.
+     *
+     * @param filePath The path of the snapshot to be read.
+     *
+     * @throws IllegalStateException if the snapshot is corrupt or of an unknown version.
+     */
+	public void importing(String filePath) {
+
+		byte[] data;
+		try {
+			data = Files.readAllBytes(Paths.get(filePath));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return;
+		}
+
+		try {
+			if (data.length < 8)
+				throw new IOException("Snapshot too short");
+
+			CRC32 crc = new CRC32();
+			crc.update(data, 0, data.length - 4);
+			if (new SnapshotInput(data, data.length - 4, data.length).readFixedInt() != (int) crc.getValue())
+				throw new IOException("Snapshot checksum mismatch");
+
+			SnapshotInput in = new SnapshotInput(data, 0, data.length - 4);
+			if (in.readFixedInt() != MAGIC)
+				throw new IOException("Not a CAMs snapshot");
+			int version = in.readVarint();
+			if (version != VERSION)
+				throw new IOException("Unsupported snapshot version " + version);
+
+			Enquiry.setEnquiryCounter(in.readVarint());
+			Suggestion.setSuggestionCounter(in.readVarint());
+
+			Map<String, Staff> staffData = staffDao.getStaffs();
+			for (int i = in.readVarint(); i > 0; i--) {
+				String userID = UserIdDictionary.canonical(in.readString()), password = in.readString(), name = in.readString(), faculty = in.readString();
+				staffData.put(userID, new Staff(userID, password, name, faculty, in.readStrings()));
+			}
+
+			Map<String, Student> studentData = studentDao.getStudents();
+			for (int i = in.readVarint(); i > 0; i--) {
+				String userID = UserIdDictionary.canonical(in.readString()), password = in.readString(), name = in.readString(), faculty = in.readString();
+				studentData.put(userID, new Student(userID, password, name, faculty, in.readStrings(), readEnquiryIDs(in)));
+			}
+
+			Map<String, CommitteeMember> committeeMemberData = committeeMemberDao.getCommitteeMembers();
+			for (int i = in.readVarint(); i > 0; i--) {
+				String userID = UserIdDictionary.canonical(in.readString()), password = in.readString(), name = in.readString(), faculty = in.readString();
+				ArrayList<String> registeredCamps = in.readStrings();
+				Map<String, ArrayList<Integer>> enquiries = readEnquiryIDs(in);
+				String facilitatingCamp = in.readString();
+				ArrayList<Integer> suggestions = in.readInts();
+				int points = in.readSignedVarint();
+				committeeMemberData.put(userID, new CommitteeMember(userID, password, name, faculty, registeredCamps,
+						enquiries, facilitatingCamp, suggestions, points));
+			}
+
+			Map<String, Camp> campData = campDao.getCamps();
+			for (int i = in.readVarint(); i > 0; i--) {
+				Camp camp = readCamp(in);
+				campData.put(camp.getName(), camp);
+				campDao.index(camp);
+			}
+
+			if (!in.atEnd())
+				throw new IOException("Unexpected data after the last camp");
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to read " + filePath + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Writes the fields shared by every user.
+	 *
+	 * @param out The snapshot being written.
+	 * @param userID The user's ID.
+	 * @param password The user's password.
+	 * @param name The user's name.
+	 * @param faculty The user's faculty.
+	 */
+	private static void writeUser(SnapshotOutput out, String userID, String password, String name, String faculty) {
+
+		out.writeString(userID);
+		out.writeString(password);
+		out.writeString(name);
+		out.writeString(faculty);
+	}
+
+	/**
+	 * Writes the fields shared by students and committee members.
+	 *
+	 * @param out The snapshot being written.
+	 * @param student The student to be written.
+	 */
+	private static void writeStudent(SnapshotOutput out, Student student) {
+
+		writeUser(out, student.getUserID(), student.getPassword(), student.getName(), student.getFaculty());
+		out.writeStrings(student.getRegisteredCamps());
+		out.writeVarint(student.getEnquiries().size());
+		for (Map.Entry<String, ArrayList<Integer>> campEnquiries : student.getEnquiries().entrySet()) {
+			out.writeString(campEnquiries.getKey());
+			out.writeInts(campEnquiries.getValue());
+		}
+	}
+
+	/**
+	 * Reads a map of camp names to the IDs of the enquiries made about them.
+	 *
+	 * @param in The snapshot being read.
+	 *
+	 * @return The enquiry IDs by camp name.
+	 *
+	 * @throws IOException if the snapshot is truncated.
+	 */
+	private static Map<String, ArrayList<Integer>> readEnquiryIDs(SnapshotInput in) throws IOException {
+
+		int count = in.readVarint();
+		Map<String, ArrayList<Integer>> enquiries = new HashMap<String, ArrayList<Integer>>();
+		for (int i = 0; i < count; i++)
+			enquiries.put(in.readString(), in.readInts());
+		return enquiries;
+	}
+
+	/**
+	 * Writes a camp, including its enquiries and suggestions.
+	 *
+	 * @param out The snapshot being written.
+	 * @param camp The camp to be written.
+	 */
+	private static void writeCamp(SnapshotOutput out, Camp camp) {
+
+		out.writeString(camp.getName());
+		int[] epochDays = camp.getEpochDays();
+		out.writeVarint(epochDays.length);
+		for (int epochDay : epochDays)
+			out.writeSignedVarint(epochDay);
+		out.writeSignedVarint(camp.getRegistrationClosingDay());
+		out.writeString(camp.getOpenTo());
+		out.writeString(camp.getLocation());
+		out.writeVarint(camp.getTotalSlots());
+		out.writeVarint(camp.getCommitteeSlots());
+		out.writeString(camp.getDescription());
+		out.writeString(camp.getStaffInCharge());
+		out.writeStrings(camp.getAttendees());
+		out.writeStrings(camp.getWithdrawnAttendees());
+		out.writeStrings(camp.getCommitteeMembers());
+		out.writeByte(camp.getVisibility() == Visibility.ON ? 1 : 0);
+
+		out.writeVarint(camp.getEnquiries().size());
+		for (Enquiry enquiry : camp.getEnquiries().values()) {
+			out.writeVarint(enquiry.getEnquiryID());
+			out.writeNullableString(enquiry.getEnquiry());
+			out.writeNullableString(enquiry.getEnquirer());
+			out.writeNullableString(enquiry.getReplier());
+			out.writeNullableString(enquiry.getReply());
+		}
+
+		out.writeVarint(camp.getSuggestions().size());
+		for (Suggestion suggestion : camp.getSuggestions().values()) {
+			out.writeVarint(suggestion.getSuggestionID());
+			out.writeNullableString(suggestion.getSuggestion());
+			out.writeNullableString(suggestion.getSuggester());
+			out.writeByte(suggestion.getApproved() ? 1 : 0);
+		}
+	}
+
+	/**
+	 * Reads a camp, including its enquiries and suggestions.
+	 *
+	 * @param in The snapshot being read.
+	 *
+	 * @return The camp read.
+	 *
+	 * @throws IOException if the snapshot is truncated.
+	 */
+	private static Camp readCamp(SnapshotInput in) throws IOException {
+
+		String name = in.readString();
+		int dateCount = in.readVarint();
+		int[] epochDays = new int[dateCount];
+		for (int i = 0; i < dateCount; i++)
+			epochDays[i] = in.readSignedVarint();
+		int registrationClosingDay = in.readSignedVarint();
+		String openTo = in.readString();
+		String location = in.readString();
+		int totalSlots = in.readVarint();
+		int committeeSlots = in.readVarint();
+		String description = in.readString();
+		String staffInCharge = in.readString();
+		UserIdSet attendees = new UserIdSet(in.readStrings());
+		UserIdSet withdrawnAttendees = new UserIdSet(in.readStrings());
+		UserIdSet committeeMembers = new UserIdSet(in.readStrings());
+		Visibility visibility = in.readByte() == 1 ? Visibility.ON : Visibility.OFF;
+
+		Map<Integer, Enquiry> enquiries = new HashMap<Integer, Enquiry>();
+		for (int i = in.readVarint(); i > 0; i--) {
+			int enquiryID = in.readVarint();
+			String enquiry = in.readNullableString(), enquirer = in.readNullableString();
+			String replier = in.readNullableString(), reply = in.readNullableString();
+			enquiries.put(enquiryID, new Enquiry(enquiryID, enquiry, enquirer, replier, reply));
+		}
+
+		Map<Integer, Suggestion> suggestions = new HashMap<Integer, Suggestion>();
+		for (int i = in.readVarint(); i > 0; i--) {
+			int suggestionID = in.readVarint();
+			String suggestion = in.readNullableString(), suggester = in.readNullableString();
+			suggestions.put(suggestionID, new Suggestion(suggestionID, suggestion, suggester, in.readByte() == 1));
+		}
+
+		return new Camp(name, epochDays, registrationClosingDay, openTo, location, totalSlots, committeeSlots, description,
+				staffInCharge, attendees, withdrawnAttendees, committeeMembers, enquiries, suggestions, visibility);
+	}
+}
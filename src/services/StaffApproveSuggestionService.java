@@ -1,7 +1,6 @@
 package services;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 
 import dao.CampDaoImpl;
@@ -12,6 +11,7 @@ import interfaces.dao.CampDao;
 import interfaces.dao.CommitteeMemberDao;
 import interfaces.dao.CurrentUserDao;
 import interfaces.services.ApproveSuggestionServiceable;
+import interfaces.services.JournalServiceable;
 
 import models.Camp;
 import models.CommitteeMember;
@@ -58,6 +58,11 @@ public class StaffApproveSuggestionService implements ApproveSuggestionServiceab
      * The data access object for managing the current user.
      */
     private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
+    /**
+     * The journal service for recording approvals and points.
+     */
+    private static final JournalServiceable journalService = new JournalService();
     
     /**
      * Approves or rejects suggestions related to camps managed by the current staff member.
@@ -72,16 +77,10 @@ public class StaffApproveSuggestionService implements ApproveSuggestionServiceab
         Staff currentUser = (Staff) currentUserDao.getCurrentUser();
         ArrayList<Integer> validSuggestionIDList = new ArrayList<>();
         Map<String, CommitteeMember> committeeMemberData = committeeMemberDao.getCommitteeMembers();
-        Map<Integer, Camp> suggestionIDToCampMap = new HashMap<Integer, Camp>();
         
         for (String campName : currentUser.getCreatedCamps()) {
-        	camp = campDao.getCamps().get(campName);
-        	for (Suggestion suggestion : camp.getSuggestions().values()) {
-        		suggestionIDToCampMap.put(suggestion.getSuggestionID(), camp);
-        		if (suggestion.getApproved()) continue;
-
+        	for (Suggestion suggestion : campDao.getPendingSuggestions(campName))
         		validSuggestionIDList.add(suggestion.getSuggestionID());
-        	}
         }
         
 		if (validSuggestionIDList.size() == 0) {
@@ -106,8 +105,13 @@ public class StaffApproveSuggestionService implements ApproveSuggestionServiceab
     		PrintUtil.invalid("choice");
 		} while (true);
         
-        camp = suggestionIDToCampMap.get(suggestionID);
-        selectedSuggestion = camp.getSuggestions().get(suggestionID);
+        // The suggestion, or its camp, may have been deleted in another session since the list was shown
+        camp = campDao.getCampBySuggestionID(suggestionID);
+        selectedSuggestion = camp == null ? null : camp.getSuggestions().get(suggestionID);
+        if (selectedSuggestion == null) {
+            System.out.println("\n> Suggestion no longer exists");
+            return;
+        }
         committeeMember = committeeMemberData.get(selectedSuggestion.getSuggester());
 		System.out.println();
 		System.out.printf("%-15s: %s\n","Camp" , camp.getName());
@@ -121,8 +125,28 @@ public class StaffApproveSuggestionService implements ApproveSuggestionServiceab
 			choice = InputUtil.choice();
     		switch (choice) {
 			case 1:
-				selectedSuggestion.setApproved(true);
-				committeeMember.setPoints(committeeMember.getPoints() + 1);
+				synchronized (camp) {
+					// Another staff member may have approved it, or its suggester deleted it, since it was listed
+					Suggestion heldSuggestion = camp.getSuggestions().get(suggestionID);
+					if (heldSuggestion != selectedSuggestion) {
+						System.out.println("\n> Suggestion has been deleted");
+						return;
+					}
+					if (selectedSuggestion.getApproved()) {
+						System.out.println("\n> Suggestion has already been approved");
+						return;
+					}
+
+					selectedSuggestion.setApproved(true);
+					campDao.removePendingSuggestion(camp.getName(), suggestionID);
+					journalService.recordSuggestion(camp, selectedSuggestion);
+
+					synchronized (committeeMember) {
+						committeeMember.setPoints(committeeMember.getPoints() + 1);
+						journalService.recordPoints(committeeMember);
+					}
+				}
+				journalService.commit();
 				System.out.println("\n> Suggestion approved");
 				return;
 			case 2:
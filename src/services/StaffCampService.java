@@ -1,7 +1,7 @@
 package services;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.Map;
 
 import dao.CampDaoImpl;
@@ -9,11 +9,11 @@ import dao.CurrentUserDaoImpl;
 import interfaces.dao.CampDao;
 import interfaces.dao.CurrentUserDao;
 import interfaces.services.CampServiceable;
+import interfaces.services.JournalServiceable;
 
 import models.Camp;
 import models.Staff;
 
-import utils.DateUtil;
 import utils.InputUtil;
 import utils.PrintUtil;
 
@@ -49,6 +49,11 @@ public class StaffCampService implements CampServiceable {
      */
 	private static final CampDao campDao = new CampDaoImpl();
 
+	/**
+	 * The journal service for recording camp changes.
+	 */
+	private static final JournalServiceable journalService = new JournalService();
+
     /**
      * Creates a new camp based on user input and adds it to the list of camps managed by the current staff member.
      *
@@ -68,19 +73,32 @@ public class StaffCampService implements CampServiceable {
 		ArrayList<String> createdCampNameList = currentUser.getCreatedCamps();
         Map<String, Camp> campData = campDao.getCamps();
         String name = enterName();
-        ArrayList<GregorianCalendar> dates = enterDates();
-        GregorianCalendar registrationClosingDate = enterRegistrationClosingDate();
+        int[] epochDays = enterDates();
+        LocalDate registrationClosingDate = enterRegistrationClosingDate();
         String openTo = enterOpenTo();
         String location = enterLocation();
         int totalSlots = enterTotalSlots();
         int committeeSlots = enterCommitteeSlots(totalSlots, 0);
         String description = enterDescription();
         String staffInCharge = currentUserDao.getCurrentUser().getUserID();
-        Camp camp = new Camp(name, dates, registrationClosingDate, openTo, location,
+        Camp camp = new Camp(name, epochDays, (int) registrationClosingDate.toEpochDay(), openTo, location,
         		totalSlots, committeeSlots, description, staffInCharge);
         
-        campData.put(name, camp);
-		createdCampNameList.add(name);
+        // Another staff member may have taken the name while this one was being entered
+        if (campData.putIfAbsent(name, camp) != null) {
+        	System.out.println("\n> A camp named " + name + " already exists");
+        	return;
+        }
+        campDao.index(camp);
+        journalService.recordCamp(name);
+
+        synchronized (currentUser) {
+        	createdCampNameList = new ArrayList<String>(currentUser.getCreatedCamps());
+        	createdCampNameList.add(name);
+        	currentUser.setCreatedCamps(createdCampNameList);
+        	journalService.recordUser(currentUser);
+        }
+        journalService.commit();
 		
 		System.out.println("\n> Camp created");
     }
@@ -119,9 +137,25 @@ public class StaffCampService implements CampServiceable {
 			PrintUtil.invalid("choice");
 		} while (true);
         
-        if (validateDelete(selectedCamp)) {
-        	campData.remove(selectedCampName);
-			createdCampNames.remove(selectedCampName);
+        // Validate and remove under the camp's lock, so no student can register in between
+        boolean deleted = false;
+        synchronized (selectedCamp) {
+        	if (validateDelete(selectedCamp) && campData.remove(selectedCampName, selectedCamp)) {
+        		campDao.unindex(selectedCampName);
+        		journalService.recordCamp(selectedCampName);
+
+        		synchronized (currentUser) {
+        			createdCampNames = new ArrayList<String>(currentUser.getCreatedCamps());
+        			createdCampNames.remove(selectedCampName);
+        			currentUser.setCreatedCamps(createdCampNames);
+        			journalService.recordUser(currentUser);
+        		}
+        		deleted = true;
+        	}
+        }
+        
+        if (deleted) {
+        	journalService.commit();
         	System.out.println("\n> " + selectedCampName + " successfully deleted");
         	return;
         }
@@ -146,7 +180,7 @@ public class StaffCampService implements CampServiceable {
         int i = 0, choice;
         String selectedCampName;
         Camp selectedCamp;
-        GregorianCalendar newRegistrationClosingDate;
+        LocalDate newRegistrationClosingDate;
         String newOpenTo;
         String newLocation;
         int newTotalSlots;
@@ -190,37 +224,65 @@ public class StaffCampService implements CampServiceable {
                 case 1:
                     System.out.println("Current registration closing date: " + selectedCamp.getRegistrationClosingDate());
                     newRegistrationClosingDate = enterRegistrationClosingDate();
-                    selectedCamp.setRegistrationClosingDate(newRegistrationClosingDate);
+                    synchronized (selectedCamp) {
+                        selectedCamp.setRegistrationClosingDate(newRegistrationClosingDate);
+                        campDao.index(selectedCamp);
+                        journalService.recordCampField(selectedCamp, "registrationClosingDate");
+                    }
+                    journalService.commit();
                     System.out.println("Registration closing date updated");       
                     break;
                 case 2:
                     System.out.println("Current user group: " + selectedCamp.getOpenTo());
                     newOpenTo = enterOpenTo();
-                    selectedCamp.setOpenTo(newOpenTo);
+                    synchronized (selectedCamp) {
+                        selectedCamp.setOpenTo(newOpenTo);
+                        campDao.index(selectedCamp);
+                        journalService.recordCampField(selectedCamp, "openTo");
+                    }
+                    journalService.commit();
                     System.out.println("User group updated");
                     break;
                 case 3:
                     System.out.println("Current location: " + selectedCamp.getLocation());
                     newLocation = enterLocation();
-                    selectedCamp.setLocation(newLocation);
+                    synchronized (selectedCamp) {
+                        selectedCamp.setLocation(newLocation);
+                        campDao.index(selectedCamp);
+                        journalService.recordCampField(selectedCamp, "location");
+                    }
+                    journalService.commit();
                     System.out.println("Location Updated");
                     break;
                 case 4:
                     System.out.println("Current total slots: " + selectedCamp.getTotalSlots());
                     newTotalSlots = enterTotalSlots();
-                    selectedCamp.setTotalSlots(newTotalSlots);
+                    synchronized (selectedCamp) {
+                        selectedCamp.setTotalSlots(newTotalSlots);
+                        journalService.recordCampField(selectedCamp, "totalSlots");
+                    }
+                    journalService.commit();
                     System.out.println("Total slots updated");
                     break;
                 case 5:
                     System.out.println("Current camp committee slots: " + selectedCamp.getCommitteeSlots());
-                    newCommitteeSlots = enterCommitteeSlots(selectedCamp.getTotalSlots(), selectedCamp.getCommitteeMembers().size());
-                    selectedCamp.setCommitteeSlots(newCommitteeSlots);
+                    newCommitteeSlots = enterCommitteeSlots(selectedCamp.getTotalSlots(),
+                    		selectedCamp.getCommitteeSlots() - selectedCamp.getRemainingCommitteeSlots());
+                    synchronized (selectedCamp) {
+                        selectedCamp.setCommitteeSlots(newCommitteeSlots);
+                        journalService.recordCampField(selectedCamp, "committeeSlots");
+                    }
+                    journalService.commit();
                     System.out.println("Camp committee slots updated");
                     break;
                 case 6:
                     System.out.println("Current camp description: " + selectedCamp.getDescription());
                     newDescription = enterDescription();
-                    selectedCamp.setDescription(newDescription);
+                    synchronized (selectedCamp) {
+                        selectedCamp.setDescription(newDescription);
+                        journalService.recordCampField(selectedCamp, "description");
+                    }
+                    journalService.commit();
                     System.out.println("Camp description updated");
                     break;
                 case 7:
@@ -253,27 +315,24 @@ public class StaffCampService implements CampServiceable {
     /**
      * Prompts the user to enter the starting date and the number of days the camp is held.
      *
-     * @return A list of Gregorian calendar dates representing the range of camp dates.
-     * @see #getDateRange(GregorianCalendar, int)
+     * @return The consecutive days the camp is held, in ascending order, as epoch days.
      * @see utils.InputUtil#nextInt(String)
      */
-    private static ArrayList<GregorianCalendar> enterDates() {
+    private static int[] enterDates() {
     	
     	int numOfDays;
-    	String startDateStr;
-    	GregorianCalendar startDate;
-    	GregorianCalendar today = new GregorianCalendar();
+    	LocalDate startDate;
+    	LocalDate today = LocalDate.now();
     	
     	do {
-    		startDateStr = InputUtil.nextString("Enter starting camp date (YYYY-MM-DD)");
     		try {
-    			startDate = DateUtil.toDate(startDateStr);
+    			startDate = LocalDate.parse(InputUtil.nextString("Enter starting camp date (YYYY-MM-DD)"));
     		} catch (Exception e) {
 				PrintUtil.invalid("input");
     			continue;
 			}
     		
-    		if (DateUtil.toString(today).compareTo(startDateStr) < 0) {
+    		if (today.isBefore(startDate)) {
     			break;
     		}
 
@@ -287,33 +346,12 @@ public class StaffCampService implements CampServiceable {
 				continue;
 			}
 
-			ArrayList<GregorianCalendar> dates = getDateRange(startDate, numOfDays);
-			return dates;    	
+			int[] epochDays = new int[numOfDays];
+			for (int i = 0; i < numOfDays; i++)
+				epochDays[i] = (int) startDate.toEpochDay() + i;
+			return epochDays;
 		} while (true);
     }
-    
-    /**
-     * Retrieves a date range based on the starting date and the number of days the camp is held.
-     *
-     * @param startDate The starting date of the camp.
-     * @param numOfDays The number of days the camp is held.
-     *
-     * @return A list of Gregorian calendar dates representing the range of camp dates.
-     */
-    private static ArrayList<GregorianCalendar> getDateRange(GregorianCalendar startDate, int numOfDays) {
-    	
-        ArrayList<GregorianCalendar> dateRange = new ArrayList<GregorianCalendar>();
-        GregorianCalendar currentDate = new GregorianCalendar(startDate.get(GregorianCalendar.YEAR),
-                startDate.get(GregorianCalendar.MONTH), startDate.get(GregorianCalendar.DAY_OF_MONTH));
-
-        for (int i = 0; i < numOfDays; i++) {
-            dateRange.add(new GregorianCalendar(currentDate.get(GregorianCalendar.YEAR),
-                    currentDate.get(GregorianCalendar.MONTH), currentDate.get(GregorianCalendar.DAY_OF_MONTH)));
-            currentDate.add(GregorianCalendar.DAY_OF_MONTH, 1);
-        }
-        
-        return dateRange;
-    }
 
     /**
      * Prompts the user to enter the registration closing date for the camp.
@@ -321,22 +359,20 @@ public class StaffCampService implements CampServiceable {
      * @return The registration closing date entered by the user.
      * @see utils.InputUtil#nextString(String)
      */
-    private static GregorianCalendar enterRegistrationClosingDate() {
+    private static LocalDate enterRegistrationClosingDate() {
 		
-    	String closingDateStr;
-    	GregorianCalendar closingDate;
-    	GregorianCalendar today = new GregorianCalendar();
+    	LocalDate closingDate;
+    	LocalDate today = LocalDate.now();
     	
     	do {
-    		closingDateStr = InputUtil.nextString("Enter registration closing date (YYYY-MM-DD)");
     		try {
-    			closingDate = DateUtil.toDate(closingDateStr);
+    			closingDate = LocalDate.parse(InputUtil.nextString("Enter registration closing date (YYYY-MM-DD)"));
     		} catch (Exception e) {
 				PrintUtil.invalid("input");
     			continue;
 			}
     		
-    		if (DateUtil.toString(today).compareTo(closingDateStr) < 0) {
+    		if (today.isBefore(closingDate)) {
     			return closingDate;
     		}
     		
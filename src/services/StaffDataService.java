@@ -1,13 +1,12 @@
 package services;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import dao.StaffDaoImpl;
 
@@ -16,6 +15,10 @@ import interfaces.dao.StaffDao;
 
 import models.Staff;
 
+import utils.CsvTokenizer;
+import utils.ExportBatch;
+import utils.MappedCsvReader;
+
 /**
  * The {@code StaffDataService} class provides methods for exporting staff data to a file and importing staff data from a file.
  * It implements the {@code DataServiceable} interface to support data import and export operations.
@@ -32,14 +35,17 @@ import models.Staff;
 public class StaffDataService implements DataServiceable {
 
 	private static final StaffDao staffDao = new StaffDaoImpl();
+
 	
     /**
      * Exports staff data to a specified file path.
      * The exported file contains a header line and data lines with staff details.
+     * Nothing is written if no staff member has been marked dirty since the last export,
+     * and otherwise every row is rendered from the staff members as they are now.
      *
      * @param filePath The path for the file to be exported to.
      * @see java.io.BufferedWriter
-     * @see java.io.FileWriter
+     * @see utils.ExportBatch
      * @see java.io.IOException
      * @see models.Staff
      * @see interfaces.dao.StaffDao
@@ -49,36 +55,53 @@ public class StaffDataService implements DataServiceable {
 	public void exporting (String filePath) {
 
         Map<String, Staff> staffDataMap = staffDao.getStaffs();
+        Set<String> dirty = staffDao.takeDirty();
+        if (dirty.isEmpty()) return;
 
-		try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+		try (BufferedWriter bw = ExportBatch.newWriter(filePath)) {
             // Write header line
             bw.write("Name,Email,Faculty,Password,createdCamps");
             bw.newLine();
 
-            // Iterate through the studentDataMap and write each student's data to the file
-            for (Map.Entry<String, Staff> entry : staffDataMap.entrySet()) {
-                Staff staff = entry.getValue();
-
-				String createdCampsString;
-				if (staff.getCreatedCamps().isEmpty()) {
-					createdCampsString = "#NULL!";
-				} else {
-					createdCampsString = String.join("|", staff.getCreatedCamps());
-				}
-
-                // Write data fields separated by commas
-                bw.write(staff.getName() + ","
-                        + staff.getUserID() + "@ntu.edu.sg,"
-                        + staff.getFaculty() + ","
-                        + staff.getPassword() + ","
-                        + createdCampsString);
+            // Write every row, rendered from the staff member as it is now rather than kept from the last export
+            for (Staff staff : staffDataMap.values()) {
+                String row;
+                // Hold the staff member's lock, so the row is not caught half way through a change
+                synchronized (staff) {
+                    row = render(staff);
+                }
+                bw.write(row);
                 bw.newLine();
             }
-
         } catch (IOException e) {
             e.printStackTrace();
+            dirty.forEach(staffDao::markDirty);
         }
 	}
+
+    /**
+     * Builds the StaffList.csv row of a staff member.
+     *
+     * @param staff The staff member to be written.
+     *
+     * @return The row, without a line terminator.
+     */
+    static String render(Staff staff) {
+
+		String createdCampsString;
+		if (staff.getCreatedCamps().isEmpty()) {
+			createdCampsString = "#NULL!";
+		} else {
+			createdCampsString = String.join("|", staff.getCreatedCamps());
+		}
+
+        // Join data fields with commas
+        return CsvTokenizer.escape(staff.getName()) + ","
+                + staff.getUserID() + "@ntu.edu.sg,"
+                + staff.getFaculty() + ","
+                + CsvTokenizer.escape(staff.getPassword()) + ","
+                + CsvTokenizer.escape(createdCampsString);
+	}
 	
     /**
      * Imports staff data from a specified file path.
@@ -86,9 +109,9 @@ public class StaffDataService implements DataServiceable {
      * The data is processed and added to the staff data map.
      *
      * @param filePath The path for the file to be imported from.
-     * @see java.io.BufferedReader
-     * @see java.io.FileReader
+     * @see utils.MappedCsvReader
      * @see java.io.IOException
+     * @see utils.CsvTokenizer
      * @see models.Staff
      * @see interfaces.dao.StaffDao
      * @see dao.StaffDaoImpl
@@ -98,50 +121,43 @@ public class StaffDataService implements DataServiceable {
         StaffDao staffDao = new StaffDaoImpl();
         Map<String, Staff> staffDataMap = staffDao.getStaffs();
 
+		try {
+            ByteBuffer data = MappedCsvReader.read(filePath);
+            CsvTokenizer header = new CsvTokenizer(data.duplicate());
 
-		try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int rowNumber = 0;
-
-            while ((line = br.readLine()) != null) {
-                rowNumber++;
-
-                // Check if this is the second row
-                if (rowNumber >= 2) {
-                    // Split the line into fields based on the comma separator
-                    String[] fields = line.split(",");
-
-                    // Ensure that there are enough fields to extract the email
-                    if (fields.length > 1) {
-                        
-						String name = fields[0];
-                        String email = fields[1];
-						String faculty = fields[2];
-						String password = fields[3];
-						
-						String username = email.substring(0, email.indexOf('@'));
-						
-						String createdCampsString = fields[4];
-						ArrayList<String> createdCamps = new ArrayList<String>();
-
-						if (!createdCampsString.equals("#NULL!")){
-							if (createdCampsString.contains("|")){
-								createdCamps.addAll(Arrays.asList(createdCampsString.split("\\|")));
-							} else {
-								createdCamps.add(createdCampsString);
-							}
-						}
-
-						Staff staffData = new Staff(username, password, name, faculty, createdCamps);
-			
-						// Put the data into the map with username as key
-						staffDataMap.put(username, staffData);
-                    }
-                }
-            }
+            // Skip the column header
+            header.next();
+
+            // Ensure that there are enough fields to extract the email
+            List<Staff> staffs = MappedCsvReader.parse(data, header.position(), row -> row.fieldCount() <= 1 ? null : parse(row));
+
+			// Put the data into the map with username as key
+            for (Staff staffData : staffs)
+				staffDataMap.put(staffData.getUserID(), staffData);
         } catch (IOException e) {
             e.printStackTrace();
         }
 
 	}
+
+    /**
+     * Builds a staff member from the current record of a StaffList.csv tokenizer.
+     *
+     * @param row The tokenizer positioned at a staff record.
+     *
+     * @return The staff member described by the record.
+     */
+	static Staff parse(CsvTokenizer row) {
+
+		String name = row.field(0);
+		String email = row.field(1);
+		String faculty = row.field(2);
+		String password = row.field(3);
+
+		String username = email.substring(0, email.indexOf('@'));
+
+		ArrayList<String> createdCamps = row.strings(4, '|');
+
+		return new Staff(username, password, name, faculty, createdCamps);
+	}
 }
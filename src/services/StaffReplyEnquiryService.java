@@ -1,8 +1,6 @@
 package services;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 import dao.CampDaoImpl;
 import dao.CurrentUserDaoImpl;
@@ -13,6 +11,7 @@ import interfaces.dao.CampDao;
 import interfaces.dao.CurrentUserDao;
 import interfaces.dao.StaffDao;
 import interfaces.dao.StudentDao;
+import interfaces.services.JournalServiceable;
 import interfaces.services.ReplyEnquiryServiceable;
 
 import models.Camp;
@@ -63,6 +62,11 @@ public class StaffReplyEnquiryService implements ReplyEnquiryServiceable {
      * The data access object for managing the current user.
      */
     public static final CurrentUserDao currentUserDao = new CurrentUserDaoImpl();
+
+    /**
+     * The journal service for recording replies.
+     */
+    private static final JournalServiceable journalService = new JournalService();
     
     /**
      * Allows a staff member to reply to a selected enquiry for a camp they created.
@@ -78,22 +82,14 @@ public class StaffReplyEnquiryService implements ReplyEnquiryServiceable {
     public void reply() {
         
         int i = 0, choice;
-        Camp camp, selectedCamp;
+        Camp selectedCamp;
         Enquiry selectedEnquiry;
         String replyField;
         Staff currentUser = (Staff) currentUserDao.getCurrentUser();
         ArrayList<Enquiry> validEnquiryList = new ArrayList<Enquiry>();
-        Map<Integer, Camp> enquiryIDToCampMap = new HashMap<Integer, Camp>();
         
-        for (String createdCampName : currentUser.getCreatedCamps()) {
-            camp = campDao.getCamps().get(createdCampName);
-            for (Enquiry enquiry : camp.getEnquiries().values()) {
-                if (enquiry.getEnquirer() != null) continue;
-
-                enquiryIDToCampMap.put(enquiry.getEnquiryID(), campDao.getCamps().get(createdCampName));
-                validEnquiryList.add(enquiry);
-            }
-        }
+        for (String createdCampName : currentUser.getCreatedCamps())
+            validEnquiryList.addAll(campDao.getPendingEnquiries(createdCampName));
 
         if (validEnquiryList.size() == 0) {
             System.out.println("\n> No enqury to reply");
@@ -115,7 +111,12 @@ public class StaffReplyEnquiryService implements ReplyEnquiryServiceable {
             }
         } while (true);
 
-        selectedCamp = enquiryIDToCampMap.get(selectedEnquiry.getEnquiryID());
+        // The enquiry, or its camp, may have been deleted in another session since the list was shown
+        selectedCamp = campDao.getCampByEnquiryID(selectedEnquiry.getEnquiryID());
+        if (selectedCamp == null) {
+            System.out.println("\n> Enquiry no longer exists");
+            return;
+        }
         System.out.printf("%-15s: %s\n","Camp" , selectedCamp.getName());
         System.out.printf("%-15s: %s\n","Enquired by" , studentDao.getStudents().get(selectedEnquiry.getEnquirer()).getName());
         System.out.printf("%-15s: %s\n","Enquiry" , selectedEnquiry.getEnquiry());
@@ -126,8 +127,19 @@ public class StaffReplyEnquiryService implements ReplyEnquiryServiceable {
             PrintUtil.invalid("input");
         } while (true);
 
-        selectedEnquiry.setReply(replyField);
-        selectedEnquiry.setReplier(currentUser.getName());
+        synchronized (selectedCamp) {
+            // Another staff member or a committee member may have replied while this reply was typed
+            if (!selectedCamp.isAwaitingReply(selectedEnquiry)) {
+                System.out.println("\n> Enquiry has already been replied to or deleted");
+                return;
+            }
+
+            selectedEnquiry.setReply(replyField);
+            selectedEnquiry.setReplier(currentUser.getName());
+            campDao.removePendingEnquiry(selectedCamp.getName(), selectedEnquiry.getEnquiryID());
+            journalService.recordEnquiry(selectedCamp, selectedEnquiry);
+        }
+        journalService.commit();
         System.out.println("\n> Enquiry replied");
     }
 }
@@ -1,7 +1,6 @@
 package services;
 
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.Map;
 
 import controllers.SessionController;
@@ -19,14 +18,18 @@ import interfaces.dao.CommitteeMemberDao;
 import interfaces.dao.CurrentUserDao;
 import interfaces.dao.StudentDao;
 import interfaces.services.AttendCampServiceable;
+import interfaces.services.JournalServiceable;
 
 import models.Camp;
 import models.CommitteeMember;
+import models.Session;
 import models.Student;
 
 import utils.DateUtil;
+import utils.DaySet;
 import utils.InputUtil;
 import utils.PrintUtil;
+import utils.UserIdSet;
 
 /**
  * The {@code StudentAttendCampService} class provides methods for students to register for and withdraw from camps.
@@ -43,8 +46,10 @@ import utils.PrintUtil;
  * @see dao.StudentDaoImpl
  * @see models.Camp
  * @see models.CommitteeMember
+ * @see models.Session
  * @see models.Student
  * @see utils.DateUtil
+ * @see utils.DaySet
  * @see utils.InputUtil
  * @see utils.PrintUtil
  */
@@ -58,6 +63,8 @@ public class StudentAttendCampService implements AttendCampServiceable {
 
 	private static final CampDao campDao = new CampDaoImpl();
 
+	private static final JournalServiceable journalService = new JournalService();
+
 	/**
      * Allows a student to register for a camp by selecting from the list of valid camps.
      * The student can choose to register as an attendee or committee member based on available slots.
@@ -108,22 +115,32 @@ public class StudentAttendCampService implements AttendCampServiceable {
 
 			choice = InputUtil.choice();
 			if (choice == 1) {
-				if (selectedCamp.getAttendeeSlots() <= selectedCamp.getAttendees().size()) {
+				// Take the slot first, so two sessions cannot both get the last one
+				if (!selectedCamp.reserveAttendeeSlot()) {
 					System.out.println("\n> Attendee Slots are full");
 					return;
 				}
 
-				joinAsAttendee(currentUser, selectedCamp);
+				synchronized (selectedCamp) {
+					if (!joinAsAttendee(currentUser, selectedCamp)) selectedCamp.releaseAttendeeSlot();
+				}
+				journalService.commit();
 				return;
 			}
 
 			if (choice == 2) {
-				if (selectedCamp.getCommitteeSlots() <= selectedCamp.getCommitteeMembers().size()) {
+				if (!selectedCamp.reserveCommitteeSlot()) {
 					System.out.println("\n> Committee Slots are full");
 					return;
 				}
 
-				joinAsCommittee(currentUser, selectedCamp);
+				synchronized (selectedCamp) {
+					if (!joinAsCommittee(currentUser, selectedCamp)) {
+						selectedCamp.releaseCommitteeSlot();
+						return;
+					}
+				}
+				journalService.commit();
 				SessionController.endSession();
 				return;
 			}
@@ -180,15 +197,31 @@ public class StudentAttendCampService implements AttendCampServiceable {
 		if (validateWithdrawingFromCommittee(currentUser, selectedCampName))
 			return;
 
-		registeredCampNames.remove(selectedCampName);
-		currentUser.setRegisteredCamps(registeredCampNames);
+		synchronized (selectedCamp) {
+			synchronized (currentUser) {
+				// The student may have withdrawn in another session since the list was shown
+				if (!currentUser.getRegisteredCamps().contains(selectedCampName)) {
+					System.out.printf("\n> You have already withdrawn from %s\n", selectedCampName);
+					return;
+				}
+
+				registeredCampNames = new ArrayList<String>(currentUser.getRegisteredCamps());
+				registeredCampNames.remove(selectedCampName);
+				currentUser.setRegisteredCamps(registeredCampNames);
+			}
 
-		ArrayList<String> attendees = selectedCamp.getAttendees();
-		ArrayList<String> withdrawnAttendees = selectedCamp.getWithdrawnAttendees();
-		attendees.remove(currentUser.getUserID());
-		withdrawnAttendees.add(currentUser.getUserID());
-		selectedCamp.setAttendees(attendees);
-		selectedCamp.setWithdrawnAttendees(withdrawnAttendees);
+			UserIdSet attendees = new UserIdSet(selectedCamp.getAttendees());
+			UserIdSet withdrawnAttendees = new UserIdSet(selectedCamp.getWithdrawnAttendees());
+			boolean attending = attendees.remove(currentUser.getUserID());
+			withdrawnAttendees.add(currentUser.getUserID());
+			selectedCamp.setAttendees(attendees);
+			selectedCamp.setWithdrawnAttendees(withdrawnAttendees);
+			// Only give back the slot the student actually held
+			if (attending) selectedCamp.releaseAttendeeSlot();
+
+			journalService.recordWithdrawal(selectedCamp, currentUser);
+		}
+		journalService.commit();
 
 		System.out.printf("\n> You have withdrawn from %s\n", selectedCampName);
 	}
@@ -197,6 +230,11 @@ public class StudentAttendCampService implements AttendCampServiceable {
     /**
      * Retrieves a list of valid camps for a student based on various criteria.
      * The method considers factors such as camp visibility, faculty, available slots, registration deadlines, the student's already registered camps, withdrawn camps, facilitating camps (for committee members), and unavailable dates.
+     * Only the visible camps open to the student's faculty are looked at, and dates are compared as epoch days.
+     * 
+     * <p>Slots and deadlines are checked on every call, since they change with other students' registrations and with
+     * the date. The other checks are kept per student, and are made again only when a camp has been added, removed or
+     * re-indexed since, when the student's registered camps have changed, or when the student has become a committee member.</p>
      * 
      * @param user The student object.
 	 * 
@@ -207,28 +245,43 @@ public class StudentAttendCampService implements AttendCampServiceable {
      */
 	private ArrayList<Camp> getValidCamps(Student user) {
 
-		Map<String, Camp> campData = campDao.getCamps();
-		ArrayList<Camp> camps = new ArrayList<>(campData.values());
 		ArrayList<Camp> validCamps = new ArrayList<>();
-		ArrayList<String> registeredCampName = user.getRegisteredCamps();
-		ArrayList<GregorianCalendar> unavailableDates = new ArrayList<>();
 
-		for (String name : registeredCampName)
-			unavailableDates.addAll(campData.get(name).getDates());
-
-		for (Camp camp : camps) {
-			if (camp.getVisibility() == Visibility.OFF)
-			continue;
-			
-			if (compareFaculty(camp.getOpenTo(), user.getFaculty()))
-			continue;
-			
+		for (Camp camp : getCandidateCamps(user)) {
 			if (compareSlots(camp))
 			continue;
 			
-			if (compareDeadline(DateUtil.toString(camp.getRegistrationClosingDate())))
+			if (compareDeadline(camp.getRegistrationClosingDay()))
 			continue;
-			
+
+			validCamps.add(camp);
+		}
+		return validCamps;
+	}
+
+	/**
+	 * Retrieves the visible camps open to a student that the student has not registered for, withdrawn from or been
+	 * made a committee member of, and that do not clash with the student's registered camps.
+	 * The list is kept in the student's session until the camp indexes or the student change.
+	 * 
+	 * @param user The student object.
+	 * 
+	 * @return An ArrayList of camps the student may register for if they have slots and are still open.
+	 */
+	private ArrayList<Camp> getCandidateCamps(Student user) {
+
+		// Read first, so a change made while the list is worked out is not taken to be included
+		long version = campDao.getVersion();
+		ArrayList<String> registeredCampName = user.getRegisteredCamps();
+		CandidateCamps cached = Session.current().getAttribute(CandidateCamps.class);
+		if (cached != null && cached.user == user && cached.registeredCamps == registeredCampName && cached.version == version)
+			return cached.camps;
+
+		ArrayList<Camp> camps = campDao.getVisibleCamps(user.getFaculty());
+		ArrayList<Camp> candidates = new ArrayList<>();
+		DaySet unavailableDays = getOccupiedDays(user);
+
+		for (Camp camp : camps) {
 			if (registeredCampName.contains(camp.getName()))
 			continue;
 			
@@ -238,30 +291,14 @@ public class StudentAttendCampService implements AttendCampServiceable {
 			if (compareFacilitatingCamp(user, camp.getName()))
 			continue;
 			
-			if (compareDates(camp.getDates(), unavailableDates))
+			if (unavailableDays.intersects(camp.getEpochDays()))
 				continue;
 
-			validCamps.add(camp);
+			candidates.add(camp);
 		}
-		return validCamps;
-	}
-
-	/**
-	 * Validates whether the camp is open to the student's faculty.
-	 * 
-	 * @param campFaculty The faculty to which the camp is open.
-	 * @param userFaculty The faculty of the student.
-	 * @return {@code true} if the camp is not open to the student's faculty, {@code false} otherwise.
-	 */
-	private Boolean compareFaculty(String campFaculty, String userFaculty) {
-
-		if (campFaculty.equals("NTU"))
-			return false;
 
-		if (campFaculty.equals(userFaculty))
-			return false;
-
-		return true;
+		Session.current().setAttribute(CandidateCamps.class, new CandidateCamps(user, registeredCampName, version, candidates));
+		return candidates;
 	}
 
 	/**
@@ -272,10 +309,10 @@ public class StudentAttendCampService implements AttendCampServiceable {
 	 */
 	private Boolean compareSlots(Camp camp) {
 
-		if (camp.getAttendees().size() < camp.getAttendeeSlots())
+		if (camp.getRemainingAttendeeSlots() > 0)
 			return false;
 
-		if (camp.getCommitteeMembers().size() < camp.getCommitteeSlots())
+		if (camp.getRemainingCommitteeSlots() > 0)
 			return false;
 
 		return true;
@@ -284,16 +321,14 @@ public class StudentAttendCampService implements AttendCampServiceable {
 	/**
 	 * Validates whether the camp registration deadline has passed.
 	 * 
-	 * @param deadline The registration closing date of the camp.
+	 * @param deadline The registration closing date of the camp, as an epoch day.
 	 * @return {@code true} if the registration deadline has passed, {@code false} otherwise.
 	 * 
 	 * @see utils.DateUtil
 	 */
-	private Boolean compareDeadline(String deadline) {
-
-		GregorianCalendar today = new GregorianCalendar();
+	private Boolean compareDeadline(int deadline) {
 
-		if (DateUtil.toString(today).compareTo(deadline) < 0)
+		if (DateUtil.today() < deadline)
 			return false;
 
 		return true;
@@ -321,77 +356,156 @@ public class StudentAttendCampService implements AttendCampServiceable {
 	}
 
 	/**
-	 * Validates whether the camp dates overlap with any dates the student is unavailable.
+	 * Returns the days on which the student is already at one of their registered camps.
 	 * 
-	 * @param dates The dates of the camp.
-	 * @param unavailableDates The dates on which the student is unavailable.
-	 * @return {@code true} if there is an overlap, {@code false} otherwise.
+	 * <p>The days are kept in the student's session until their registered camps change. Since the list of registered camps is
+	 * replaced rather than changed in place, a cached entry is still valid while it was built from the current list.</p>
 	 * 
-	 * @see utils.DateUtil
+	 * @param user The student object.
+	 * @return The days taken by the student's registered camps.
+	 * 
+	 * @see utils.DaySet
 	 */
-	private Boolean compareDates(ArrayList<GregorianCalendar> dates, ArrayList<GregorianCalendar> unavailableDates) {
+	private DaySet getOccupiedDays(Student user) {
 
-		for (GregorianCalendar date : dates) {
-			for (GregorianCalendar unavailableDate : unavailableDates) {
-				if (DateUtil.toString(date).equals(DateUtil.toString(unavailableDate))) {
-					return true;
-				}
-			}
+		ArrayList<String> registeredCamps = user.getRegisteredCamps();
+		OccupiedDays cached = Session.current().getAttribute(OccupiedDays.class);
+		if (cached != null && cached.registeredCamps == registeredCamps)
+			return cached.days;
+
+		Map<String, Camp> campData = campDao.getCamps();
+		DaySet days = new DaySet();
+		for (String name : registeredCamps) {
+			Camp camp = campData.get(name);
+			if (camp != null) days.addAll(camp.getEpochDays());
 		}
 
-		return false;
+		Session.current().setAttribute(OccupiedDays.class, new OccupiedDays(registeredCamps, days));
+		return days;
 	}
 
 	/**
 	 * Handles the process of a student joining a camp as an attendee.
+	 * The caller holds the camp's lock and has reserved an attendee slot.
 	 * 
 	 * @param user The student object.
 	 * @param camp The camp for which the student is registering.
+	 * 
+	 * @return {@code true} if the student joined the camp, {@code false} if they had already joined it in another session
+	 * 		or it is no longer open to them.
 	 */
-	private void joinAsAttendee(Student user, Camp camp) {
+	private boolean joinAsAttendee(Student user, Camp camp) {
 
-		ArrayList<String> registeredCamps = user.getRegisteredCamps();
-		ArrayList<String> attendees = camp.getAttendees();
+		if (camp.getAttendees().contains(user.getUserID())) {
+			System.out.printf("\n> You have already registered for %s\n", camp.getName());
+			return false;
+		}
+
+		if (!isStillOpen(user, camp)) return false;
 
-		registeredCamps.add(camp.getName());
-		user.setRegisteredCamps(registeredCamps);
+		synchronized (user) {
+			if (clashes(user, camp)) return false;
 
+			ArrayList<String> registeredCamps = new ArrayList<String>(user.getRegisteredCamps());
+			registeredCamps.add(camp.getName());
+			user.setRegisteredCamps(registeredCamps);
+		}
+
+		UserIdSet attendees = new UserIdSet(camp.getAttendees());
 		attendees.add(user.getUserID());
 		camp.setAttendees(attendees);
 
+		journalService.recordRegistration(camp, user);
+
 		System.out.printf("\n> You have registered for %s as an attendee\n", camp.getName());
+		return true;
 	}
 
 	/**
 	 * Handles the process of a student joining a camp as a committee member.
+	 * The caller holds the camp's lock and has reserved a committee slot.
 	 * 
 	 * @param user The student object.
 	 * @param camp The camp for which the student is registering as a committee member.
+	 * 
+	 * @return {@code true} if the student joined the committee, {@code false} otherwise.
 	 */
-	private void joinAsCommittee(Student user, Camp camp) {
+	private boolean joinAsCommittee(Student user, Camp camp) {
 
 		if (user.getRole() == Role.COMMITTEE) {
 			System.out.println("\n> You are already a committee member of another camp");
-			return;
+			return false;
 		}
 
-		CommitteeMember committeeMember = new CommitteeMember(user.getUserID(), user.getPassword(),
-				user.getName(), user.getFaculty(), user.getRegisteredCamps(), user.getEnquiries(),
-				camp.getName(), new ArrayList<>(), 0);
+		if (!isStillOpen(user, camp)) return false;
 
-		Map<String, CommitteeMember> committeeMembersStore = committeeMemberDao.getCommitteeMembers();
-		committeeMembersStore.put(committeeMember.getUserID(), committeeMember);
-		committeeMemberDao.setCommitteeMembers(committeeMembersStore);
+		CommitteeMember committeeMember;
+		synchronized (user) {
+			if (clashes(user, camp)) return false;
 
-		Map<String, Student> studentStore = studentDao.getStudents();
-		studentStore.remove(user.getUserID());
-		studentDao.setStudents(studentStore);
+			// Only one session can move the student into a committee
+			if (!studentDao.getStudents().remove(user.getUserID(), user)) {
+				System.out.println("\n> You are already a committee member of another camp");
+				return false;
+			}
+
+			committeeMember = new CommitteeMember(user.getUserID(), user.getPassword(),
+					user.getName(), user.getFaculty(), user.getRegisteredCamps(), user.getEnquiries(),
+					camp.getName(), new ArrayList<>(), 0);
+			committeeMemberDao.getCommitteeMembers().put(committeeMember.getUserID(), committeeMember);
+		}
 
-		ArrayList<String> committeeMembers = camp.getCommitteeMembers();
+		UserIdSet committeeMembers = new UserIdSet(camp.getCommitteeMembers());
 		committeeMembers.add(committeeMember.getUserID());
 		camp.setCommitteeMembers(committeeMembers);
 
+		journalService.recordCommitteeJoin(camp, committeeMember);
+
 		System.out.printf("\n> You have registered for %s as a committee member\n", camp.getName());
+		return true;
+	}
+
+	/**
+	 * Checks, under the camp's lock, that a camp is still open to a student. The list of valid camps was worked out before
+	 * the lock was taken, and since then the student may have withdrawn from the camp in another session, or the camp may
+	 * have been deleted, hidden, opened to another faculty or closed for registration.
+	 * 
+	 * @param user The student registering.
+	 * @param camp The camp being registered for.
+	 * 
+	 * @return {@code true} if the student may still register for the camp, {@code false}, after telling them, otherwise.
+	 */
+	private boolean isStillOpen(Student user, Camp camp) {
+
+		if (camp.getWithdrawnAttendees().contains(user.getUserID())) {
+			System.out.printf("\n> You have withdrawn from %s and cannot register again\n", camp.getName());
+			return false;
+		}
+
+		boolean openToFaculty = camp.getOpenTo().equals("NTU") || camp.getOpenTo().equals(user.getFaculty());
+		if (campDao.getCamps().get(camp.getName()) != camp || camp.getVisibility() != Visibility.ON || !openToFaculty
+				|| compareDeadline(camp.getRegistrationClosingDay())) {
+			System.out.printf("\n> %s is no longer open for registration\n", camp.getName());
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks, under the student's lock, whether a camp falls on a day the student is already at camp, as it may
+	 * if they registered for another camp in another session after the list of valid camps was worked out.
+	 * 
+	 * @param user The student registering.
+	 * @param camp The camp being registered for.
+	 * 
+	 * @return {@code true}, after telling the student, if the camp clashes, {@code false} otherwise.
+	 */
+	private boolean clashes(Student user, Camp camp) {
+
+		if (!getOccupiedDays(user).intersects(camp.getEpochDays())) return false;
+
+		System.out.printf("\n> %s clashes with a camp you have registered for\n", camp.getName());
+		return true;
 	}
 
 	/**
@@ -415,4 +529,40 @@ public class StudentAttendCampService implements AttendCampServiceable {
 		System.out.printf("\n> Cannot withdraw from %s as a committee member\n", campName);
 		return true;
 	}
+
+	/**
+	 * The days a student is away at camp, with the list of registered camps they were worked out from.
+	 */
+	private static final class OccupiedDays {
+
+		private final ArrayList<String> registeredCamps;
+
+		private final DaySet days;
+
+		OccupiedDays(ArrayList<String> registeredCamps, DaySet days) {
+			this.registeredCamps = registeredCamps;
+			this.days = days;
+		}
+	}
+
+	/**
+	 * The camps a student may register for as far as the slow checks go, with what they were worked out from.
+	 */
+	private static final class CandidateCamps {
+
+		private final Student user;
+
+		private final ArrayList<String> registeredCamps;
+
+		private final long version;
+
+		private final ArrayList<Camp> camps;
+
+		CandidateCamps(Student user, ArrayList<String> registeredCamps, long version, ArrayList<Camp> camps) {
+			this.user = user;
+			this.registeredCamps = registeredCamps;
+			this.version = version;
+			this.camps = camps;
+		}
+	}
 }
@@ -1,10 +1,12 @@
 package services;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import dao.StudentDaoImpl;
 
@@ -13,6 +15,10 @@ import interfaces.dao.StudentDao;
 
 import models.Student;
 
+import utils.CsvTokenizer;
+import utils.ExportBatch;
+import utils.MappedCsvReader;
+
 /**
  * The {@code StudentDataService} class provides functionality to export and import student data to and from a CSV file, respectively.
  * It implements the `DataServiceable` interface.
@@ -29,6 +35,8 @@ public class StudentDataService implements DataServiceable {
 
     /**
      * Exports student data to a CSV file.
+     * Nothing is written if no student has been marked dirty since the last export,
+     * and otherwise every row is rendered from the students as they are now.
      * 
      * @param filePath The path for the file to be exported to.
      * 
@@ -37,54 +45,80 @@ public class StudentDataService implements DataServiceable {
 	public void exporting (String filePath) {
 
         Map<String, Student> studentDataMap = studentDao.getStudents();
+        Set<String> dirty = studentDao.takeDirty();
+        if (dirty.isEmpty()) return;
 
-		try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+		try (BufferedWriter bw = ExportBatch.newWriter(filePath)) {
             // Write header line
             bw.write("Name,Email,Faculty,Password,RegisteredCamps,Enquiries");
             bw.newLine();
 
-            // Iterate through the studentDataMap and write each student's data to the file
-            for (Map.Entry<String, Student> entry : studentDataMap.entrySet()) {
-                Student student = entry.getValue();
-
-				String registeredCampsString;
-				if (student.getRegisteredCamps().isEmpty()) {
-					registeredCampsString = "#NULL!";
-				} else {
-					registeredCampsString = String.join("|", student.getRegisteredCamps());
-				}
-
-                String enquiryString;
-                if (student.getEnquiries().isEmpty()) {
-                    enquiryString = "#NULL!";
-                } else {
-                    // Construct the enquiries string
-                    StringBuilder enquiryStringBuilder = new StringBuilder();
-                    for (Map.Entry<String, ArrayList<Integer>> campEnquiryEntry : student.getEnquiries().entrySet()) {
-                        String campName = campEnquiryEntry.getKey();
-                        ArrayList<Integer> enquiryList = campEnquiryEntry.getValue();
-                        String campEnquiryString = campName + "=" + String.join("|", enquiryList.stream().map(Object::toString).toArray(String[]::new));
-                        enquiryStringBuilder.append(campEnquiryString).append("*");
-                    }
-                
-                    // Remove the trailing asterisk if there are any enquiries
-                    enquiryString = enquiryStringBuilder.length() > 0 ? enquiryStringBuilder.substring(0, enquiryStringBuilder.length() - 1) : "#NULL!";
+            // Write every row, rendered from the student as it is now rather than kept from the last export
+            for (Student student : studentDataMap.values()) {
+                String row;
+                // Hold the student's lock, so the row is not caught half way through a change
+                synchronized (student) {
+                    row = render(student);
                 }
-                                
-                // Write data fields separated by commas
-                bw.write(student.getName() + ","
-                        + student.getUserID() + "@e.ntu.edu.sg,"
-                        + student.getFaculty() + ","
-                        + student.getPassword() + ","
-                        + registeredCampsString + ","
-                        + enquiryString);
+                bw.write(row);
                 bw.newLine();
             }
-
         } catch (IOException e) {
             e.printStackTrace();
+            dirty.forEach(studentDao::markDirty);
         }
 	}
+
+    /**
+     * Builds the StudentList.csv row of a student.
+     *
+     * @param student The student to be written.
+     *
+     * @return The row, without a line terminator.
+     */
+    static String render(Student student) {
+
+		String registeredCampsString;
+		if (student.getRegisteredCamps().isEmpty()) {
+			registeredCampsString = "#NULL!";
+		} else {
+			registeredCampsString = String.join("|", student.getRegisteredCamps());
+		}
+
+        String enquiryString = writeEnquiries(student.getEnquiries());
+
+        // Join data fields with commas
+        return CsvTokenizer.escape(student.getName()) + ","
+                + student.getUserID() + "@e.ntu.edu.sg,"
+                + student.getFaculty() + ","
+                + CsvTokenizer.escape(student.getPassword()) + ","
+                + CsvTokenizer.escape(registeredCampsString) + ","
+                + CsvTokenizer.escape(enquiryString);
+    }
+
+    /**
+     * Writes an enquiries field of the form {@code campName=1|2*campName=3}.
+     *
+     * @param enquiries A map of camp names to the IDs of the enquiries made about them.
+     *
+     * @return The enquiries field, or {@code #NULL!} if there are none.
+     */
+    static String writeEnquiries(Map<String, ArrayList<Integer>> enquiries) {
+
+        if (enquiries.isEmpty()) return "#NULL!";
+
+        // Construct the enquiries string
+        StringBuilder enquiryStringBuilder = new StringBuilder();
+        for (Map.Entry<String, ArrayList<Integer>> campEnquiryEntry : enquiries.entrySet()) {
+            String campName = campEnquiryEntry.getKey();
+            ArrayList<Integer> enquiryList = campEnquiryEntry.getValue();
+            String campEnquiryString = campName + "=" + String.join("|", enquiryList.stream().map(Object::toString).toArray(String[]::new));
+            enquiryStringBuilder.append(campEnquiryString).append("*");
+        }
+
+        // Remove the trailing asterisk if there are any enquiries
+        return enquiryStringBuilder.length() > 0 ? enquiryStringBuilder.substring(0, enquiryStringBuilder.length() - 1) : "#NULL!";
+    }
 	
     /**
      * Imports student data from a CSV file.
@@ -98,93 +132,70 @@ public class StudentDataService implements DataServiceable {
         StudentDao studentDao = new StudentDaoImpl();
         Map<String, Student> studentDataMap = studentDao.getStudents();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            int rowNumber = 0;
-
-            while ((line = br.readLine()) != null) {
-                rowNumber++;
-
-                // Start only from 2nd row, neglecting the column header
-                if (rowNumber >= 2) {
-                    // Split the line into fields based on the comma separator
-                    String[] fields = line.split(",");
-
-                    // Ensure that there are enough fields to extract the email
-                    if (fields.length > 1) {
-						String name = fields[0];
-                        String email = fields[1];
-						String faculty = fields[2];
-						String password = fields[3];
-
-						String username = email.substring(0, email.indexOf('@'));
-
-						//Extract Registered Camp(s)
-						String registeredCampsString = fields[4];
-						//Initialise Array to store Registered Camp(s)
-						ArrayList<String> registeredCamps = new ArrayList<String>();
-
-						//There exist camp(s) registered
-						if (!registeredCampsString.equals("#NULL!")){
-							if (registeredCampsString.contains("|")) {	//registered for > 1 camp
-								registeredCamps.addAll(Arrays.asList(registeredCampsString.split("\\|")));
-							} else {	//registered for 1 camp only
-								registeredCamps.add(registeredCampsString);
-							}
-						}
-
-                        //Extract enquiries
-                        String enquiryString = fields[5];
-
-                        Map<String, ArrayList<Integer>> enquiries = new HashMap<>();
-
-                        if (!enquiryString.equals("#NULL!")){
-
-                            String[] campEnquiries;
-                            if (enquiryString.contains("*")){
-                                // Split the string based on the asterisk "*"
-                                campEnquiries = enquiryString.split("\\*");
-                            } else {
-                                campEnquiries = new String[]{enquiryString};
-                            }
-
-                            for (String campEnquiry : campEnquiries) {
-                                // Split each campEnquiry based on the equal sign "="
-                                String[] parts = campEnquiry.split("=");
-                                    
-                                // Ensure there are enough parts before accessing indices
-                                if (parts.length == 2) {
-                                    // The first part is the camp name, and the second part is the list of integers separated by "|"
-                                    String campName = parts[0].trim();
-
-                                    String[] enquiryValues;
-                                    if (parts[1].contains("|")){
-                                        enquiryValues = parts[1].split("\\|");
-                                    } else {
-                                        enquiryValues = new String[]{parts[1]};
-                                    }
-
-                                    // Convert the values to integers and add to the ArrayList
-                                    ArrayList<Integer> enquiryList = new ArrayList<>();
-                                    for (String value : enquiryValues) {
-                                        enquiryList.add(Integer.parseInt(value));
-                                    }
-
-                                    // Put the campName and enquiryList into the Map
-                                    enquiries.put(campName, enquiryList);
-                                }
-                            }                            
-                        }                        	
-						//Initialising student constructor
-						Student studentData = new Student(username, password, name, faculty, registeredCamps, enquiries);
-
-						// Put the data into the map with username as key
-						studentDataMap.put(username, studentData);
-                    }
-                }
-            }
+        try {
+            ByteBuffer data = MappedCsvReader.read(filePath);
+            CsvTokenizer header = new CsvTokenizer(data.duplicate());
+
+            // Skip the column header
+            header.next();
+
+            // Ensure that there are enough fields to extract the email
+            List<Student> students = MappedCsvReader.parse(data, header.position(), row -> row.fieldCount() <= 1 ? null : parse(row));
+
+            // Put the data into the map with username as key
+            for (Student studentData : students)
+                studentDataMap.put(studentData.getUserID(), studentData);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds a student from the current record of a StudentList.csv tokenizer.
+     *
+     * @param row The tokenizer positioned at a student record.
+     *
+     * @return The student described by the record.
+     */
+    static Student parse(CsvTokenizer row) {
+
+        String name = row.field(0);
+        String email = row.field(1);
+        String faculty = row.field(2);
+        String password = row.field(3);
+
+        String username = email.substring(0, email.indexOf('@'));
+
+        //Extract Registered Camp(s)
+        ArrayList<String> registeredCamps = row.strings(4, '|');
+
+        //Extract enquiries
+        Map<String, ArrayList<Integer>> enquiries = readEnquiries(row.segment(5));
+
+        return new Student(username, password, name, faculty, registeredCamps, enquiries);
+    }
+
+    /**
+     * Reads an enquiries field of the form {@code campName=1|2*campName=3}.
+     *
+     * @param field The segment covering the enquiries field.
+     *
+     * @return A map of camp names to the IDs of the enquiries made about them.
+     */
+    static Map<String, ArrayList<Integer>> readEnquiries(CsvTokenizer.Segment field) {
+
+        Map<String, ArrayList<Integer>> enquiries = new HashMap<>();
+        if (field.isNull()) return enquiries;
+
+        while (field.hasNext()) {
+            CsvTokenizer.Segment campEnquiry = field.next('*');
+
+            // The first part is the camp name, and the second part is the list of integers separated by "|"
+            String campName = campEnquiry.nextString('=').trim();
+            ArrayList<Integer> enquiryList = campEnquiry.ints('|');
+
+            if (!enquiryList.isEmpty()) enquiries.put(campName, enquiryList);
+        }
+        return enquiries;
+    }
+}
@@ -5,7 +5,6 @@ import java.util.HashMap;
 import java.util.Map;
 
 import enums.Role;
-import enums.Visibility;
 
 import dao.CampDaoImpl;
 import dao.CurrentUserDaoImpl;
@@ -13,6 +12,7 @@ import dao.CurrentUserDaoImpl;
 import interfaces.dao.CampDao;
 import interfaces.dao.CurrentUserDao;
 import interfaces.services.EnquiryServiceable;
+import interfaces.services.JournalServiceable;
 
 import models.Camp;
 import models.CommitteeMember;
@@ -38,6 +38,8 @@ public class StudentEnquiryService implements EnquiryServiceable {
 
     private static final CampDao campDao = new CampDaoImpl();
 
+    private static final JournalServiceable journalService = new JournalService();
+
     /**
      * Creates a new enquiry for the current student.
      * The student selects a camp and provides an enquiry message.
@@ -61,13 +63,10 @@ public class StudentEnquiryService implements EnquiryServiceable {
             facilitatingCamp = ((CommitteeMember)currentUser).getFacilitatingCamp();
         }
 
-        for (Camp camp : campData.values()) {
-            if (camp.getVisibility() == Visibility.OFF) continue;
-
+        for (Camp camp : campDao.getVisibleCamps(faculty)) {
             if (camp.getName().equals(facilitatingCamp)) continue;
 
-            if (camp.getOpenTo().equals("NTU") || (camp.getOpenTo().equals(faculty)))
-                validCampList.add(camp.getName());
+            validCampList.add(camp.getName());
         }       
 
         do {
@@ -102,18 +101,28 @@ public class StudentEnquiryService implements EnquiryServiceable {
         } while (true);
 
         newEnquiry = new Enquiry(enquiryField, currentUser.getUserID());
-        enquiryData = selectedCamp.getEnquiries();
-        enquiryData.put(newEnquiry.getEnquiryID(), newEnquiry);
-
-        if (studentEnquiryData.containsKey(selectedCampName)) {
-            studentCampEnquiryList = studentEnquiryData.get(selectedCampName);
-            studentCampEnquiryList.add(newEnquiry.getEnquiryID());
-        } else {
-            studentCampEnquiryList = new ArrayList<>();
-            studentCampEnquiryList.add(newEnquiry.getEnquiryID());
-            studentEnquiryData.put(selectedCampName, studentCampEnquiryList);
+        synchronized (selectedCamp) {
+            enquiryData = new HashMap<Integer, Enquiry>(selectedCamp.getEnquiries());
+            enquiryData.put(newEnquiry.getEnquiryID(), newEnquiry);
+            selectedCamp.setEnquiries(enquiryData);
+            campDao.indexEnquiry(newEnquiry.getEnquiryID(), selectedCampName);
+            campDao.addPendingEnquiry(selectedCampName, newEnquiry.getEnquiryID());
+
+            synchronized (currentUser) {
+                studentEnquiryData = new HashMap<String, ArrayList<Integer>>(currentUser.getEnquiries());
+                if (studentEnquiryData.containsKey(selectedCampName)) {
+                    studentCampEnquiryList = new ArrayList<>(studentEnquiryData.get(selectedCampName));
+                    studentCampEnquiryList.add(newEnquiry.getEnquiryID());
+                } else {
+                    studentCampEnquiryList = new ArrayList<>();
+                    studentCampEnquiryList.add(newEnquiry.getEnquiryID());
+                }
+                studentEnquiryData.put(selectedCampName, studentCampEnquiryList);
+                currentUser.setEnquiries(studentEnquiryData);
+            }
+            journalService.recordEnquiry(selectedCamp, newEnquiry);
         }
-
+        journalService.commit();
         System.out.println("\n> Enquiry created");
     }
 
@@ -131,7 +140,6 @@ public class StudentEnquiryService implements EnquiryServiceable {
         Student currentUser = (Student) currentUserDao.getCurrentUser();
         Map<String, Camp> campData = campDao.getCamps();
         Map<String, ArrayList<Integer>> studentEnquiryData = currentUser.getEnquiries();
-        Map<Integer, Camp> enquiryIDToCampMap = new HashMap<Integer, Camp>();
         ArrayList<Integer> studentAllEnquiryList = new ArrayList<Integer>(), selectedCampStudentEnquiryList;
 
         for (Map.Entry<String, ArrayList<Integer>> entry : studentEnquiryData.entrySet()) {
@@ -140,7 +148,6 @@ public class StudentEnquiryService implements EnquiryServiceable {
             enquiryIDList = entry.getValue();
             for (Integer enquiryID : enquiryIDList) {
                 if (camp.getEnquiries().get(enquiryID).getReplier() != null) continue;
-                enquiryIDToCampMap.put(enquiryID, camp);
                 studentAllEnquiryList.add(enquiryID);
             }
         }
@@ -166,12 +173,37 @@ public class StudentEnquiryService implements EnquiryServiceable {
             }
         } while (true);
         
-        selectedCamp = enquiryIDToCampMap.get(selectedEnquiryID);
-        selectedCamp.getEnquiries().remove(selectedEnquiryID);
+        selectedCamp = campDao.getCampByEnquiryID(selectedEnquiryID);
+        if (selectedCamp == null) {
+            // Its camp was deleted in another session since the list was shown
+            System.out.println("\n> Enquiry no longer exists");
+            return;
+        }
+
+        synchronized (selectedCamp) {
+            // A reply may have arrived since the list was shown
+            if (!selectedCamp.isAwaitingReply(selectedCamp.getEnquiries().get(selectedEnquiryID))) {
+                System.out.println("\n> Enquiry has already been replied to or deleted");
+                return;
+            }
 
-        selectedCampStudentEnquiryList = studentEnquiryData.get(selectedCamp.getName());
-        selectedCampStudentEnquiryList.remove(selectedEnquiryID);
-        if (selectedCampStudentEnquiryList.isEmpty()) studentEnquiryData.remove(selectedCamp.getName());
+            Map<Integer, Enquiry> enquiryData = new HashMap<Integer, Enquiry>(selectedCamp.getEnquiries());
+            Enquiry removedEnquiry = enquiryData.remove(selectedEnquiryID);
+            selectedCamp.setEnquiries(enquiryData);
+            campDao.unindexEnquiry(selectedEnquiryID);
+            campDao.removePendingEnquiry(selectedCamp.getName(), selectedEnquiryID);
+
+            synchronized (currentUser) {
+                studentEnquiryData = new HashMap<String, ArrayList<Integer>>(currentUser.getEnquiries());
+                selectedCampStudentEnquiryList = new ArrayList<Integer>(studentEnquiryData.get(selectedCamp.getName()));
+                selectedCampStudentEnquiryList.remove(selectedEnquiryID);
+                if (selectedCampStudentEnquiryList.isEmpty()) studentEnquiryData.remove(selectedCamp.getName());
+                else studentEnquiryData.put(selectedCamp.getName(), selectedCampStudentEnquiryList);
+                currentUser.setEnquiries(studentEnquiryData);
+            }
+            journalService.recordEnquiryRemoval(selectedCamp, removedEnquiry);
+        }
+        journalService.commit();
         
         System.out.println("\n> Enquiry deleted");
     }
@@ -192,7 +224,6 @@ public class StudentEnquiryService implements EnquiryServiceable {
         Student currentUser = (Student) currentUserDao.getCurrentUser();
         Map<String, Camp> campData = campDao.getCamps();
         Map<String, ArrayList<Integer>> studentEnquiryData = currentUser.getEnquiries();
-        Map<Integer, Camp> enquiryIDToCampMap = new HashMap<Integer, Camp>();
         ArrayList<Integer> studentAllEnquiryList = new ArrayList<Integer>();
 
         for (Map.Entry<String, ArrayList<Integer>> entry : studentEnquiryData.entrySet()) {
@@ -201,7 +232,6 @@ public class StudentEnquiryService implements EnquiryServiceable {
             enquiryIDList = entry.getValue();
             for (Integer enquiryID : enquiryIDList) {
                 if (camp.getEnquiries().get(enquiryID).getReplier() != null) continue;
-                enquiryIDToCampMap.put(enquiryID, camp);
                 studentAllEnquiryList.add(enquiryID);
             }
         }
@@ -227,8 +257,13 @@ public class StudentEnquiryService implements EnquiryServiceable {
             }
         } while (true);
 
-        selectedCamp = enquiryIDToCampMap.get(selectedEnquiryID);
-        selectedEnquiry = selectedCamp.getEnquiries().get(selectedEnquiryID);
+        // The enquiry, or its camp, may have been deleted in another session since the list was shown
+        selectedCamp = campDao.getCampByEnquiryID(selectedEnquiryID);
+        selectedEnquiry = selectedCamp == null ? null : selectedCamp.getEnquiries().get(selectedEnquiryID);
+        if (selectedEnquiry == null) {
+            System.out.println("\n> Enquiry no longer exists");
+            return;
+        }
         do {
             newEnquiryField = InputUtil.nextString("Enter enquiry");
             if (!newEnquiryField.isBlank()) break;
@@ -236,7 +271,16 @@ public class StudentEnquiryService implements EnquiryServiceable {
             PrintUtil.invalid("input");
         } while (true);
 
-        selectedEnquiry.setEnquiry(newEnquiryField);
+        synchronized (selectedCamp) {
+            if (!selectedCamp.isAwaitingReply(selectedEnquiry)) {
+                System.out.println("\n> Enquiry has already been replied to or deleted");
+                return;
+            }
+
+            selectedEnquiry.setEnquiry(newEnquiryField);
+            journalService.recordEnquiry(selectedCamp, selectedEnquiry);
+        }
+        journalService.commit();
         System.out.println("\n> Enquiry updated");
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import enums.Visibility;
 
 import interfaces.dao.CampDao;
 import interfaces.dao.CurrentUserDao;
+import interfaces.services.JournalServiceable;
 import interfaces.services.ToggleVisibilityServiceable;
 
 import models.Camp;
@@ -41,6 +42,8 @@ public class ToggleVisibilityService implements ToggleVisibilityServiceable{
 	
 	private static final CampDao campDao = new CampDaoImpl();
 
+	private static final JournalServiceable journalService = new JournalService();
+
 	/**
      * Toggles the visibility of camps created by the current staff member.
      * The staff member can choose a camp to toggle its visibility on or off.
@@ -72,15 +75,20 @@ public class ToggleVisibilityService implements ToggleVisibilityServiceable{
     		}
     		
     		selectedCamp = campData.get(createdCampNames.get(choice - 1));
-    	    if (selectedCamp.getVisibility() == Visibility.OFF)
-    	    	selectedCamp.setVisibility(Visibility.ON);
-    	    else {
-    	    	if (validateToggle(selectedCamp)) {
-    	    		System.out.println("\n> Unable to toggle camp visibility off.");
-					return;
+    		synchronized (selectedCamp) {
+    	    	if (selectedCamp.getVisibility() == Visibility.OFF)
+    	    		selectedCamp.setVisibility(Visibility.ON);
+    	    	else {
+    	    		if (validateToggle(selectedCamp)) {
+    	    			System.out.println("\n> Unable to toggle camp visibility off.");
+						return;
+					}
+    	    		selectedCamp.setVisibility(Visibility.OFF);
 				}
-    	    	selectedCamp.setVisibility(Visibility.OFF);
-			}
+				campDao.index(selectedCamp);
+				journalService.recordCampField(selectedCamp, "visibility");
+    		}
+    		journalService.commit();
 			System.out.println("\n> Visibility toggled");
 		} while (true);
     }
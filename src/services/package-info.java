@@ -12,6 +12,9 @@
  * @see services.CommitteeGenerateReportService
  * @see services.CommitteeReplyEnquiryService
  * @see services.CommitteeSuggestionService
+ * @see services.DataValidationService
+ * @see services.JournalService
+ * @see services.SnapshotDataService
  * @see services.StaffApproveSuggestionService
  * @see services.StaffCampService
  * @see services.StaffDataService
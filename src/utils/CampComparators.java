@@ -1,7 +1,6 @@
 package utils;
 
 import java.util.Comparator;
-import java.util.GregorianCalendar;
 
 import models.Camp;
 
@@ -48,11 +47,7 @@ public class CampComparators {
          */
         public int compare(Camp camp1, Camp camp2) {
         	
-            GregorianCalendar camp1Date = camp1.getDates().get(0);
-            String camp1DateString = DateUtil.toString(camp1Date);
-            GregorianCalendar camp2Date = camp2.getDates().get(0);
-            String camp2DateString = DateUtil.toString(camp2Date);
-            return camp1DateString.compareTo(camp2DateString);
+            return Integer.compare(camp1.getStartDay(), camp2.getStartDay());
         }
     }
 
@@ -70,11 +65,7 @@ public class CampComparators {
          * @return a negative integer, zero, or a positive integer as the first camp's closing date is less than, equal to, or greater than the second camp's closing date.
          */
         public int compare(Camp camp1, Camp camp2) {
-            GregorianCalendar camp1Date = camp1.getRegistrationClosingDate();
-            String camp1DateString = DateUtil.toString(camp1Date);
-            GregorianCalendar camp2Date = camp2.getRegistrationClosingDate();
-            String camp2DateString = DateUtil.toString(camp2Date);
-            return camp1DateString.compareTo(camp2DateString);
+            return Integer.compare(camp1.getRegistrationClosingDay(), camp2.getRegistrationClosingDay());
         }
     }
 
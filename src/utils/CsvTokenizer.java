@@ -0,0 +1,503 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The {@code CsvTokenizer} class reads the CAMs CSV files one record at a time in a single pass over a character buffer.
+ *
+ * <p>Fields are separated by commas and may be wrapped in double quotes, in which case they can contain commas, line breaks
+ * and doubled quotes ({@code ""}). The unquoted field contents are kept in one reusable buffer, so a {@link String} is only
+ * allocated for the values that are actually read.</p>
+ *
+ * <p>Nested values such as {@code a|b|c}, {@code 1|text|ID*2|text|ID} and {@code camp=1|2} are read in place through a
+ * {@link Segment} cursor instead of being split with regular expressions. The {@code #NULL!} sentinel used for empty lists
+ * is recognised by {@link #isNull(int)} and by the list readers.</p>
+ *
+ * <p>A tokenizer reads either characters from a {@link Reader} or UTF-8 bytes straight from a {@link ByteBuffer}, such as a
+ * memory-mapped file. Bytes below {@code 0x80} are taken as characters as they are; only other bytes go through UTF-8 decoding.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ */
+public class CsvTokenizer {
+
+	/**
+	 * The sentinel written in place of an empty list or value.
+	 */
+	public static final String NULL = "#NULL!";
+
+	private final Reader reader;
+
+	private final ByteBuffer bytes;
+
+	private final CharsetDecoder decoder;
+
+	private int inputByteStart = 0;
+
+	private final char[] input;
+
+	private int inputPos = 0;
+
+	private int inputLen = 0;
+
+	private char[] record = new char[256];
+
+	private int recordLen = 0;
+
+	private int[] fieldStart = new int[16];
+
+	private int[] fieldEnd = new int[16];
+
+	private int fieldCount = 0;
+
+	/**
+	 * Creates a tokenizer reading records from the given reader.
+	 *
+	 * @param reader the source of the CSV text.
+	 */
+	public CsvTokenizer(Reader reader) {
+		this.reader = reader;
+		this.bytes = null;
+		this.decoder = null;
+		this.input = new char[8192];
+	}
+
+	/**
+	 * Creates a tokenizer reading UTF-8 records from the remaining bytes of a buffer.
+	 * The buffer's position is advanced as records are read.
+	 *
+	 * @param bytes the source of the CSV text.
+	 */
+	public CsvTokenizer(ByteBuffer bytes) {
+		this.reader = null;
+		this.bytes = bytes;
+		this.decoder = StandardCharsets.UTF_8.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.input = new char[8192];
+	}
+
+	/**
+	 * Creates a tokenizer holding a single value as its current record, for {@link #segmentOf(String)}.
+	 *
+	 * @param value the value to be read.
+	 */
+	private CsvTokenizer(String value) {
+		this.reader = null;
+		this.bytes = null;
+		this.decoder = null;
+		this.input = null;
+		this.record = value.toCharArray();
+		this.recordLen = record.length;
+	}
+
+	/**
+	 * Returns a cursor over a value kept from an earlier record, such as a field saved with {@link Segment#toString()}.
+	 *
+	 * @param value the value to be read.
+	 *
+	 * @return a cursor positioned at the start of the value.
+	 */
+	public static Segment segmentOf(String value) {
+		return new CsvTokenizer(value).new Segment(0, value.length());
+	}
+
+	/**
+	 * Advances to the next record.
+	 *
+	 * @return {@code true} if a record was read, {@code false} at the end of the input.
+	 *
+	 * @throws IOException if the underlying reader fails.
+	 */
+	public boolean next() throws IOException {
+
+		int c = read();
+		if (c == -1)
+			return false;
+
+		recordLen = 0;
+		fieldCount = 0;
+		int start = 0;
+		boolean quoted = false;
+		boolean atFieldStart = true;
+
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					break;
+				}
+				if (c == '"') {
+					int peek = read();
+					if (peek == '"') {
+						append('"');
+					} else {
+						quoted = false;
+						c = peek;
+						continue;
+					}
+				} else {
+					append((char) c);
+				}
+			} else if (c == -1 || c == '\n') {
+				break;
+			} else if (c == '\r') {
+				int peek = read();
+				if (peek != '\n' && peek != -1)
+					inputPos--;
+				break;
+			} else if (c == ',') {
+				addField(start, recordLen);
+				start = recordLen;
+				atFieldStart = true;
+				c = read();
+				continue;
+			} else if (c == '"' && atFieldStart) {
+				quoted = true;
+			} else {
+				append((char) c);
+			}
+			atFieldStart = false;
+			c = read();
+		}
+		addField(start, recordLen);
+		return true;
+	}
+
+	/**
+	 * Returns the position in the byte buffer after the current record.
+	 *
+	 * @return the index of the next byte to be read.
+	 *
+	 * @throws IllegalStateException if the tokenizer reads from a {@link Reader}.
+	 */
+	public int position() {
+		if (bytes == null)
+			throw new IllegalStateException("Not reading from a byte buffer");
+
+		int position = inputByteStart;
+		for (int i = 0; i < inputPos; i++) {
+			char c = input[i];
+			if (c < 0x80) {
+				position += 1;
+			} else if (c < 0x800) {
+				position += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				position += 4;
+				i++;
+			} else {
+				position += 3;
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the number of fields in the current record.
+	 *
+	 * @return the number of fields, at least 1 for any record read.
+	 */
+	public int fieldCount() {
+		return fieldCount;
+	}
+
+	/**
+	 * Returns whether the current record is blank.
+	 *
+	 * @return {@code true} if the record has a single empty field.
+	 */
+	public boolean isBlank() {
+		return fieldCount == 1 && fieldStart[0] == fieldEnd[0];
+	}
+
+	/**
+	 * Returns the value of a field.
+	 *
+	 * @param index the zero-based field index.
+	 *
+	 * @return the unquoted value of the field.
+	 */
+	public String field(int index) {
+		return new String(record, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+	}
+
+	/**
+	 * Returns whether a field holds the {@code #NULL!} sentinel.
+	 *
+	 * @param index the zero-based field index.
+	 *
+	 * @return {@code true} if the field is {@code #NULL!}.
+	 */
+	public boolean isNull(int index) {
+		return segment(index).isNull();
+	}
+
+	/**
+	 * Parses a field as an integer without allocating a string.
+	 *
+	 * @param index the zero-based field index.
+	 *
+	 * @return the integer value of the field.
+	 */
+	public int intField(int index) {
+		return segment(index).toInt();
+	}
+
+	/**
+	 * Reads a list field such as {@code a|b|c}.
+	 *
+	 * @param index the zero-based field index.
+	 * @param separator the character separating the list items.
+	 *
+	 * @return the list items, empty if the field is {@code #NULL!}.
+	 */
+	public ArrayList<String> strings(int index, char separator) {
+		return segment(index).strings(separator);
+	}
+
+	/**
+	 * Returns a cursor over a field for reading nested values.
+	 *
+	 * @param index the zero-based field index.
+	 *
+	 * @return a cursor positioned at the start of the field.
+	 */
+	public Segment segment(int index) {
+		return new Segment(fieldStart[index], fieldEnd[index]);
+	}
+
+	/**
+	 * Quotes a value for writing if it contains a comma, a double quote or a line break.
+	 *
+	 * @param value the value to be written.
+	 *
+	 * @return the value itself, or the value wrapped in double quotes with inner quotes doubled.
+	 */
+	public static String escape(String value) {
+
+		if (value == null)
+			return NULL;
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r')
+				return "\"" + value.replace("\"", "\"\"") + "\"";
+		}
+		return value;
+	}
+
+	private int read() throws IOException {
+
+		if (inputPos == inputLen) {
+			inputLen = bytes != null ? decode() : reader.read(input, 0, input.length);
+			inputPos = 0;
+			if (inputLen <= 0) {
+				inputLen = 0;
+				return -1;
+			}
+		}
+		return input[inputPos++];
+	}
+
+	/**
+	 * Decodes the next block of UTF-8 bytes into the character buffer.
+	 *
+	 * @return the number of characters decoded, 0 at the end of the bytes.
+	 */
+	private int decode() {
+
+		inputByteStart = bytes.position();
+		CharBuffer out = CharBuffer.wrap(input);
+		decoder.decode(bytes, out, true);
+		return out.position();
+	}
+
+	private void append(char c) {
+
+		if (recordLen == record.length)
+			record = Arrays.copyOf(record, record.length * 2);
+		record[recordLen++] = c;
+	}
+
+	private void addField(int start, int end) {
+
+		if (fieldCount == fieldStart.length) {
+			fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+			fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+		}
+		fieldStart[fieldCount] = start;
+		fieldEnd[fieldCount] = end;
+		fieldCount++;
+	}
+
+	/**
+	 * The {@code Segment} class is a cursor over part of the current record, used to read values nested with {@code |}, {@code *} and {@code =}.
+	 *
+	 * <p>A segment is only valid until {@link CsvTokenizer#next()} is called again.</p>
+	 */
+	public class Segment {
+
+		private int pos;
+
+		private final int end;
+
+		private Segment(int start, int end) {
+			this.pos = start;
+			this.end = end;
+		}
+
+		/**
+		 * Returns whether there is anything left to read.
+		 *
+		 * @return {@code true} if the cursor has not reached the end of the segment.
+		 */
+		public boolean hasNext() {
+			return pos < end;
+		}
+
+		/**
+		 * Returns whether the remaining segment is the {@code #NULL!} sentinel.
+		 *
+		 * @return {@code true} if the remaining segment is {@code #NULL!}.
+		 */
+		public boolean isNull() {
+
+			if (end - pos != NULL.length())
+				return false;
+
+			for (int i = 0; i < NULL.length(); i++) {
+				if (record[pos + i] != NULL.charAt(i))
+					return false;
+			}
+			return true;
+		}
+
+		/**
+		 * Reads up to the next separator and moves past it.
+		 *
+		 * @param separator the character ending the value.
+		 *
+		 * @return a segment covering the value.
+		 */
+		public Segment next(char separator) {
+
+			int start = pos;
+			int stop = indexOf(separator);
+			pos = stop < end ? stop + 1 : end;
+			return new Segment(start, stop);
+		}
+
+		/**
+		 * Reads up to the next separator as a string and moves past it.
+		 *
+		 * @param separator the character ending the value.
+		 *
+		 * @return the value read.
+		 */
+		public String nextString(char separator) {
+			return next(separator).toString();
+		}
+
+		/**
+		 * Reads up to the next separator as an integer and moves past it.
+		 *
+		 * @param separator the character ending the value.
+		 *
+		 * @return the value read.
+		 */
+		public int nextInt(char separator) {
+			return next(separator).toInt();
+		}
+
+		/**
+		 * Reads the remaining segment as a list.
+		 *
+		 * @param separator the character separating the list items.
+		 *
+		 * @return the list items, empty if the segment is {@code #NULL!}.
+		 */
+		public ArrayList<String> strings(char separator) {
+
+			ArrayList<String> values = new ArrayList<String>();
+			if (isNull())
+				return values;
+
+			while (hasNext())
+				values.add(nextString(separator));
+			return values;
+		}
+
+		/**
+		 * Reads the remaining segment as a list of integers.
+		 *
+		 * @param separator the character separating the list items.
+		 *
+		 * @return the list items, empty if the segment is {@code #NULL!}.
+		 */
+		public ArrayList<Integer> ints(char separator) {
+
+			ArrayList<Integer> values = new ArrayList<Integer>();
+			if (isNull())
+				return values;
+
+			while (hasNext())
+				values.add(nextInt(separator));
+			return values;
+		}
+
+		/**
+		 * Parses the remaining segment as an integer.
+		 *
+		 * @return the integer value.
+		 *
+		 * @throws NumberFormatException if the segment is not a valid integer.
+		 */
+		public int toInt() {
+
+			int i = pos;
+			boolean negative = false;
+			if (i < end && (record[i] == '-' || record[i] == '+')) {
+				negative = record[i] == '-';
+				i++;
+			}
+			if (i == end)
+				throw new NumberFormatException("Empty number at column " + pos);
+
+			int value = 0;
+			for (; i < end; i++) {
+				int digit = record[i] - '0';
+				if (digit < 0 || digit > 9)
+					throw new NumberFormatException("For input string: \"" + toString() + "\"");
+				value = value * 10 + digit;
+			}
+			return negative ? -value : value;
+		}
+
+		/**
+		 * Returns the remaining segment as a string.
+		 *
+		 * @return the remaining characters of the segment.
+		 */
+		@Override
+		public String toString() {
+			return new String(record, pos, end - pos);
+		}
+
+		private int indexOf(char separator) {
+
+			for (int i = pos; i < end; i++) {
+				if (record[i] == separator)
+					return i;
+			}
+			return end;
+		}
+	}
+}
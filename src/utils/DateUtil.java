@@ -1,48 +1,45 @@
 package utils;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.GregorianCalendar;
-import java.util.Date;
+import java.time.LocalDate;
 
 /**
  * The {@code DateUtil} class provides utility methods for working with dates.
- * It includes methods to convert {@link GregorianCalendar} objects to strings and vice versa.
- * 
+ * It includes methods to convert dates held as epoch days, the number of days since 1970-01-01,
+ * to and from the {@code YYYY-MM-DD} strings used in the CSV files and on screen.
+ *
  * @author Chuan Shan Hong
- * @version 1.0
+ * @version 1.1
  * @since 1.0
  */
 public class DateUtil {
 
     /**
-     * Converts a {@link GregorianCalendar} object to a formatted string.
-     * 
-     * @param date the {@link GregorianCalendar} object to be converted
-     * @return a formatted string representing the date
-     */	
-	public static String toString(GregorianCalendar date) {
-		SimpleDateFormat fmtDateFormat = new SimpleDateFormat("yyyy-MM-dd");
-		fmtDateFormat.setCalendar(date);
-		String dateFormatted = fmtDateFormat.format(date.getTime());
-		return dateFormatted;
+     * Converts an epoch day to a formatted string.
+     *
+     * @param epochDay the number of days since 1970-01-01
+     * @return a string representing the date as {@code YYYY-MM-DD}
+     */
+	public static String toString(int epochDay) {
+		return LocalDate.ofEpochDay(epochDay).toString();
 	}
 
     /**
-     * Converts a string representation of a date to a {@link GregorianCalendar} object.
-     * 
-     * @param dateString the string representing the date
-     * @return a {@link GregorianCalendar} object representing the date
-     */	
-	public static GregorianCalendar toDate(String dateString) {
-		DateFormat df = new SimpleDateFormat("yyyy-MM-dd");
-		GregorianCalendar cal = new GregorianCalendar();
-		try{
-			Date d = df.parse(dateString);
-			cal.setTime(d);
-		} catch (java.text.ParseException e){
-			e.printStackTrace();
-		}
-		return cal;
+     * Converts a string representation of a date to an epoch day.
+     *
+     * @param dateString the string representing the date as {@code YYYY-MM-DD}
+     * @return the number of days since 1970-01-01
+     * @throws java.time.format.DateTimeParseException if the string is not a valid date
+     */
+	public static int toEpochDay(String dateString) {
+		return (int) LocalDate.parse(dateString).toEpochDay();
+	}
+
+    /**
+     * Returns today's date in the system time zone as an epoch day.
+     *
+     * @return the number of days from 1970-01-01 to today
+     */
+	public static int today() {
+		return (int) LocalDate.now().toEpochDay();
 	}
 }
@@ -0,0 +1,108 @@
+package utils;
+
+import java.util.BitSet;
+
+/**
+ * The {@code DaySet} class is a set of dates held as epoch days, one bit per day, such as the days a student is already
+ * away at camp.
+ *
+ * <p>The bits count from an origin a year before the first day added, so a set spanning a few years of camps stays a few
+ * hundred bytes. Checking a camp against the set first compares the camp's first and last day with the range of the set,
+ * and only then tests the camp's own days, so the cost does not depend on how many camps filled the set.</p>
+ *
+ * <p>A {@code DaySet} is not safe for use by several threads while it is being filled; once filled it may be read by any thread.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see DateUtil#toEpochDay(String)
+ */
+public class DaySet {
+
+	private static final int MARGIN = 366;
+
+	private BitSet days = new BitSet();
+
+	private int origin;
+
+	private int first = Integer.MAX_VALUE;
+
+	private int last = Integer.MIN_VALUE;
+
+	/**
+	 * Adds a day to the set.
+	 *
+	 * @param epochDay the day, as a number of days since 1970-01-01.
+	 */
+	public void add(int epochDay) {
+
+		if (isEmpty()) {
+			origin = epochDay - MARGIN;
+		} else if (epochDay < origin) {
+			// Move the origin back, shifting the days already in the set
+			int shift = origin - (epochDay - MARGIN);
+			BitSet shifted = new BitSet();
+			for (int i = days.nextSetBit(0); i >= 0; i = days.nextSetBit(i + 1))
+				shifted.set(i + shift);
+			days = shifted;
+			origin -= shift;
+		}
+
+		days.set(epochDay - origin);
+		first = Math.min(first, epochDay);
+		last = Math.max(last, epochDay);
+	}
+
+	/**
+	 * Adds several days to the set.
+	 *
+	 * @param epochDays the days, as numbers of days since 1970-01-01.
+	 */
+	public void addAll(int[] epochDays) {
+
+		for (int epochDay : epochDays)
+			add(epochDay);
+	}
+
+	/**
+	 * Checks whether a day is in the set.
+	 *
+	 * @param epochDay the day, as a number of days since 1970-01-01.
+	 *
+	 * @return {@code true} if the day is in the set.
+	 */
+	public boolean contains(int epochDay) {
+
+		return epochDay >= first && epochDay <= last && days.get(epochDay - origin);
+	}
+
+	/**
+	 * Checks whether any of the given days is in the set.
+	 *
+	 * @param epochDays the days in ascending order, as numbers of days since 1970-01-01.
+	 *
+	 * @return {@code true} if at least one of the days is in the set.
+	 */
+	public boolean intersects(int[] epochDays) {
+
+		if (epochDays.length == 0 || epochDays[epochDays.length - 1] < first || epochDays[0] > last)
+			return false;
+
+		for (int epochDay : epochDays) {
+			if (contains(epochDay))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the set is empty.
+	 *
+	 * @return {@code true} if no day has been added.
+	 */
+	public boolean isEmpty() {
+
+		return first > last;
+	}
+}
@@ -0,0 +1,373 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code ExportBatch} class writes a group of data files so that, after a crash, each file holds either its old or
+ * its new contents in full.
+ *
+ * <p>Every file is written to a sibling {@code .tmp} file. Nothing is forced to disk while the files are written;
+ * {@link #commit()} forces each temporary file once, records the batch in a manifest, forces the manifest, and then
+ * renames the temporary files over the originals. The manifest is the commit point: {@link #recover(String, String...)}
+ * finishes the renames of a batch whose manifest is complete, and discards the temporary files of any other batch,
+ * leaving the last good files in place.</p>
+ *
+ * <p>A batch belongs to the thread that began it. A file opened while no batch is open is committed on its own when it is closed.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ */
+public class ExportBatch implements AutoCloseable {
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private static final ThreadLocal<ExportBatch> current = new ThreadLocal<ExportBatch>();
+
+	private final String manifestPath;
+
+	private final List<TempFile> files = new ArrayList<TempFile>();
+
+	private boolean committed = false;
+
+	private ExportBatch(String manifestPath) {
+		this.manifestPath = manifestPath;
+	}
+
+	/**
+	 * Begins a batch on the current thread. Files opened by this thread until the batch is closed belong to it.
+	 *
+	 * @param manifestPath the path of the manifest that commits the batch.
+	 *
+	 * @return the new batch.
+	 *
+	 * @throws IllegalStateException if this thread already has a batch open.
+	 */
+	public static ExportBatch begin(String manifestPath) {
+
+		if (current.get() != null)
+			throw new IllegalStateException("An export batch is already open");
+
+		ExportBatch batch = new ExportBatch(manifestPath);
+		current.set(batch);
+		return batch;
+	}
+
+	/**
+	 * Opens a file for writing as text, in place of {@code new BufferedWriter(new FileWriter(filePath))}.
+	 * The text is encoded as UTF-8, the charset the importers read the files in, whatever the platform default.
+	 *
+	 * @param filePath the path of the file to be replaced.
+	 *
+	 * @return a writer to the file's temporary sibling.
+	 *
+	 * @throws IOException if the temporary file cannot be created.
+	 */
+	public static BufferedWriter newWriter(String filePath) throws IOException {
+		return new BufferedWriter(new OutputStreamWriter(newOutputStream(filePath), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Opens a file for writing as bytes, in place of {@code new FileOutputStream(filePath)}.
+	 *
+	 * @param filePath the path of the file to be replaced.
+	 *
+	 * @return a stream to the file's temporary sibling.
+	 *
+	 * @throws IOException if the temporary file cannot be created.
+	 */
+	public static OutputStream newOutputStream(String filePath) throws IOException {
+
+		ExportBatch batch = current.get();
+		TempFile file = new TempFile(filePath, batch == null);
+		if (batch != null)
+			batch.files.add(file);
+		return file;
+	}
+
+	/**
+	 * Commits the files written and closed successfully in this batch. A file whose writing failed keeps its old contents.
+	 *
+	 * @throws IOException if the batch cannot be committed; the originals are then left as they were,
+	 *         or are completed by the next {@link #recover(String, String...)}.
+	 */
+	public void commit() throws IOException {
+
+		List<TempFile> written = new ArrayList<TempFile>();
+		for (TempFile file : files) {
+			if (file.isComplete()) written.add(file);
+			else file.discard();
+		}
+		committed = true;
+		if (written.isEmpty()) return;
+
+		for (TempFile file : written)
+			force(file.temp);
+
+		StringBuilder manifest = new StringBuilder();
+		for (TempFile file : written)
+			manifest.append("FILE,").append(CsvTokenizer.escape(file.target.toString())).append(',')
+					.append(file.length).append(',').append(Long.toHexString(file.crc.getValue())).append('\n');
+		manifest.append("END,").append(written.size()).append('\n');
+
+		Path manifestFile = Paths.get(manifestPath);
+		try (FileChannel channel = FileChannel.open(manifestFile, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.wrap(manifest.toString().getBytes(StandardCharsets.UTF_8)));
+			channel.force(true);
+		}
+
+		Set<Path> directories = new LinkedHashSet<Path>();
+		for (TempFile file : written) {
+			replace(file.temp, file.target);
+			directories.add(parentOf(file.target));
+		}
+		directories.forEach(ExportBatch::forceDirectory);
+		Files.deleteIfExists(manifestFile);
+	}
+
+	/**
+	 * Ends the batch, deleting the temporary files of a batch that was not committed.
+	 */
+	public void close() {
+
+		current.remove();
+		if (committed) return;
+
+		for (TempFile file : files)
+			file.discard();
+	}
+
+	/**
+	 * Brings the data files back to a consistent state after a crash. Meant to be called before the files are read.
+	 *
+	 * <p>If the manifest is complete, the batch it records had been committed, so any of its temporary files that are
+	 * still intact are renamed over the originals. Otherwise the batch never committed and the originals are the last
+	 * good files. Either way, the manifest and any stray temporary files of the given data files are deleted.</p>
+	 *
+	 * @param manifestPath the path of the manifest.
+	 * @param filePaths the data files that may have been left with a temporary sibling.
+	 *
+	 * @return the number of files completed from a committed batch.
+	 *
+	 * @throws IOException if a file cannot be renamed or deleted.
+	 */
+	public static int recover(String manifestPath, String... filePaths) throws IOException {
+
+		Path manifestFile = Paths.get(manifestPath);
+		int completed = 0;
+
+		if (Files.exists(manifestFile)) {
+			List<String[]> entries = readManifest(manifestFile);
+			if (entries != null) {
+				for (String[] entry : entries) {
+					Path target = Paths.get(entry[0]);
+					Path temp = tempOf(target);
+					if (!Files.exists(temp)) continue;
+
+					if (matches(temp, Long.parseLong(entry[1]), entry[2])) {
+						replace(temp, target);
+						completed++;
+					} else {
+						System.err.println("> Export: discarding damaged " + temp);
+					}
+				}
+				forceDirectory(parentOf(manifestFile));
+			}
+			Files.delete(manifestFile);
+		}
+
+		for (String filePath : filePaths)
+			Files.deleteIfExists(tempOf(Paths.get(filePath)));
+		return completed;
+	}
+
+	/**
+	 * Reads the entries of a manifest.
+	 *
+	 * @param manifestFile the manifest.
+	 *
+	 * @return the path, length and checksum of each file, or {@code null} if the manifest is incomplete.
+	 *
+	 * @throws IOException if the manifest cannot be read.
+	 */
+	private static List<String[]> readManifest(Path manifestFile) throws IOException {
+
+		String text = new String(Files.readAllBytes(manifestFile), StandardCharsets.UTF_8);
+		CsvTokenizer record = new CsvTokenizer(new StringReader(text));
+		List<String[]> entries = new ArrayList<String[]>();
+
+		while (record.next()) {
+			if (record.isBlank()) continue;
+
+			if (record.fieldCount() == 4 && record.field(0).equals("FILE")) {
+				entries.add(new String[] { record.field(1), record.field(2), record.field(3) });
+			} else if (record.fieldCount() == 2 && record.field(0).equals("END")) {
+				return record.field(1).equals(Integer.toString(entries.size())) ? entries : null;
+			} else {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static boolean matches(Path file, long length, String checksum) throws IOException {
+
+		byte[] bytes = Files.readAllBytes(file);
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		return bytes.length == length && Long.toHexString(crc.getValue()).equals(checksum);
+	}
+
+	private static void replace(Path source, Path target) throws IOException {
+
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static void force(Path file) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Forces a directory, so that the renames in it survive a power loss.
+	 * Not every platform can open a directory, in which case the rename is left to the file system.
+	 */
+	private static void forceDirectory(Path directory) {
+
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Directories cannot be opened on Windows
+		}
+	}
+
+	private static Path tempOf(Path target) {
+		return Paths.get(target + TEMP_SUFFIX);
+	}
+
+	private static Path parentOf(Path file) {
+		Path parent = file.toAbsolutePath().getParent();
+		return parent == null ? file.toAbsolutePath() : parent;
+	}
+
+	/**
+	 * A temporary file that records its length and checksum as it is written, and whether any write failed.
+	 */
+	private static class TempFile extends FilterOutputStream {
+
+		private final Path target;
+
+		private final Path temp;
+
+		private final boolean standalone;
+
+		private final CRC32 crc = new CRC32();
+
+		private long length = 0;
+
+		private boolean failed = false;
+
+		private boolean closed = false;
+
+		TempFile(String filePath, boolean standalone) throws IOException {
+			super(null);
+			this.target = Paths.get(filePath);
+			this.temp = tempOf(target);
+			this.standalone = standalone;
+			this.out = new FileOutputStream(temp.toFile());
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			try {
+				out.write(b, off, len);
+			} catch (IOException e) {
+				failed = true;
+				throw e;
+			}
+			crc.update(b, off, len);
+			length += len;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			try {
+				out.flush();
+			} catch (IOException e) {
+				failed = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) return;
+			closed = true;
+
+			try {
+				out.close();
+			} catch (IOException e) {
+				failed = true;
+				throw e;
+			}
+
+			if (standalone) {
+				if (failed) {
+					discard();
+					return;
+				}
+				force(temp);
+				replace(temp, target);
+				forceDirectory(parentOf(target));
+			}
+		}
+
+		boolean isComplete() {
+			return closed && !failed;
+		}
+
+		void discard() {
+			try {
+				if (!closed) {
+					closed = true;
+					out.close();
+				}
+				Files.deleteIfExists(temp);
+			} catch (IOException e) {
+				System.err.println("> Export: unable to delete " + temp + ": " + e);
+			}
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code IdAllocator} class hands out increasing IDs, such as enquiry and suggestion IDs, to sessions running at the same time.
+ *
+ * <p>An ID is taken with a single compare-and-set, so no two callers ever receive the same ID and none of them waits on a lock.</p>
+ *
+ * <p>Once {@link #open(String)} has been called, IDs are handed out from blocks of {@code cams.id.block} IDs (32 by default).
+ * Before the first ID of a block is handed out, the end of the block is written to the ID file and forced to disk, so the
+ * file always records an ID above every ID handed out. On the next start the allocators resume from there, and an ID
+ * handed out before a crash is never handed out again, even if the record that used it was lost. The IDs left unused in
+ * the last block are skipped.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ */
+public class IdAllocator {
+
+	private static final int blockSize = Integer.getInteger("cams.id.block", 32);
+
+	private static final List<IdAllocator> allocators = new CopyOnWriteArrayList<IdAllocator>();
+
+	/**
+	 * The ID file, or {@code null} while IDs are not persisted.
+	 */
+	private static volatile String filePath;
+
+	private final String name;
+
+	/**
+	 * The next ID to hand out.
+	 */
+	private final AtomicInteger next = new AtomicInteger(1);
+
+	/**
+	 * The end of the block reserved in the ID file. IDs below it may be handed out without writing the file.
+	 */
+	private volatile int limit = Integer.MAX_VALUE;
+
+	/**
+	 * Creates an allocator whose next ID is 1.
+	 *
+	 * @param name the name the allocator is recorded under in the ID file.
+	 */
+	public IdAllocator(String name) {
+		this.name = name;
+		allocators.add(this);
+	}
+
+	/**
+	 * Hands out the next ID.
+	 *
+	 * @return an ID that has not been handed out before.
+	 *
+	 * @throws IllegalStateException if a new block of IDs cannot be reserved in the ID file.
+	 */
+	public int next() {
+
+		do {
+			int id = next.get();
+			if (id >= limit) {
+				reserve();
+			} else if (next.compareAndSet(id, id + 1)) {
+				return id;
+			}
+		} while (true);
+	}
+
+	/**
+	 * Returns the next ID, without handing it out.
+	 *
+	 * @return the next ID.
+	 */
+	public int peek() {
+		return next.get();
+	}
+
+	/**
+	 * Sets the next ID, as read from the data files. Meant for loading the data set, before any ID is handed out.
+	 *
+	 * @param id the next ID.
+	 */
+	public void reset(int id) {
+		next.set(id);
+	}
+
+	/**
+	 * Makes sure the next ID is above an ID already in use.
+	 *
+	 * @param id the next ID, at the least.
+	 */
+	public void advanceTo(int id) {
+		next.accumulateAndGet(id, Math::max);
+	}
+
+	/**
+	 * Starts persisting the allocators in an ID file. Every allocator resumes after the last block recorded for it,
+	 * and reserves a new block before it hands out its next ID. Meant to be called once, after the data set is loaded.
+	 *
+	 * @param path the path of the ID file.
+	 *
+	 * @throws IOException if the ID file exists but cannot be read.
+	 */
+	public static synchronized void open(String path) throws IOException {
+
+		Path file = Paths.get(path);
+		if (Files.exists(file)) {
+			try (BufferedReader br = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				CsvTokenizer record = new CsvTokenizer(br);
+				// Skip the header
+				record.next();
+				while (record.next()) {
+					if (record.isBlank()) continue;
+
+					for (IdAllocator allocator : allocators) {
+						if (allocator.name.equals(record.field(0)))
+							allocator.advanceTo(record.intField(1));
+					}
+				}
+			}
+		}
+
+		for (IdAllocator allocator : allocators)
+			allocator.limit = allocator.next.get();
+		filePath = path;
+	}
+
+	/**
+	 * Reserves the next block of IDs, unless another thread already has.
+	 */
+	private void reserve() {
+
+		synchronized (IdAllocator.class) {
+			int from = next.get();
+			if (from < limit) return;
+
+			int end = from + blockSize;
+			try {
+				save(end);
+			} catch (IOException e) {
+				throw new IllegalStateException("Unable to reserve " + name + " IDs", e);
+			}
+			limit = end;
+		}
+	}
+
+	/**
+	 * Writes the end of every allocator's block to the ID file, with this allocator's block ending at {@code end}.
+	 * The file is replaced as a whole, and is on disk when this method returns.
+	 *
+	 * @param end the end of this allocator's new block.
+	 *
+	 * @throws IOException if the ID file cannot be written.
+	 */
+	private void save(int end) throws IOException {
+
+		try (BufferedWriter bw = ExportBatch.newWriter(filePath)) {
+			bw.write("Allocator,Reserved");
+			bw.newLine();
+			for (IdAllocator allocator : allocators) {
+				bw.write(CsvTokenizer.escape(allocator.name) + "," + (allocator == this ? end : allocator.limit));
+				bw.newLine();
+			}
+		}
+	}
+}
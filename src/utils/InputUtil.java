@@ -1,19 +1,19 @@
 package utils;
 
-import java.util.Scanner;
+import models.Session;
 
 /**
  * The {@code InputUtil} class provides utility methods for handling user input.
  * It includes methods to read integers and strings from the console.
  * 
+ * <p>Input is read from the {@link Session} bound to the calling thread, which is the console unless a session is bound.</p>
+ * 
  * @author Chuan Shan Hong
  * @version 1.0
  * @since 1.0
  */
 public class InputUtil {
     
-    private static final Scanner sc = new Scanner(System.in);
-
     /**
      * Reads and returns an integer from the console.
      * 
@@ -22,7 +22,7 @@ public class InputUtil {
     public static int choice() {
         System.out.print("\nChoice: ");
         try {
-            return Integer.parseInt(sc.nextLine());
+            return Integer.parseInt(Session.current().readLine());
         } catch (NumberFormatException e) {
             return -1;
         }
@@ -38,7 +38,7 @@ public class InputUtil {
     public static int nextInt(String prompt) {
         System.out.print(String.format("\n%s: ", prompt));
         try {
-            return Integer.parseInt(sc.nextLine());
+            return Integer.parseInt(Session.current().readLine());
         } catch (NumberFormatException e) {
             return -1;
         }
@@ -53,6 +53,6 @@ public class InputUtil {
      */    
     public static String nextString(String prompt) {
         System.out.print(String.format("\n%s: ", prompt));
-        return sc.nextLine();
+        return Session.current().readLine();
     }
 }
@@ -0,0 +1,148 @@
+package utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code MappedCsvReader} class reads a CSV file as raw bytes and parses its records on several threads.
+ *
+ * <p>Files of at least {@code cams.import.mmap.threshold} bytes (4 MiB by default) are memory-mapped with
+ * {@link FileChannel#map}; smaller files are read into a heap buffer with a single read. Either way the bytes are scanned
+ * directly by a {@link CsvTokenizer}, without decoding them into lines first.</p>
+ *
+ * <p>The records after the header are split into at most one chunk per available processor, each at least
+ * {@code cams.import.chunk} bytes (1 MiB by default), cut only at line breaks outside quoted fields. Each chunk is parsed
+ * on its own and the results are returned in file order, so a later record still replaces an earlier one with the same key.
+ * On a single processor, or for a small file, the records are parsed on the calling thread in one pass.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see CsvTokenizer
+ */
+public class MappedCsvReader {
+
+	private static final long mapThreshold = Long.getLong("cams.import.mmap.threshold", 4L << 20);
+
+	private static final int chunkSize = Integer.getInteger("cams.import.chunk", 1 << 20);
+
+	private MappedCsvReader() {}
+
+	/**
+	 * Reads a whole file into a byte buffer, mapping it if it is large.
+	 *
+	 * @param filePath the path of the file.
+	 *
+	 * @return a buffer positioned at the start of the file.
+	 *
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static ByteBuffer read(String filePath) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size >= mapThreshold)
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0);
+			buffer.flip();
+			return buffer;
+		}
+	}
+
+	/**
+	 * Parses every record from a position to the end of the buffer.
+	 *
+	 * @param <T> the type of the parsed records.
+	 * @param data the file contents.
+	 * @param start the position of the first record, after any header.
+	 * @param parser builds a value from the current record, or returns {@code null} to skip it.
+	 *
+	 * @return the parsed values in file order.
+	 */
+	public static <T> List<T> parse(ByteBuffer data, int start, Function<CsvTokenizer, T> parser) {
+
+		int[] bounds = split(data, start);
+		if (bounds.length == 2)
+			return parseChunk(data, bounds[0], bounds[1], parser);
+
+		return IntStream.range(0, bounds.length - 1)
+			.parallel()
+			.mapToObj(i -> parseChunk(data, bounds[i], bounds[i + 1], parser))
+			.flatMap(List::stream)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Finds the chunk boundaries, each just after a line break that is not inside a quoted field.
+	 *
+	 * @param data the file contents.
+	 * @param start the position of the first record.
+	 *
+	 * @return the start of every chunk followed by the end of the data.
+	 */
+	private static int[] split(ByteBuffer data, int start) {
+
+		int end = data.limit();
+		int workers = Runtime.getRuntime().availableProcessors();
+		long size = Math.max(chunkSize, (end - start) / workers + 1);
+		List<Integer> bounds = new ArrayList<Integer>();
+		bounds.add(start);
+
+		boolean quoted = false;
+		long next = start + size;
+		for (int i = start; i < end && next < end; i++) {
+			byte b = data.get(i);
+			if (b == '"') {
+				quoted = !quoted;
+			} else if (b == '\n' && !quoted && i >= next) {
+				bounds.add(i + 1);
+				next = i + 1 + size;
+			}
+		}
+
+		bounds.add(end);
+		return bounds.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Parses the records of one chunk.
+	 *
+	 * @param <T> the type of the parsed records.
+	 * @param data the file contents.
+	 * @param start the start of the chunk.
+	 * @param end the end of the chunk.
+	 * @param parser builds a value from the current record, or returns {@code null} to skip it.
+	 *
+	 * @return the parsed values in chunk order.
+	 */
+	private static <T> List<T> parseChunk(ByteBuffer data, int start, int end, Function<CsvTokenizer, T> parser) {
+
+		ByteBuffer chunk = data.duplicate();
+		chunk.limit(end).position(start);
+		CsvTokenizer row = new CsvTokenizer(chunk);
+		List<T> values = new ArrayList<T>();
+
+		try {
+			while (row.next()) {
+				T value = parser.apply(row);
+				if (value != null)
+					values.add(value);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return values;
+	}
+}
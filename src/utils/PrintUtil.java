@@ -4,6 +4,9 @@ package utils;
  * The {@code PrintUtil} class provides utility methods for printing headers and error messages.
  * It includes methods to print headers with a specified title and display invalid input messages.
  * 
+ * <p>Like the rest of the application it prints to {@code System.out}, which in server mode is a
+ * {@link SessionPrintStream} writing to the connection of the current session.</p>
+ * 
  * @author Chuan Shan Hong
  * @version 1.0
  * @since 1.0
@@ -0,0 +1,227 @@
+package utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import models.Session;
+
+/**
+ * The {@code SessionPrintStream} class is a {@link PrintStream} that writes to the output of the {@link Session}
+ * bound to the calling thread.
+ *
+ * <p>Installed as {@code System.out}, it lets the controllers, views and {@link PrintUtil} print to whichever session
+ * they are serving without being passed its stream. Every call is forwarded as a whole to the session's own stream,
+ * so sessions never wait on one another to print, and a thread with no session bound prints to the console.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see models.Session
+ */
+public class SessionPrintStream extends PrintStream {
+
+	/**
+	 * Creates a stream that writes to the current session's output.
+	 */
+	public SessionPrintStream() {
+		super(new OutputStream() {
+
+			@Override
+			public void write(int b) {
+				target().write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				target().write(b, off, len);
+			}
+
+			@Override
+			public void flush() {
+				target().flush();
+			}
+		}, false);
+	}
+
+	private static PrintStream target() {
+		return Session.current().getOutput();
+	}
+
+	@Override
+	public void flush() {
+		target().flush();
+	}
+
+	/**
+	 * Flushes the current session's output. The session's stream is closed by whoever opened it.
+	 */
+	@Override
+	public void close() {
+		target().flush();
+	}
+
+	@Override
+	public boolean checkError() {
+		return target().checkError();
+	}
+
+	@Override
+	public void write(int b) {
+		target().write(b);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) {
+		target().write(buf, off, len);
+	}
+
+	@Override
+	public void write(byte[] buf) throws IOException {
+		target().write(buf);
+	}
+
+	@Override
+	public void writeBytes(byte[] buf) {
+		target().writeBytes(buf);
+	}
+
+	@Override
+	public void print(boolean b) {
+		target().print(b);
+	}
+
+	@Override
+	public void print(char c) {
+		target().print(c);
+	}
+
+	@Override
+	public void print(int i) {
+		target().print(i);
+	}
+
+	@Override
+	public void print(long l) {
+		target().print(l);
+	}
+
+	@Override
+	public void print(float f) {
+		target().print(f);
+	}
+
+	@Override
+	public void print(double d) {
+		target().print(d);
+	}
+
+	@Override
+	public void print(char[] s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(String s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(Object obj) {
+		target().print(obj);
+	}
+
+	@Override
+	public void println() {
+		target().println();
+	}
+
+	@Override
+	public void println(boolean x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(int x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(long x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(float x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(double x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char[] x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(String x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(Object x) {
+		target().println(x);
+	}
+
+	@Override
+	public PrintStream printf(String format, Object... args) {
+		target().printf(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream printf(Locale l, String format, Object... args) {
+		target().printf(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(String format, Object... args) {
+		target().format(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(Locale l, String format, Object... args) {
+		target().format(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq) {
+		target().append(csq);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq, int start, int end) {
+		target().append(csq, start, end);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(char c) {
+		target().append(c);
+		return this;
+	}
+}
@@ -0,0 +1,178 @@
+package utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+/**
+ * The {@code SnapshotInput} class reads the primitive values of the binary snapshot format from a byte array.
+ *
+ * <p>It is the counterpart of {@link SnapshotOutput}; see that class for the encoding of each value.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see SnapshotOutput
+ */
+public class SnapshotInput {
+
+	private final byte[] data;
+
+	private final int end;
+
+	private int pos;
+
+	/**
+	 * Creates a reader over the whole of a byte array.
+	 *
+	 * @param data the snapshot bytes.
+	 */
+	public SnapshotInput(byte[] data) {
+		this(data, 0, data.length);
+	}
+
+	/**
+	 * Creates a reader over part of a byte array.
+	 *
+	 * @param data the snapshot bytes.
+	 * @param offset the index of the first byte to read.
+	 * @param end the index after the last byte to read.
+	 */
+	public SnapshotInput(byte[] data, int offset, int end) {
+		this.data = data;
+		this.pos = offset;
+		this.end = end;
+	}
+
+	/**
+	 * Reads a single byte.
+	 *
+	 * @return the byte read, from 0 to 255.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public int readByte() throws IOException {
+		require(1);
+		return data[pos++] & 0xFF;
+	}
+
+	/**
+	 * Reads a fixed four-byte big-endian integer.
+	 *
+	 * @return the integer read.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public int readFixedInt() throws IOException {
+		require(4);
+		int value = (data[pos] & 0xFF) << 24 | (data[pos + 1] & 0xFF) << 16 | (data[pos + 2] & 0xFF) << 8 | (data[pos + 3] & 0xFF);
+		pos += 4;
+		return value;
+	}
+
+	/**
+	 * Reads a varint.
+	 *
+	 * @return the integer read.
+	 *
+	 * @throws IOException if the end of the data is reached or the varint is too long.
+	 */
+	public int readVarint() throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed varint at offset " + pos);
+	}
+
+	/**
+	 * Reads a zigzag varint.
+	 *
+	 * @return the signed integer read.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public int readSignedVarint() throws IOException {
+		int value = readVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads a string that cannot be {@code null}.
+	 *
+	 * @return the string read.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public String readString() throws IOException {
+		return readBytes(readVarint());
+	}
+
+	/**
+	 * Reads a string that may be {@code null}.
+	 *
+	 * @return the string read, or {@code null}.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public String readNullableString() throws IOException {
+		int length = readVarint();
+		return length == 0 ? null : readBytes(length - 1);
+	}
+
+	/**
+	 * Reads a list of strings.
+	 *
+	 * @return the strings read.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public ArrayList<String> readStrings() throws IOException {
+		int count = readVarint();
+		ArrayList<String> values = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++)
+			values.add(readString());
+		return values;
+	}
+
+	/**
+	 * Reads a list of non-negative integers.
+	 *
+	 * @return the integers read.
+	 *
+	 * @throws IOException if the end of the data is reached.
+	 */
+	public ArrayList<Integer> readInts() throws IOException {
+		int count = readVarint();
+		ArrayList<Integer> values = new ArrayList<Integer>(count);
+		for (int i = 0; i < count; i++)
+			values.add(readVarint());
+		return values;
+	}
+
+	/**
+	 * Returns whether all of the data has been read.
+	 *
+	 * @return {@code true} if there is nothing left to read.
+	 */
+	public boolean atEnd() {
+		return pos == end;
+	}
+
+	private String readBytes(int length) throws IOException {
+		require(length);
+		String value = new String(data, pos, length, StandardCharsets.UTF_8);
+		pos += length;
+		return value;
+	}
+
+	private void require(int count) throws IOException {
+		if (count < 0 || pos + count > end)
+			throw new EOFException("Snapshot truncated at offset " + pos);
+	}
+}
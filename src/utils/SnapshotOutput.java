@@ -0,0 +1,144 @@
+package utils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@code SnapshotOutput} class writes the primitive values of the binary snapshot format to a byte buffer.
+ *
+ * <p>Unsigned values are written as LEB128 varints, so small counts and IDs take a single byte. Signed values are zigzag
+ * encoded first. Strings are written as a varint byte length followed by their UTF-8 bytes; a nullable string stores
+ * its length plus one, with zero meaning {@code null}.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see SnapshotInput
+ */
+public class SnapshotOutput {
+
+	private byte[] buffer = new byte[8192];
+
+	private int length = 0;
+
+	/**
+	 * Writes a single byte.
+	 *
+	 * @param value the byte to be written.
+	 */
+	public void writeByte(int value) {
+		ensure(1);
+		buffer[length++] = (byte) value;
+	}
+
+	/**
+	 * Writes a fixed four-byte big-endian integer.
+	 *
+	 * @param value the integer to be written.
+	 */
+	public void writeFixedInt(int value) {
+		ensure(4);
+		buffer[length++] = (byte) (value >>> 24);
+		buffer[length++] = (byte) (value >>> 16);
+		buffer[length++] = (byte) (value >>> 8);
+		buffer[length++] = (byte) value;
+	}
+
+	/**
+	 * Writes a non-negative integer as a varint.
+	 *
+	 * @param value the integer to be written.
+	 */
+	public void writeVarint(int value) {
+		ensure(5);
+		while ((value & ~0x7F) != 0) {
+			buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[length++] = (byte) value;
+	}
+
+	/**
+	 * Writes a signed integer as a zigzag varint.
+	 *
+	 * @param value the integer to be written.
+	 */
+	public void writeSignedVarint(int value) {
+		writeVarint((value << 1) ^ (value >> 31));
+	}
+
+	/**
+	 * Writes a string that must not be {@code null}.
+	 *
+	 * @param value the string to be written.
+	 */
+	public void writeString(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bytes.length);
+		writeBytes(bytes);
+	}
+
+	/**
+	 * Writes a string that may be {@code null}.
+	 *
+	 * @param value the string to be written, or {@code null}.
+	 */
+	public void writeNullableString(String value) {
+		if (value == null) {
+			writeVarint(0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarint(bytes.length + 1);
+		writeBytes(bytes);
+	}
+
+	/**
+	 * Writes a collection of strings as a count followed by the strings, in iteration order.
+	 *
+	 * @param values the strings to be written.
+	 */
+	public void writeStrings(Collection<String> values) {
+		writeVarint(values.size());
+		for (String value : values)
+			writeString(value);
+	}
+
+	/**
+	 * Writes a list of non-negative integers as a count followed by varints.
+	 *
+	 * @param values the integers to be written.
+	 */
+	public void writeInts(List<Integer> values) {
+		writeVarint(values.size());
+		for (Integer value : values)
+			writeVarint(value);
+	}
+
+	/**
+	 * Writes the buffered bytes to a stream.
+	 *
+	 * @param out the stream to be written to.
+	 *
+	 * @throws IOException if the stream fails.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(buffer, 0, length);
+	}
+
+	private void writeBytes(byte[] bytes) {
+		ensure(bytes.length);
+		System.arraycopy(bytes, 0, buffer, length, bytes.length);
+		length += bytes.length;
+	}
+
+	private void ensure(int extra) {
+		if (length + extra > buffer.length)
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+	}
+}
@@ -2,6 +2,7 @@ package utils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 
 import enums.SortType;
 
@@ -26,6 +27,7 @@ public class SortCampUtil {
 
     /**
      * Sorts the list of camps based on the specified sort type.
+     * Camps that tie are put in order of name, as in the orderings kept by {@link interfaces.dao.CampDao}.
      * 
      * @param camps the list of camps to be sorted
      * @param sortType the type of sorting to be applied
@@ -33,32 +35,31 @@ public class SortCampUtil {
      * @return the sorted list of camps
      */
     public static ArrayList<Camp> sort(ArrayList<Camp> camps, SortType sortType) {
+        Collections.sort(camps, comparator(sortType).thenComparing(new NameComparator()));
+        return camps;
+    }
+
+    /**
+     * Returns the comparator for a sort type.
+     * 
+     * @param sortType the type of sorting to be applied
+     * 
+     * @return the comparator that puts camps in the order of the sort type
+     */
+    public static Comparator<Camp> comparator(SortType sortType) {
         switch (sortType) {
-            case NAME:
-                NameComparator nameComparator = new NameComparator();
-                Collections.sort(camps, nameComparator);
-                break;
             case DATES:
-                StartComparator startComparator = new StartComparator();
-                Collections.sort(camps, startComparator);
-                break;
+                return new StartComparator();
             case CLOSING_DATE:
-                ClosingComparator closeComparator = new ClosingComparator();
-                Collections.sort(camps, closeComparator);
-                break;
+                return new ClosingComparator();
             case LOCATION:
-                LocationComparator locComparator = new LocationComparator();
-                Collections.sort(camps, locComparator);
-                break;
+                return new LocationComparator();
             case FACULTY:
-                FacultyComparator facultyComparator = new FacultyComparator();
-                Collections.sort(camps, facultyComparator);
-                break;
+                return new FacultyComparator();
             case STAFF:
-                StaffComparator staffComparator = new StaffComparator();
-                Collections.sort(camps, staffComparator);
-                break;
+                return new StaffComparator();
+            default:
+                return new NameComparator();
         }
-        return camps;
     }
 }
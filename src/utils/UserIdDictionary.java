@@ -0,0 +1,101 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code UserIdDictionary} class numbers the user IDs seen in CAMs, giving each a dense index from 0 upwards,
+ * and keeps one {@code String} for each ID.
+ *
+ * <p>Every import reads a student's ID afresh wherever it appears: in the student files, in each camp the student
+ * attends and in each enquiry or suggestion they made. Models that hold a user ID keep its index, or the dictionary's
+ * own {@code String}, instead, so a data set holds each ID once however often it is referred to. An index is only
+ * meaningful within the running process; the files always hold the IDs themselves.</p>
+ *
+ * <p>IDs are never removed, so an index stays valid for the life of the process. Looking an ID up does not lock;
+ * adding a new one does.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see UserIdSet
+ */
+public class UserIdDictionary {
+
+	private static final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<String, Integer>();
+
+	/**
+	 * The IDs by index. Replaced by a larger copy when full, before the index of the new ID is published.
+	 */
+	private static volatile String[] userIDs = new String[1024];
+
+	private static int size;
+
+	private UserIdDictionary() {}
+
+	/**
+	 * Returns the index of a user ID, adding the ID to the dictionary if it is new.
+	 *
+	 * @param userID the user ID, or {@code null}.
+	 *
+	 * @return the index of the ID, or -1 for {@code null}.
+	 */
+	public static int indexOf(String userID) {
+
+		if (userID == null) return -1;
+
+		Integer index = indexes.get(userID);
+		if (index != null) return index;
+
+		synchronized (UserIdDictionary.class) {
+			index = indexes.get(userID);
+			if (index != null) return index;
+
+			String[] ids = userIDs;
+			if (size == ids.length)
+				userIDs = ids = Arrays.copyOf(ids, size * 2);
+			ids[size] = userID;
+			indexes.put(userID, size);
+			return size++;
+		}
+	}
+
+	/**
+	 * Returns the index of a user ID without adding it to the dictionary.
+	 *
+	 * @param userID the user ID.
+	 *
+	 * @return the index of the ID, or -1 if it is not in the dictionary.
+	 */
+	public static int find(String userID) {
+
+		Integer index = userID == null ? null : indexes.get(userID);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Returns the user ID at an index.
+	 *
+	 * @param index an index returned by {@link #indexOf(String)}, or -1.
+	 *
+	 * @return the dictionary's {@code String} for the ID, or {@code null} for -1.
+	 */
+	public static String get(int index) {
+
+		return index < 0 ? null : userIDs[index];
+	}
+
+	/**
+	 * Returns the dictionary's {@code String} for a user ID, adding the ID if it is new. Meant for models that keep
+	 * the ID as a {@code String}, so that they share it with the rest of the data set.
+	 *
+	 * @param userID the user ID, or {@code null}.
+	 *
+	 * @return an equal {@code String} shared by every holder of the ID, or {@code null}.
+	 */
+	public static String canonical(String userID) {
+
+		return get(indexOf(userID));
+	}
+}
@@ -0,0 +1,174 @@
+package utils;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code UserIdSet} class is a set of user IDs that keeps the order the IDs were added in, such as the attendees of a camp.
+ *
+ * <p>Each ID is held as its index in the {@link UserIdDictionary}: an {@code int} in an array that records the order,
+ * and another in a hash table of twice the size that answers {@link #contains(Object)} without scanning the set.
+ * A member therefore costs about a dozen bytes, where a {@code LinkedHashSet} entry costs some fifty before counting
+ * the ID it points to. Iterating yields the dictionary's {@code String}s.</p>
+ *
+ * <p>Removing an ID shifts the IDs after it and rebuilds the table. Sets in CAMs are copied to be changed anyway, so
+ * this is no dearer than the copy. A {@code UserIdSet} is not safe for use by several threads while it is being changed.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see UserIdDictionary
+ */
+public class UserIdSet extends AbstractSet<String> {
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * The indexes of the members, in the order they were added.
+	 */
+	private int[] members = EMPTY;
+
+	private int size;
+
+	/**
+	 * An open-addressing table of member index + 1, with 0 for an empty bucket. Its length is a power of two.
+	 */
+	private int[] table = EMPTY;
+
+	/**
+	 * Creates an empty set.
+	 */
+	public UserIdSet() {}
+
+	/**
+	 * Creates a set holding the distinct IDs of a collection, in its iteration order.
+	 *
+	 * @param userIDs the IDs to be added.
+	 */
+	public UserIdSet(Collection<String> userIDs) {
+
+		if (!userIDs.isEmpty()) {
+			members = new int[userIDs.size()];
+			table = new int[tableLength(userIDs.size())];
+		}
+		for (String userID : userIDs)
+			add(userID);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+
+		if (!(o instanceof String) || size == 0) return false;
+
+		int index = UserIdDictionary.find((String) o);
+		return index >= 0 && bucketOf(index) >= 0;
+	}
+
+	@Override
+	public boolean add(String userID) {
+
+		int index = UserIdDictionary.indexOf(userID);
+		if (index < 0)
+			throw new NullPointerException("userID");
+		if (size > 0 && bucketOf(index) >= 0) return false;
+
+		if (size == members.length)
+			members = Arrays.copyOf(members, Math.max(4, size * 2));
+		members[size++] = index;
+
+		if (size * 2 > table.length) rebuild();
+		else insert(index);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+
+		if (!(o instanceof String) || size == 0) return false;
+
+		int index = UserIdDictionary.find((String) o);
+		if (index < 0 || bucketOf(index) < 0) return false;
+
+		for (int i = 0; i < size; i++) {
+			if (members[i] == index) {
+				System.arraycopy(members, i + 1, members, i, size - i - 1);
+				size--;
+				break;
+			}
+		}
+		rebuild();
+		return true;
+	}
+
+	@Override
+	public Iterator<String> iterator() {
+
+		return new Iterator<String>() {
+
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public String next() {
+				if (next >= size) throw new NoSuchElementException();
+				return UserIdDictionary.get(members[next++]);
+			}
+		};
+	}
+
+	/**
+	 * Finds the bucket holding a member.
+	 *
+	 * @param index the dictionary index of the ID.
+	 *
+	 * @return the bucket, or -1 if the ID is not a member.
+	 */
+	private int bucketOf(int index) {
+
+		int mask = table.length - 1;
+		for (int bucket = hash(index) & mask; table[bucket] != 0; bucket = (bucket + 1) & mask) {
+			if (table[bucket] == index + 1) return bucket;
+		}
+		return -1;
+	}
+
+	private void insert(int index) {
+
+		int mask = table.length - 1;
+		int bucket = hash(index) & mask;
+		while (table[bucket] != 0)
+			bucket = (bucket + 1) & mask;
+		table[bucket] = index + 1;
+	}
+
+	/**
+	 * Rebuilds the table from the members, at a length that keeps it at most half full.
+	 */
+	private void rebuild() {
+
+		table = size == 0 ? EMPTY : new int[tableLength(size)];
+		for (int i = 0; i < size; i++)
+			insert(members[i]);
+	}
+
+	private static int tableLength(int count) {
+		return Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+	}
+
+	private static int hash(int index) {
+		return index * 0x9E3779B9 >>> 7;
+	}
+}
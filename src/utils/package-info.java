@@ -5,9 +5,19 @@
  * @version 1.0
  * 
  * @see utils.CampComparators
+ * @see utils.CsvTokenizer
  * @see utils.DateUtil
+ * @see utils.DaySet
+ * @see utils.ExportBatch
+ * @see utils.IdAllocator
  * @see utils.InputUtil
+ * @see utils.MappedCsvReader
  * @see utils.PrintUtil
+ * @see utils.SessionPrintStream
+ * @see utils.SnapshotInput
+ * @see utils.SnapshotOutput
  * @see utils.SortCampUtil
+ * @see utils.UserIdDictionary
+ * @see utils.UserIdSet
  */
 package utils;
\ No newline at end of file
@@ -1,7 +1,5 @@
 package views;
 
-import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.Map;
 
 import dao.CampDaoImpl;
@@ -16,7 +14,6 @@ import interfaces.views.CampDetailViewable;
 import models.Camp;
 import models.CommitteeMember;
 import models.Staff;
-import utils.DateUtil;
 import utils.PrintUtil;
 
 /**
@@ -44,19 +41,18 @@ public class CampDetailView implements CampDetailViewable {
         Map<String, Staff> staffData = staffDao.getStaffs();
         CommitteeMember currentUser = (CommitteeMember)currentUserDao.getCurrentUser();
         Camp facilitatingCamp = campData.get(currentUser.getFacilitatingCamp());
-        ArrayList<GregorianCalendar> dateList = facilitatingCamp.getDates();
 
         PrintUtil.header("Facilitating Camp");
         System.out.printf("%-30s: %s\n","Name" , facilitatingCamp.getName());
         System.out.printf("%-30s: %s -> %s\n","Duration",
-            DateUtil.toString(dateList.get(0)),
-            DateUtil.toString(dateList.get(dateList.size() - 1)));
-        System.out.printf("%-30s: %s\n","Registration Closing Date" ,DateUtil.toString(facilitatingCamp.getRegistrationClosingDate()));
+            facilitatingCamp.getStartDate(),
+            facilitatingCamp.getEndDate());
+        System.out.printf("%-30s: %s\n","Registration Closing Date" ,facilitatingCamp.getRegistrationClosingDate());
         System.out.printf("%-30s: %s\n","User group" , facilitatingCamp.getOpenTo());
         System.out.printf("%-30s: %s\n","Location" , facilitatingCamp.getLocation());
-        System.out.printf("%-30s: %s\n","Remaining attendee slots", facilitatingCamp.getAttendeeSlots() - facilitatingCamp.getAttendees().size());
+        System.out.printf("%-30s: %s\n","Remaining attendee slots", facilitatingCamp.getRemainingAttendeeSlots());
         System.out.printf("%-30s: %s\n","Remaining camp committee slots",
-            facilitatingCamp.getCommitteeSlots() - facilitatingCamp.getCommitteeMembers().size());
+            facilitatingCamp.getRemainingCommitteeSlots());
         System.out.printf("%-30s: %s\n","Description" , facilitatingCamp.getDescription());
         System.out.printf("%-30s: %s\n","Staff-in-charge" , staffData.get(facilitatingCamp.getStaffInCharge()).getName());
         System.out.println();
@@ -1,8 +1,6 @@
 package views;
 
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
-import java.util.Map;
 
 import dao.CampDaoImpl;
 import dao.CurrentUserDaoImpl;
@@ -17,8 +15,6 @@ import interfaces.views.CampViewable;
 import models.Camp;
 import models.Staff;
 
-import utils.SortCampUtil;
-import utils.DateUtil;
 import utils.PrintUtil;
 
 /**
@@ -43,26 +39,18 @@ public class CreatedCampView implements CampViewable {
     public void sortView(SortType sortType) {
 
         int i = 1;
-        ArrayList<GregorianCalendar> dateList;
         Staff currentUser = (Staff)currentUserDao.getCurrentUser();
-        ArrayList<String> createdCampNameList = currentUser.getCreatedCamps();
-        Map<String, Camp> campsData = campDao.getCamps();
-        ArrayList<Camp> createdCampList = new ArrayList<Camp>();
+        ArrayList<Camp> createdCampList = campDao.getSortedCamps(sortType,
+            campDao.getCampsByStaffInCharge(currentUser.getUserID()));
 
-        for (String campName : createdCampNameList) {
-            createdCampList.add(campsData.get(campName));
-        }
-
-        createdCampList = SortCampUtil.sort(createdCampList, sortType);
         PrintUtil.header("List of Created Camps");
         for (Camp camp : createdCampList) {
-            dateList = camp.getDates();
             PrintUtil.header(String.format("Camp %d", i++));
             System.out.printf("%-30s: %s\n","Name" , camp.getName());
             System.out.printf("%-30s: %s -> %s\n","Duration",
-                DateUtil.toString(dateList.get(0)),
-                DateUtil.toString(dateList.get(dateList.size() - 1)));
-            System.out.printf("%-30s: %s\n","Registration Closing Date" ,DateUtil.toString(camp.getRegistrationClosingDate()));
+                camp.getStartDate(),
+                camp.getEndDate());
+            System.out.printf("%-30s: %s\n","Registration Closing Date" ,camp.getRegistrationClosingDate());
             System.out.printf("%-30s: %s\n","User group" , camp.getOpenTo());
             System.out.printf("%-30s: %s\n","Location" , camp.getLocation());
             System.out.printf("%-30s: %s\n","Total slots" , camp.getTotalSlots());
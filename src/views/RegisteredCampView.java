@@ -1,7 +1,6 @@
 package views;
 
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.Map;
 
 import enums.SortType;
@@ -21,9 +20,7 @@ import models.Camp;
 import models.Student;
 import models.Staff;
 
-import utils.DateUtil;
 import utils.PrintUtil;
-import utils.SortCampUtil;
 
 /**
  * The {@code RegisteredCampView} class provides a view to display the list of camps that a student is registered for.
@@ -51,7 +48,6 @@ public class RegisteredCampView implements CampViewable {
     public void sortView(SortType sortType) {
 
         int i = 1;
-        ArrayList<GregorianCalendar> dateList;
         Student student = (Student)currentUserDao.getCurrentUser();
         Map<String, Camp> campData = campDao.getCamps();
         Map<String, Staff> staffData = staffDao.getStaffs();
@@ -62,7 +58,7 @@ public class RegisteredCampView implements CampViewable {
             registeredCampList.add(campData.get(registeredCampID));
         }
         
-        registeredCampList = SortCampUtil.sort(registeredCampList, sortType);
+        registeredCampList = campDao.getSortedCamps(sortType, registeredCampList);
         
         // If the student has a committee role, display the facilitating camp details
         PrintUtil.header("List of Registered Camp");
@@ -71,18 +67,17 @@ public class RegisteredCampView implements CampViewable {
         // Display the details of each registered camp
         PrintUtil.header("Attending Camps");
         for (Camp camp : registeredCampList) {
-            dateList = camp.getDates();
             PrintUtil.header(String.format("Camp %d", i++));
             System.out.printf("%-30s: %s\n","Name" , camp.getName());
             System.out.printf("%-30s: %s -> %s\n","Duration",
-                DateUtil.toString(dateList.get(0)),
-                DateUtil.toString(dateList.get(dateList.size() - 1)));
-            System.out.printf("%-30s: %s\n","Registration Closing Date" ,DateUtil.toString(camp.getRegistrationClosingDate()));
+                camp.getStartDate(),
+                camp.getEndDate());
+            System.out.printf("%-30s: %s\n","Registration Closing Date" ,camp.getRegistrationClosingDate());
             System.out.printf("%-30s: %s\n","User group" , camp.getOpenTo());
             System.out.printf("%-30s: %s\n","Location" , camp.getLocation());
-            System.out.printf("%-30s: %s\n","Remaining attendee slots", camp.getAttendeeSlots() - camp.getAttendees().size());
+            System.out.printf("%-30s: %s\n","Remaining attendee slots", camp.getRemainingAttendeeSlots());
             System.out.printf("%-30s: %s\n","Remaining camp committee slots",
-                camp.getCommitteeSlots() - camp.getCommitteeMembers().size());
+                camp.getRemainingCommitteeSlots());
             System.out.printf("%-30s: %s\n","Description" , camp.getDescription());
             System.out.printf("%-30s: %s\n","Staff-in-charge" , staffData.get(camp.getStaffInCharge()).getName());
             System.out.println();
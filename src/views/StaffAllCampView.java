@@ -1,7 +1,6 @@
 package views;
 
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.Map;
 
 import dao.CampDaoImpl;
@@ -18,8 +17,6 @@ import interfaces.views.CampViewable;
 import models.Camp;
 import models.Staff;
 
-import utils.SortCampUtil;
-import utils.DateUtil;
 import utils.PrintUtil;
 
 /**
@@ -44,22 +41,18 @@ public class StaffAllCampView implements CampViewable {
     public void sortView(SortType sortType) {
 
         int i = 1;
-        ArrayList<GregorianCalendar> dateList;
         Map<String, Staff> staffData = staffDao.getStaffs();
-        Map<String, Camp> campsData = campDao.getCamps();
-        ArrayList<Camp> campList = new ArrayList<Camp>(campsData.values());
-        campList = SortCampUtil.sort(campList, sortType);
+        ArrayList<Camp> campList = campDao.getSortedCamps(sortType);
 
         // Display details of each camp
         PrintUtil.header("List of All Camps");
         for (Camp camp : campList) {
-            dateList = camp.getDates();
             PrintUtil.header(String.format("Camp %d", i++));
             System.out.printf("%-30s: %s\n","Name" , camp.getName());
             System.out.printf("%-30s: %s -> %s\n","Duration",
-                DateUtil.toString(dateList.get(0)),
-                DateUtil.toString(dateList.get(dateList.size() - 1)));
-            System.out.printf("%-30s: %s\n","Registration Closing Date" ,DateUtil.toString(camp.getRegistrationClosingDate()));
+                camp.getStartDate(),
+                camp.getEndDate());
+            System.out.printf("%-30s: %s\n","Registration Closing Date" ,camp.getRegistrationClosingDate());
             System.out.printf("%-30s: %s\n","User group" , camp.getOpenTo());
             System.out.printf("%-30s: %s\n","Location" , camp.getLocation());
             System.out.printf("%-30s: %s\n","Total slots" , camp.getTotalSlots());
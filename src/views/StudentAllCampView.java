@@ -1,7 +1,6 @@
 package views;
 
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.Map;
 
 import dao.CampDaoImpl;
@@ -9,7 +8,6 @@ import dao.CurrentUserDaoImpl;
 import dao.StaffDaoImpl;
 
 import enums.SortType;
-import enums.Visibility;
 
 import interfaces.dao.CampDao;
 import interfaces.dao.CurrentUserDao;
@@ -19,8 +17,6 @@ import interfaces.views.CampViewable;
 import models.Camp;
 import models.Staff;
 
-import utils.SortCampUtil;
-import utils.DateUtil;
 import utils.PrintUtil;
 
 /**
@@ -47,34 +43,23 @@ public class StudentAllCampView implements CampViewable {
     public void sortView(SortType sortType) {
 
         int i = 1;
-        Map<String, Camp> campsData = campDao.getCamps();
         Map<String, Staff> staffData = staffDao.getStaffs();
         String faculty = currentUserDao.getCurrentUser().getFaculty();
-        ArrayList<Camp> campList = new ArrayList<Camp>();
-        ArrayList<GregorianCalendar> dateList;
+        ArrayList<Camp> campList = campDao.getSortedCamps(sortType, campDao.getVisibleCamps(faculty));
 
-        for (Camp camp : campsData.values()) {
-
-            if (camp.getVisibility() == Visibility.OFF) continue;
-
-            if (camp.getOpenTo().equals("NTU") || (camp.getOpenTo().equals(faculty))) campList.add(camp);
-        }
-
-        campList = SortCampUtil.sort(campList, sortType);
         PrintUtil.header("List of All Camps");
         for (Camp camp : campList) {
-            dateList = camp.getDates();
             PrintUtil.header(String.format("Camp %d", i++));
             System.out.printf("%-30s: %s\n","Name" , camp.getName());
             System.out.printf("%-30s: %s -> %s\n","Duration",
-                DateUtil.toString(dateList.get(0)),
-                DateUtil.toString(dateList.get(dateList.size() - 1)));
-            System.out.printf("%-30s: %s\n","Registration Closing Date" ,DateUtil.toString(camp.getRegistrationClosingDate()));
+                camp.getStartDate(),
+                camp.getEndDate());
+            System.out.printf("%-30s: %s\n","Registration Closing Date" ,camp.getRegistrationClosingDate());
             System.out.printf("%-30s: %s\n","User group" , camp.getOpenTo());
             System.out.printf("%-30s: %s\n","Location" , camp.getLocation());
-            System.out.printf("%-30s: %s\n","Remaining attendee slots", camp.getAttendeeSlots() - camp.getAttendees().size());
+            System.out.printf("%-30s: %s\n","Remaining attendee slots", camp.getRemainingAttendeeSlots());
             System.out.printf("%-30s: %s\n","Remaining camp committee slots",
-                camp.getCommitteeSlots() - camp.getCommitteeMembers().size());
+                camp.getRemainingCommitteeSlots());
             System.out.printf("%-30s: %s\n","Description" , camp.getDescription());
             System.out.printf("%-30s: %s\n","Staff-in-charge" , staffData.get(camp.getStaffInCharge()).getName());
             System.out.println();
@@ -0,0 +1,302 @@
+package checks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import dao.CampDaoImpl;
+
+import interfaces.dao.CampDao;
+import interfaces.services.DataServiceable;
+
+import models.Camp;
+
+import services.CampDataService;
+import services.CommitteeDataService;
+import services.StudentDataService;
+
+import utils.DateUtil;
+
+/**
+ * The {@code ImportBenchmark} class measures how long the importers take to read the CSV data files.
+ *
+ * <p>It writes a StudentList.csv, a CommitteeList.csv and a CampList.csv of the given sizes to a temporary directory,
+ * from a fixed seed so that every run reads the same bytes, and imports each of them through its
+ * {@link DataServiceable} the given number of times after {@value #WARM_UP} imports to warm up. Every import goes through
+ * {@link utils.MappedCsvReader} and {@link utils.CsvTokenizer}, as when the application starts. The camps are imported a
+ * second time with their enquiries and suggestions read as well, since those are only decoded when first asked for.
+ * It prints the fastest, median and mean time of an import of each file.</p>
+ *
+ * <p>The benchmark is a tool, kept out of the application's source root. Compile and run it from the repository root with
+ * {@code javac -cp src -d bin-tools tools/checks/ImportBenchmark.java} and
+ * {@code java -Xmx1g -cp bin-tools checks.ImportBenchmark [students] [camps] [imports]}, 40000 students, 5000 camps and 30
+ * imports by default. The {@code cams.import.*} properties given to the JVM apply as they do to the application.
+ * The benchmark does not read or write the data files, and deletes its temporary directory when it finishes.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see services.StudentDataService
+ * @see services.CommitteeDataService
+ * @see services.CampDataService
+ * @see utils.MappedCsvReader
+ */
+public class ImportBenchmark {
+
+	private static final int WARM_UP = 10;
+
+	private static final long SEED = 2002;
+
+	private static final String[] FACULTIES = { "ADM", "EEE", "NBS", "SCSE", "SSS" };
+
+	private static final CampDao campDao = new CampDaoImpl();
+
+	private ImportBenchmark() {}
+
+    /**
+     * Runs the benchmark for the sizes given by the arguments.
+     *
+     * @param args the command-line arguments, optionally the number of students, of camps and of imports.
+     *
+     * @throws IOException if the data files cannot be written.
+     */
+	public static void main(String[] args) throws IOException {
+
+		int students = args.length > 0 ? Integer.parseInt(args[0]) : 40000;
+		int camps = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+		int imports = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+		Path directory = Files.createTempDirectory("cams-import");
+		try {
+			Random random = new Random(SEED);
+			String studentFile = writeStudents(directory.resolve("StudentList.csv"), students, camps, random).toString();
+			String committeeFile = writeCommitteeMembers(directory.resolve("CommitteeList.csv"), students / 20, camps, random).toString();
+			String campFile = writeCamps(directory.resolve("CampList.csv"), camps, students, random).toString();
+
+			System.out.printf("> %d students, %d committee members and %d camps, %d imports of each after %d to warm up\n",
+					students, students / 20, camps, imports, WARM_UP);
+			System.out.printf("> cams.import.mmap.threshold=%s, cams.import.chunk=%s, %d processors\n",
+					System.getProperty("cams.import.mmap.threshold", "default"),
+					System.getProperty("cams.import.chunk", "default"),
+					Runtime.getRuntime().availableProcessors());
+			System.out.println();
+			System.out.printf("%-22s %10s %10s %10s\n", "File", "Min (ms)", "Median", "Mean");
+
+			report("StudentList.csv", measure(imports, () -> new StudentDataService().importing(studentFile)));
+			report("CommitteeList.csv", measure(imports, () -> new CommitteeDataService().importing(committeeFile)));
+			report("CampList.csv", measure(imports, () -> new CampDataService().importing(campFile)));
+			report("CampList.csv, decoded", measure(imports, () -> {
+				new CampDataService().importing(campFile);
+				for (Camp camp : campDao.getCamps().values()) {
+					camp.getEnquiries();
+					camp.getSuggestions();
+				}
+			}));
+		} finally {
+			try (Stream<Path> files = Files.walk(directory)) {
+				files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+			}
+		}
+	}
+
+	/**
+	 * Times an import, after running it to warm up.
+	 * The maps it fills are kept from one import to the next, so every measured import replaces the same entries.
+	 *
+	 * @param imports the number of imports to be timed.
+	 * @param importing the import.
+	 *
+	 * @return the time of each import in nanoseconds, in ascending order.
+	 */
+	private static long[] measure(int imports, Runnable importing) {
+
+		for (int i = 0; i < WARM_UP; i++)
+			importing.run();
+
+		long[] times = new long[imports];
+		for (int i = 0; i < imports; i++) {
+			long start = System.nanoTime();
+			importing.run();
+			times[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(times);
+		return times;
+	}
+
+	/**
+	 * Prints the fastest, median and mean time of the imports of a file.
+	 *
+	 * @param file the name of the file.
+	 * @param times the time of each import in nanoseconds, in ascending order.
+	 */
+	private static void report(String file, long[] times) {
+
+		double mean = Arrays.stream(times).average().orElse(0);
+		System.out.printf("%-22s %10.1f %10.1f %10.1f\n", file, times[0] / 1e6, times[times.length / 2] / 1e6, mean / 1e6);
+	}
+
+	/**
+	 * Writes a StudentList.csv of students registered for up to three camps each.
+	 *
+	 * @param file the file to be written.
+	 * @param students the number of students.
+	 * @param camps the number of camps they may register for.
+	 * @param random the source of the students' faculties and camps.
+	 *
+	 * @return the file.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 */
+	private static Path writeStudents(Path file, int students, int camps, Random random) throws IOException {
+
+		try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			bw.write("Name,Email,Faculty,Password,RegisteredCamps,Enquiries");
+			bw.newLine();
+			for (int i = 0; i < students; i++) {
+				String userID = "STU" + i;
+				bw.write("Student " + i + "," + userID + "@e.ntu.edu.sg," + faculty(random) + ",P@$$w0rd,"
+						+ campNames(random, camps, random.nextInt(4)) + ",#NULL!");
+				bw.newLine();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Writes a CommitteeList.csv of committee members who have each made an enquiry and a suggestion.
+	 *
+	 * @param file the file to be written.
+	 * @param committeeMembers the number of committee members.
+	 * @param camps the number of camps they may facilitate.
+	 * @param random the source of the committee members' faculties and camps.
+	 *
+	 * @return the file.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 */
+	private static Path writeCommitteeMembers(Path file, int committeeMembers, int camps, Random random) throws IOException {
+
+		try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			bw.write("Name,Email,Faculty,Password,RegisteredCamps,Enquiries,FacilitatingCamp,Suggestions,Points");
+			bw.newLine();
+			for (int i = 0; i < committeeMembers; i++) {
+				String userID = "COM" + i;
+				String otherCamp = "Camp " + random.nextInt(camps);
+				bw.write("Member " + i + "," + userID + "@e.ntu.edu.sg," + faculty(random) + ",P@$$w0rd,"
+						+ campNames(random, camps, 1) + "," + otherCamp + "=" + i + ",Camp " + random.nextInt(camps) + ","
+						+ i + "," + random.nextInt(10));
+				bw.newLine();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Writes a CampList.csv of camps with attendees, committee members, enquiries and suggestions.
+	 * Descriptions and enquiries contain commas, so that quoted fields are read as well.
+	 *
+	 * @param file the file to be written.
+	 * @param camps the number of camps.
+	 * @param students the number of students who may attend them.
+	 * @param random the source of the camps' dates, faculties and attendees.
+	 *
+	 * @return the file.
+	 *
+	 * @throws IOException if the file cannot be written.
+	 */
+	private static Path writeCamps(Path file, int camps, int students, Random random) throws IOException {
+
+		int today = DateUtil.today();
+		int enquiryID = 0, suggestionID = 0;
+		try (BufferedWriter bw = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			bw.write("Enquiry Counter,Suggestion Counter");
+			bw.newLine();
+			bw.write(camps * 3 + "," + camps * 2);
+			bw.newLine();
+			bw.write("campName,dates,registrationClosingDate,openTo,location,totalSlots,committeeSlots,description,staffInCharge,attendees,withdrawnAttendees,committeeMembers,visibility,enquiries,suggestions");
+			bw.newLine();
+			for (int i = 0; i < camps; i++) {
+				int firstDay = today + random.nextInt(365);
+				List<String> dates = new ArrayList<String>();
+				for (int day = 0; day < 1 + random.nextInt(3); day++)
+					dates.add(DateUtil.toString(firstDay + day));
+
+				List<String> enquiries = new ArrayList<String>();
+				for (int j = 0; j < 3; j++) {
+					enquiryID++;
+					enquiries.add(enquiryID + "|Is lunch provided, and when?|STU" + random.nextInt(students)
+							+ (j == 0 ? "|Yes, at noon|ANWIT" : "|#NULL!|#NULL!"));
+				}
+				List<String> suggestions = new ArrayList<String>();
+				for (int j = 0; j < 2; j++) {
+					suggestionID++;
+					suggestions.add(suggestionID + "|More snacks|COM" + random.nextInt(Math.max(1, students / 20)) + "|" + (j == 0));
+				}
+
+				bw.write("Camp " + i + "," + String.join("|", dates) + "," + DateUtil.toString(firstDay - 10) + ","
+						+ (i % 2 == 0 ? "NTU" : faculty(random)) + ",Hall " + (i % 40) + ",60,6,"
+						+ "\"Camp " + i + ", for freshmen of every faculty\",ANWIT,"
+						+ studentIDs(random, students, 20) + "," + studentIDs(random, students, 2) + "," + studentIDs(random, students, 3) + ","
+						+ (i % 3 == 0 ? "OFF" : "ON") + ",\"" + String.join("*", enquiries) + "\"," + String.join("*", suggestions));
+				bw.newLine();
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Chooses a faculty.
+	 *
+	 * @param random the source of the choice.
+	 *
+	 * @return the faculty.
+	 */
+	private static String faculty(Random random) {
+		return FACULTIES[random.nextInt(FACULTIES.length)];
+	}
+
+	/**
+	 * Chooses camps and joins their names as a list field.
+	 *
+	 * @param random the source of the choice.
+	 * @param camps the number of camps to choose from.
+	 * @param count the number of camps chosen.
+	 *
+	 * @return the field, or {@code #NULL!} if no camp is chosen.
+	 */
+	private static String campNames(Random random, int camps, int count) {
+
+		if (count == 0) return "#NULL!";
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < count; i++)
+			names.add("Camp " + random.nextInt(camps));
+		return String.join("|", names);
+	}
+
+	/**
+	 * Chooses students and joins their user IDs as a list field.
+	 *
+	 * @param random the source of the choice.
+	 * @param students the number of students to choose from.
+	 * @param count the number of students chosen.
+	 *
+	 * @return the field, or {@code #NULL!} if no student is chosen.
+	 */
+	private static String studentIDs(Random random, int students, int count) {
+
+		if (count == 0) return "#NULL!";
+		List<String> userIDs = new ArrayList<String>();
+		for (int i = 0; i < count; i++)
+			userIDs.add("STU" + random.nextInt(students));
+		return String.join("|", userIDs);
+	}
+}
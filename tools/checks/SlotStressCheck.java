@@ -0,0 +1,228 @@
+package checks;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dao.CampDaoImpl;
+import dao.CommitteeMemberDaoImpl;
+import dao.StudentDaoImpl;
+
+import enums.Visibility;
+
+import interfaces.dao.CampDao;
+import interfaces.dao.CommitteeMemberDao;
+import interfaces.dao.StudentDao;
+import interfaces.services.AttendCampServiceable;
+
+import models.Camp;
+import models.Session;
+import models.Student;
+
+import services.StudentAttendCampService;
+
+import utils.DateUtil;
+import utils.SessionPrintStream;
+
+/**
+ * The {@code SlotStressCheck} class checks that concurrent sessions cannot overbook a camp.
+ *
+ * <p>Each round creates a camp with {@value #ATTENDEE_SLOTS} attendee slots, {@value #COMMITTEE_SLOTS} committee slots
+ * and {@value #STUDENTS} students, who all register at once through {@link StudentAttendCampService}, each in a session
+ * of its own: half of them as attendees and half as committee members, so that both kinds of slot are contended for
+ * together. Every attendee who got in then withdraws from two sessions at once, as a student logged in twice would.
+ * After each phase the camp must hold exactly as many attendees and committee members as its slots allow, and its counts
+ * of remaining slots must match.</p>
+ *
+ * <p>The check is a tool, kept out of the application's source root. Compile and run it from the repository root with
+ * {@code javac -cp src -d bin-tools tools/checks/SlotStressCheck.java} and {@code java -cp bin-tools checks.SlotStressCheck [rounds]},
+ * 20 rounds by default. It works on camps and students of its own, made in memory, and does not read or write the data
+ * files. It exits with status 1 on the first failure.</p>
+ *
+ * @author Chuan Shan Hong
+ * @version 1.0
+ * @since 1.1
+ *
+ * @see services.StudentAttendCampService
+ * @see models.Camp
+ */
+public class SlotStressCheck {
+
+	private static final int STUDENTS = 200;
+
+	private static final int ATTENDEE_SLOTS = 50;
+
+	private static final int COMMITTEE_SLOTS = 10;
+
+	private static final String FACULTY = "STRESS";
+
+	private static final CampDao campDao = new CampDaoImpl();
+
+	private static final StudentDao studentDao = new StudentDaoImpl();
+
+	private static final CommitteeMemberDao committeeMemberDao = new CommitteeMemberDaoImpl();
+
+	private static final AttendCampServiceable attendCampService = new StudentAttendCampService();
+
+	private SlotStressCheck() {}
+
+    /**
+     * Runs the check for the number of rounds given by the first argument.
+     *
+     * @param args the command-line arguments, optionally the number of rounds.
+     *
+     * @throws Exception if a session fails with an exception.
+     */
+	public static void main(String[] args) throws Exception {
+
+		int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+		// Send what the sessions print to their own discarded outputs
+		Session.console();
+		PrintStream console = System.out;
+		System.setOut(new SessionPrintStream());
+
+		ExecutorService sessions = Executors.newFixedThreadPool(64);
+		try {
+			for (int round = 1; round <= rounds; round++) {
+				String failure = runRound(sessions, round);
+				if (failure != null) {
+					System.err.println("> Round " + round + ": " + failure);
+					System.exit(1);
+				}
+			}
+		} finally {
+			sessions.shutdownNow();
+		}
+
+		console.println("> No camp overbooked in " + rounds + " rounds");
+	}
+
+	/**
+	 * Registers every student of a new camp at once, half as attendees and half as committee members,
+	 * then withdraws each attendee from two sessions at once.
+	 *
+	 * @param sessions the threads the sessions run on.
+	 * @param round the number of the round, which names its camp and students.
+	 *
+	 * @return a description of what went wrong, or {@code null} if the camp was never overbooked.
+	 *
+	 * @throws Exception if a session fails with an exception.
+	 */
+	private static String runRound(ExecutorService sessions, int round) throws Exception {
+
+		int today = DateUtil.today();
+		String campName = "Stress Camp " + round;
+		Camp camp = new Camp(campName, new int[] { today + 30, today + 31 }, today + 20, FACULTY, "Stress Hall",
+				ATTENDEE_SLOTS + COMMITTEE_SLOTS, COMMITTEE_SLOTS, "Slot stress check", "STRESS");
+		camp.setVisibility(Visibility.ON);
+		campDao.getCamps().put(campName, camp);
+		campDao.index(camp);
+
+		List<Student> students = new ArrayList<Student>();
+		for (int i = 0; i < STUDENTS; i++) {
+			String userID = "STRESS" + round + "_" + i;
+			Student student = new Student(userID, "password", userID, FACULTY, new ArrayList<String>(), new HashMap<>());
+			studentDao.getStudents().put(userID, student);
+			students.add(student);
+		}
+
+		try {
+			// Choose the only camp listed, as an attendee or as a committee member by turns
+			List<Runnable> registrations = new ArrayList<Runnable>();
+			for (int i = 0; i < students.size(); i++)
+				registrations.add(session(students.get(i), i % 2 == 0 ? "1\n1\n" : "1\n2\n", attendCampService::register));
+			runAtOnce(sessions, registrations);
+
+			if (camp.getAttendees().size() != ATTENDEE_SLOTS || camp.getRemainingAttendeeSlots() != 0)
+				return "after registering, " + camp.getAttendees().size() + " attendees and "
+						+ camp.getRemainingAttendeeSlots() + " slots remaining";
+
+			int committeeMembers = 0;
+			for (Student student : students) {
+				if (committeeMemberDao.getCommitteeMembers().containsKey(student.getUserID())) committeeMembers++;
+			}
+			if (camp.getCommitteeMembers().size() != COMMITTEE_SLOTS || committeeMembers != COMMITTEE_SLOTS
+					|| camp.getRemainingCommitteeSlots() != 0)
+				return "after registering, " + camp.getCommitteeMembers().size() + " committee members in the camp, "
+						+ committeeMembers + " made committee members and "
+						+ camp.getRemainingCommitteeSlots() + " committee slots remaining";
+
+			// Withdraw each attendee from two sessions at once
+			List<Runnable> withdrawals = new ArrayList<Runnable>();
+			for (Student student : students) {
+				if (!student.getRegisteredCamps().contains(campName)) continue;
+				withdrawals.add(session(student, "1\n", attendCampService::withdraw));
+				withdrawals.add(session(student, "1\n", attendCampService::withdraw));
+			}
+			runAtOnce(sessions, withdrawals);
+
+			if (!camp.getAttendees().isEmpty() || camp.getWithdrawnAttendees().size() != ATTENDEE_SLOTS
+					|| camp.getRemainingAttendeeSlots() != ATTENDEE_SLOTS)
+				return "after withdrawing, " + camp.getAttendees().size() + " attendees, "
+						+ camp.getWithdrawnAttendees().size() + " withdrawn and "
+						+ camp.getRemainingAttendeeSlots() + " slots remaining";
+			return null;
+		} finally {
+			campDao.getCamps().remove(campName);
+			campDao.unindex(campName);
+			for (Student student : students) {
+				studentDao.getStudents().remove(student.getUserID());
+				committeeMemberDao.getCommitteeMembers().remove(student.getUserID());
+			}
+		}
+	}
+
+	/**
+	 * Builds a task that runs a service call in a new session of a student, reading the given input.
+	 *
+	 * @param student the student logged in to the session.
+	 * @param input the lines the student enters.
+	 * @param call the service call to be made.
+	 *
+	 * @return the task running the session.
+	 */
+	private static Runnable session(Student student, String input, Runnable call) {
+
+		return () -> {
+			Session session = new Session(student.getUserID(),
+					new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+					new PrintStream(OutputStream.nullOutputStream()));
+			session.setUser(student);
+			session.run(call);
+		};
+	}
+
+	/**
+	 * Runs the tasks together, releasing them all at the same moment, and waits for them to finish.
+	 *
+	 * @param sessions the threads the tasks run on.
+	 * @param tasks the tasks to be run.
+	 *
+	 * @throws Exception if a task fails with an exception.
+	 */
+	private static void runAtOnce(ExecutorService sessions, List<Runnable> tasks) throws Exception {
+
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> running = new ArrayList<Future<?>>();
+		for (Runnable task : tasks) {
+			running.add(sessions.submit(() -> {
+				start.await();
+				task.run();
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : running)
+			future.get();
+	}
+}
@@ -0,0 +1,12 @@
+/**
+ * The {@code checks} package contains tools for checking and measuring CAMs that are not part of the application.
+ * It lives in its own source root, outside {@code src} and the {@code SC2002_CAMs} module, and is compiled against
+ * the application's sources only when a tool is run.
+ * 
+ * @since 1.1
+ * @version 1.0
+ * 
+ * @see checks.ImportBenchmark
+ * @see checks.SlotStressCheck
+ */
+package checks;